@@ -0,0 +1,45 @@
+// Balance lookups from many concurrent callers, as the integration gateway fans them out.
+// Requires the employees from seed.sql. Usage:
+//   k6 run -e BASE_URL=http://localhost:8080 -e VUS=10000 -e DURATION=2m load-tests/balance-fanout.js
+import http from 'k6/http';
+import { check } from 'k6';
+import { textSummary } from 'https://jslib.k6.io/k6-summary/0.0.2/index.js';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const VUS = parseInt(__ENV.VUS || '10000');
+const DURATION = __ENV.DURATION || '2m';
+const FIRST_EMPLOYEE_ID = parseInt(__ENV.FIRST_EMPLOYEE_ID || '100001');
+const EMPLOYEES = parseInt(__ENV.EMPLOYEES || '1000');
+const SUMMARY_FILE = __ENV.SUMMARY_FILE || 'summary.json';
+
+export const options = {
+    scenarios: {
+        fanout: {
+            executor: 'ramping-vus',
+            stages: [
+                { duration: '30s', target: VUS },
+                { duration: DURATION, target: VUS },
+                { duration: '10s', target: 0 },
+            ],
+            gracefulRampDown: '10s',
+        },
+    },
+    summaryTrendStats: ['med', 'p(99)', 'max'],
+    thresholds: {
+        'http_req_duration{op:balance}': ['p(99)<1000'],
+        http_req_failed: ['rate<0.01'],
+    },
+};
+
+export default function () {
+    const employeeId = FIRST_EMPLOYEE_ID + Math.floor(Math.random() * EMPLOYEES);
+    const res = http.get(`${BASE_URL}/api/leaves/balance/${employeeId}`, { tags: { op: 'balance' } });
+    check(res, { 'balance returned': (r) => r.status === 200 });
+}
+
+export function handleSummary(data) {
+    return {
+        stdout: textSummary(data, { indent: ' ', enableColors: true }),
+        [SUMMARY_FILE]: JSON.stringify(data, null, 2),
+    };
+}
@@ -0,0 +1,64 @@
+#!/usr/bin/env bash
+# Runs balance-fanout.js at 10k concurrent connections against the application with blocking
+# balance lookups, then with the non-blocking profile, and prints p50 / p99 latency, throughput,
+# error rate and the peak number of live JVM threads for both runs.
+#
+# Needs k6, jq and a PostgreSQL database seeded with seed.sql. The DB_* variables from the README
+# select the database. Both runs accept the same number of connections and use a balance cache
+# smaller than the seeded employees, so most lookups miss it and read the database. Raise the open
+# file limit (ulimit -n) above VUS for both the application and k6.
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+
+VUS="${VUS:-10000}"
+DURATION="${DURATION:-2m}"
+PORT="${PORT:-8080}"
+CACHE_SPEC="${CACHE_SPEC:-maximumSize=200,expireAfterWrite=10s}"
+OUT_DIR="target/load-tests"
+export DB_POOL_SIZE="${DB_POOL_SIZE:-10}"
+
+mkdir -p "$OUT_DIR"
+./mvnw -B -q -DskipTests package
+JAR="$(ls target/leave-management-system-*.jar | grep -v original | head -n 1)"
+
+peak_threads() {
+    curl -sf "http://localhost:$PORT/actuator/metrics/jvm.threads.peak" | jq '.measurements[0].value'
+}
+
+run() {
+    local mode="$1" profiles="$2"
+    echo "=== $mode ==="
+    java -jar "$JAR" --server.port="$PORT" --spring.profiles.active="$profiles" \
+        --server.tomcat.max-connections="$VUS" --server.tomcat.accept-count=1000 \
+        --spring.cache.caffeine.spec="$CACHE_SPEC" \
+        --logging.level.com.hcltech.leave=INFO --logging.level.org.springframework.web=INFO \
+        --spring.jpa.show-sql=false > "$OUT_DIR/$mode-app.log" 2>&1 &
+    local pid=$!
+    trap "kill $pid 2>/dev/null || true" EXIT
+
+    until curl -sf "http://localhost:$PORT/actuator/health" > /dev/null; do
+        kill -0 "$pid" 2>/dev/null || { echo "Application failed to start, see $OUT_DIR/$mode-app.log" >&2; exit 1; }
+        sleep 1
+    done
+
+    k6 run -q -e BASE_URL="http://localhost:$PORT" -e VUS="$VUS" -e DURATION="$DURATION" \
+        -e SUMMARY_FILE="$OUT_DIR/$mode.json" load-tests/balance-fanout.js || true
+    peak_threads > "$OUT_DIR/$mode-threads.txt"
+
+    kill "$pid"
+    wait "$pid" 2>/dev/null || true
+    trap - EXIT
+}
+
+run blocking default
+run non-blocking non-blocking
+
+printf '\n%-13s %10s %10s %12s %10s %13s\n' lookups p50_ms p99_ms req_per_s failed_% peak_threads
+for mode in blocking non-blocking; do
+    jq -r --arg mode "$mode" --arg threads "$(cat "$OUT_DIR/$mode-threads.txt")" \
+        '.metrics as $m | $m["http_req_duration{op:balance}"].values
+         | "\($mode) \(.med) \(.["p(99)"]) \($m.http_reqs.values.rate) \($m.http_req_failed.values.rate * 100) \($threads)"' \
+        "$OUT_DIR/$mode.json" \
+        | awk '{ printf "%-13s %10.1f %10.1f %12.1f %10.2f %13d\n", $1, $2, $3, $4, $5, $6 }'
+done
@@ -0,0 +1,61 @@
+#!/usr/bin/env bash
+# Runs mixed-workload.js against the application on platform threads, then on virtual threads,
+# and prints p50 / p99 latency per operation and overall throughput for both runs.
+#
+# Needs Java 21+, k6, jq and a PostgreSQL database seeded with seed.sql. The DB_* variables from
+# the README select the database; both runs use the same connection pool size.
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+
+VUS="${VUS:-1000}"
+DURATION="${DURATION:-2m}"
+PORT="${PORT:-8080}"
+OUT_DIR="target/load-tests"
+export DB_POOL_SIZE="${DB_POOL_SIZE:-30}"
+
+if ! java -version 2>&1 | grep -Eq 'version "(2[1-9]|[3-9][0-9])'; then
+    echo "Java 21+ is required for the virtual-threads run" >&2
+    exit 1
+fi
+
+mkdir -p "$OUT_DIR"
+./mvnw -B -q -DskipTests package
+JAR="$(ls target/leave-management-system-*.jar | grep -v original | head -n 1)"
+
+run() {
+    local mode="$1" profiles="$2"
+    echo "=== $mode threads ==="
+    java -jar "$JAR" --server.port="$PORT" --spring.profiles.active="$profiles" \
+        --logging.level.com.hcltech.leave=INFO --logging.level.org.springframework.web=INFO \
+        --spring.jpa.show-sql=false > "$OUT_DIR/$mode-app.log" 2>&1 &
+    local pid=$!
+    trap "kill $pid 2>/dev/null || true" EXIT
+
+    until curl -sf "http://localhost:$PORT/actuator/health" > /dev/null; do
+        kill -0 "$pid" 2>/dev/null || { echo "Application failed to start, see $OUT_DIR/$mode-app.log" >&2; exit 1; }
+        sleep 1
+    done
+
+    k6 run -q -e BASE_URL="http://localhost:$PORT" -e VUS="$VUS" -e DURATION="$DURATION" \
+        -e SUMMARY_FILE="$OUT_DIR/$mode.json" load-tests/mixed-workload.js || true
+
+    kill "$pid"
+    wait "$pid" 2>/dev/null || true
+    trap - EXIT
+}
+
+run platform default
+run virtual virtual-threads
+
+printf '\n%-10s %-9s %10s %10s %12s\n' threads op p50_ms p99_ms req_per_s
+for mode in platform virtual; do
+    summary="$OUT_DIR/$mode.json"
+    rps="$(jq '.metrics.http_reqs.values.rate' "$summary")"
+    for op in apply approve balance history; do
+        jq -r --arg mode "$mode" --arg op "$op" --argjson rps "$rps" \
+            '.metrics["http_req_duration{op:\($op)}"].values
+             | "\($mode) \($op) \(.med) \(.["p(99)"]) \($rps)"' "$summary" \
+            | awk '{ printf "%-10s %-9s %10.1f %10.1f %12.1f\n", $1, $2, $3, $4, $5 }'
+    done
+done
@@ -0,0 +1,73 @@
+#!/usr/bin/env bash
+# Runs mixed-workload.js once per database tuning step, each step adding one change to the last,
+# and prints p50 / p99 latency per operation and overall throughput for every step:
+#   base       the application as of BASE_REF, before the tuning
+#   scoped     read-only reads and narrowed write transactions, open-in-view still on
+#   no-osiv    open-in-view off as well, the default configuration
+#   tuned      the tuned profile: fixed pool, auto-commit off, batched inserts, padded IN lists
+#
+# Needs k6, jq and a PostgreSQL database seeded with seed.sql. The DB_* variables from the README
+# select the database; every step uses the same connection pool size. Reseed between runs so each
+# step starts from the same leaves.
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+
+VUS="${VUS:-200}"
+DURATION="${DURATION:-2m}"
+PORT="${PORT:-8080}"
+BASE_REF="${BASE_REF:-970437f}"
+OUT_DIR="target/load-tests"
+BASE_DIR="$OUT_DIR/base"
+export DB_POOL_SIZE="${DB_POOL_SIZE:-10}"
+
+mkdir -p "$OUT_DIR"
+./mvnw -B -q -DskipTests package
+JAR="$(ls target/leave-management-system-*.jar | grep -v original | head -n 1)"
+
+rm -rf "$BASE_DIR"
+git worktree prune
+git worktree add -q --detach "$BASE_DIR" "$BASE_REF"
+trap "git worktree remove --force $BASE_DIR" EXIT
+(cd "$BASE_DIR" && ./mvnw -B -q -DskipTests package)
+BASE_JAR="$(ls "$BASE_DIR"/target/leave-management-system-*.jar | grep -v original | head -n 1)"
+
+run() {
+    local step="$1" jar="$2"
+    shift 2
+    echo "=== $step ==="
+    java -jar "$jar" --server.port="$PORT" "$@" \
+        --logging.level.com.hcltech.leave=INFO --logging.level.org.springframework.web=INFO \
+        --spring.jpa.show-sql=false > "$OUT_DIR/$step-app.log" 2>&1 &
+    local pid=$!
+    trap "kill $pid 2>/dev/null || true; git worktree remove --force $BASE_DIR" EXIT
+
+    until curl -sf "http://localhost:$PORT/actuator/health" > /dev/null; do
+        kill -0 "$pid" 2>/dev/null || { echo "Application failed to start, see $OUT_DIR/$step-app.log" >&2; exit 1; }
+        sleep 1
+    done
+
+    k6 run -q -e BASE_URL="http://localhost:$PORT" -e VUS="$VUS" -e DURATION="$DURATION" \
+        -e SUMMARY_FILE="$OUT_DIR/$step.json" load-tests/mixed-workload.js || true
+
+    kill "$pid"
+    wait "$pid" 2>/dev/null || true
+    trap "git worktree remove --force $BASE_DIR" EXIT
+}
+
+run base "$BASE_JAR" --spring.jpa.open-in-view=true
+run scoped "$JAR" --spring.jpa.open-in-view=true
+run no-osiv "$JAR"
+run tuned "$JAR" --spring.profiles.active=tuned
+
+printf '\n%-10s %-9s %10s %10s %12s\n' step op p50_ms p99_ms req_per_s
+for step in base scoped no-osiv tuned; do
+    summary="$OUT_DIR/$step.json"
+    rps="$(jq '.metrics.http_reqs.values.rate' "$summary")"
+    for op in apply approve balance history; do
+        jq -r --arg step "$step" --arg op "$op" --argjson rps "$rps" \
+            '.metrics["http_req_duration{op:\($op)}"].values
+             | "\($step) \($op) \(.med) \(.["p(99)"]) \($rps)"' "$summary" \
+            | awk '{ printf "%-10s %-9s %10.1f %10.1f %12.1f\n", $1, $2, $3, $4, $5 }'
+    done
+done
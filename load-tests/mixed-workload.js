@@ -0,0 +1,120 @@
+// Mixed apply / approve / balance / history workload for comparing threading modes and pool tuning.
+// Requires the employees from seed.sql. Usage:
+//   k6 run -e BASE_URL=http://localhost:8080 -e VUS=1000 -e DURATION=2m load-tests/mixed-workload.js
+import http from 'k6/http';
+import { check } from 'k6';
+import { Counter } from 'k6/metrics';
+import { textSummary } from 'https://jslib.k6.io/k6-summary/0.0.2/index.js';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const VUS = parseInt(__ENV.VUS || '1000');
+const DURATION = __ENV.DURATION || '2m';
+const FIRST_EMPLOYEE_ID = parseInt(__ENV.FIRST_EMPLOYEE_ID || '100001');
+const EMPLOYEES = parseInt(__ENV.EMPLOYEES || '1000');
+const MANAGER_ID = parseInt(__ENV.MANAGER_ID || '100000');
+const SUMMARY_FILE = __ENV.SUMMARY_FILE || 'summary.json';
+
+const JSON_HEADERS = { headers: { 'Content-Type': 'application/json' } };
+
+// Business rule rejections (e.g. a leave decided twice) are expected under load, not errors
+const rejected = new Counter('business_rejections');
+http.setResponseCallback(http.expectedStatuses(200, 201, 400, 409));
+
+export const options = {
+    scenarios: {
+        mixed: {
+            executor: 'ramping-vus',
+            stages: [
+                { duration: '30s', target: VUS },
+                { duration: DURATION, target: VUS },
+                { duration: '10s', target: 0 },
+            ],
+            gracefulRampDown: '10s',
+        },
+    },
+    summaryTrendStats: ['med', 'p(99)', 'max'],
+    thresholds: {
+        // Listed per operation so the summary breaks latency down by endpoint
+        'http_req_duration{op:apply}': ['p(99)<2000'],
+        'http_req_duration{op:approve}': ['p(99)<2000'],
+        'http_req_duration{op:balance}': ['p(99)<1000'],
+        'http_req_duration{op:history}': ['p(99)<1000'],
+        http_req_failed: ['rate<0.01'],
+    },
+};
+
+// Leaves applied by this VU and not yet decided
+const pending = [];
+
+function employeeId() {
+    return FIRST_EMPLOYEE_ID + ((__VU + __ITER) % EMPLOYEES);
+}
+
+function isoDate(daysAhead) {
+    const date = new Date(Date.now() + daysAhead * 24 * 60 * 60 * 1000);
+    return date.toISOString().substring(0, 10);
+}
+
+function apply() {
+    const day = isoDate(1 + ((__VU * 7919 + __ITER) % 3650));
+    const res = http.post(`${BASE_URL}/api/leaves`, JSON.stringify({
+        employeeId: employeeId(),
+        leaveType: 'CASUAL',
+        startDate: day,
+        endDate: day,
+        reason: 'Load test leave request',
+    }), Object.assign({ tags: { op: 'apply' } }, JSON_HEADERS));
+    if (res.status === 201) {
+        pending.push(res.json('id'));
+    } else {
+        rejected.add(1, { op: 'apply' });
+    }
+    check(res, { 'apply accepted or rejected by rule': (r) => r.status === 201 || r.status < 500 });
+}
+
+function approve() {
+    const leaveId = pending.shift();
+    if (leaveId === undefined) {
+        return apply();
+    }
+    const res = http.put(`${BASE_URL}/api/leaves/approve`, JSON.stringify({
+        leaveId: leaveId,
+        managerId: MANAGER_ID,
+        status: __ITER % 4 === 0 ? 'REJECTED' : 'APPROVED',
+        comments: 'Load test decision',
+    }), Object.assign({ tags: { op: 'approve' } }, JSON_HEADERS));
+    if (res.status !== 200) {
+        rejected.add(1, { op: 'approve' });
+    }
+    check(res, { 'approve succeeded or rejected by rule': (r) => r.status < 500 });
+}
+
+function balance() {
+    const res = http.get(`${BASE_URL}/api/leaves/balance/${employeeId()}`, { tags: { op: 'balance' } });
+    check(res, { 'balance returned': (r) => r.status === 200 });
+}
+
+function history() {
+    const res = http.get(`${BASE_URL}/api/leaves/employee/${employeeId()}`, { tags: { op: 'history' } });
+    check(res, { 'history returned': (r) => r.status === 200 });
+}
+
+export default function () {
+    const roll = Math.random();
+    if (roll < 0.35) {
+        apply();
+    } else if (roll < 0.6) {
+        approve();
+    } else if (roll < 0.8) {
+        balance();
+    } else {
+        history();
+    }
+}
+
+export function handleSummary(data) {
+    return {
+        stdout: textSummary(data, { indent: ' ', enableColors: true }),
+        [SUMMARY_FILE]: JSON.stringify(data, null, 2),
+    };
+}
@@ -0,0 +1,12 @@
+-- Load-test employees for mixed-workload.js (PostgreSQL). Balances are large enough that
+-- approvals do not run out during a run. Safe to re-run.
+INSERT INTO leave_balances (id, sick_leave, casual_leave, earned_leave, year, version)
+SELECT 100000 + g, 1000000, 1000000, 1000000, 2024, 0
+FROM generate_series(1, 1000) AS g
+ON CONFLICT (id) DO UPDATE
+    SET sick_leave = 1000000, casual_leave = 1000000, earned_leave = 1000000;
+
+INSERT INTO employees (id, name, email, department, manager_id, leave_balance_id)
+SELECT 100000 + g, 'Load Test ' || g, 'load' || g || '@hcltech.com', 'LOAD', 100000, 100000 + g
+FROM generate_series(1, 1000) AS g
+ON CONFLICT (id) DO NOTHING;
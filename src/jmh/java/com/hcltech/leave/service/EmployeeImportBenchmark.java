@@ -0,0 +1,62 @@
+package com.hcltech.leave.service;
+
+import com.hcltech.leave.dto.EmployeeImportResultDTO;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One bulk import of {@code rows} employees per invocation, each with new emails, through
+ * {@link EmployeeImportService} against H2.
+ */
+@Fork(1)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+public class EmployeeImportBenchmark {
+    
+    @Param({"100000"})
+    public int rows;
+    
+    private ConfigurableApplicationContext context;
+    private EmployeeImportService employeeImportService;
+    private byte[] csv;
+    private int batch;
+    
+    @Setup(Level.Trial)
+    public void startContext() {
+        context = H2BenchmarkContext.start("employee_import_benchmark");
+        employeeImportService = context.getBean(EmployeeImportService.class);
+    }
+    
+    @Setup(Level.Iteration)
+    public void buildCsv() {
+        StringBuilder content = new StringBuilder(rows * 64).append(EmployeeImportService.CSV_HEADER).append('\n');
+        for (int i = 0; i < rows; i++) {
+            content.append("Employee ").append(i).append(",import").append(batch).append('.').append(i)
+                .append("@hcltech.com,IT,1,10,12,18\n");
+        }
+        csv = content.toString().getBytes(StandardCharsets.UTF_8);
+        batch++;
+    }
+    
+    @TearDown(Level.Trial)
+    public void closeContext() {
+        context.close();
+    }
+    
+    @Benchmark
+    public EmployeeImportResultDTO importEmployees() throws IOException {
+        EmployeeImportResultDTO result = employeeImportService.importCsv(new ByteArrayInputStream(csv));
+        if (result.getImported() != rows) {
+            throw new IllegalStateException("Expected " + rows + " imported rows but got " + result.getImported());
+        }
+        return result;
+    }
+}
@@ -0,0 +1,45 @@
+package com.hcltech.leave.service;
+
+import com.hcltech.leave.LeaveManagementSystemApplication;
+import com.hcltech.leave.model.Employee;
+import com.hcltech.leave.model.LeaveBalance;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/** Starts the application without the web layer against a named in-memory H2 database. */
+final class H2BenchmarkContext {
+    
+    static final int LARGE_BALANCE = 1_000_000;
+    
+    private H2BenchmarkContext() {
+    }
+    
+    static ConfigurableApplicationContext start(String databaseName) {
+        return new SpringApplicationBuilder(LeaveManagementSystemApplication.class)
+            .web(WebApplicationType.NONE)
+            .profiles("test")
+            .run("--spring.datasource.url=jdbc:h2:mem:" + databaseName + ";DB_CLOSE_DELAY=-1;MODE=PostgreSQL;"
+                    + "DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=YEAR,MONTH,VALUE",
+                "--spring.jpa.properties.hibernate.generate_statistics=false",
+                "--leave.scheduling.enabled=false",
+                "--logging.level.root=WARN",
+                "--logging.level.com.hcltech.leave=WARN");
+    }
+    
+    /** An employee whose balance never runs out during a benchmark. */
+    static Employee employee(int index) {
+        return Employee.builder()
+            .name("Employee " + index)
+            .email("employee" + index + "@hcltech.com")
+            .department("IT")
+            .managerId(1L)
+            .leaveBalance(LeaveBalance.builder()
+                .sickLeave(LARGE_BALANCE)
+                .casualLeave(LARGE_BALANCE)
+                .earnedLeave(LARGE_BALANCE)
+                .year(2024)
+                .build())
+            .build();
+    }
+}
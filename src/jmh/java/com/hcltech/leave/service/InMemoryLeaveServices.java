@@ -0,0 +1,182 @@
+package com.hcltech.leave.service;
+
+import ch.qos.logback.classic.Level;
+import com.hcltech.leave.config.CalendarProperties;
+import com.hcltech.leave.config.ReplicaDataSourceProperties;
+import com.hcltech.leave.enums.LeaveStatus;
+import com.hcltech.leave.enums.LeaveType;
+import com.hcltech.leave.model.Employee;
+import com.hcltech.leave.model.Leave;
+import com.hcltech.leave.model.LeaveBalance;
+import com.hcltech.leave.model.OutboxEvent;
+import com.hcltech.leave.repository.EmployeeRepository;
+import com.hcltech.leave.repository.HolidayRepository;
+import com.hcltech.leave.repository.LeaveBalanceRepository;
+import com.hcltech.leave.repository.LeaveRepository;
+import com.hcltech.leave.repository.LeaveUsageSummaryRepository;
+import com.hcltech.leave.repository.OutboxEventRepository;
+import com.hcltech.leave.repository.TeamAbsenceDayRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.reflect.Proxy;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Builds a {@link LeaveServiceImpl} backed by in-memory repository stubs, so benchmarks measure
+ * the service logic without persistence. Only the repository methods the benchmarked paths call
+ * are implemented; anything else fails loudly.
+ */
+final class InMemoryLeaveServices {
+    
+    static final long EMPLOYEE_ID = 1L;
+    static final LocalDate NEXT_MONDAY = LocalDate.now().with(TemporalAdjusters.next(DayOfWeek.MONDAY));
+    // Saved leave ids wrap, so the pending approval index the applications go into stays this size
+    private static final long PENDING_LEAVES = 1000;
+    
+    private InMemoryLeaveServices() {
+    }
+    
+    static LeaveServiceImpl create() {
+        quietLogging();
+        Employee employee = employee();
+        AtomicLong leaveIds = new AtomicLong();
+        
+        EmployeeRepository employeeRepository = stub(EmployeeRepository.class, Map.of(
+            "findForUpdateById", args -> Optional.of(employee),
+            "incrementLeavesVersion", args -> {
+                // Every write bumps the version its leave history ETag is built from
+                if (!((Collection<?>) args[0]).contains(EMPLOYEE_ID)) {
+                    return 0;
+                }
+                employee.setLeavesVersion(employee.getLeavesVersion() + 1);
+                return 1;
+            }));
+        LeaveRepository leaveRepository = stub(LeaveRepository.class, Map.of(
+            "save", args -> {
+                Leave leave = (Leave) args[0];
+                if (leave.getId() == null) {
+                    leave.setId(leaveIds.getAndIncrement() % PENDING_LEAVES + 1);
+                }
+                return leave;
+            },
+            "existsOverlapping", args -> false,
+            // A fresh pending leave each time, as the benchmarked approval mutates it
+            "findWithEmployeeById", args -> Optional.of(pendingLeave((Long) args[0], employee))));
+        LeaveBalanceRepository leaveBalanceRepository = stub(LeaveBalanceRepository.class, Map.of(
+            "deductSickLeave", args -> 1,
+            "deductCasualLeave", args -> 1,
+            "deductEarnedLeave", args -> 1));
+        OutboxEventRepository outboxEventRepository = stub(OutboxEventRepository.class, Map.of(
+            "save", args -> (OutboxEvent) args[0]));
+        LeaveBalanceCache leaveBalanceCache =
+            new LeaveBalanceCache(new ConcurrentMapCacheManager(LeaveBalanceCache.CACHE_NAME));
+        
+        WorkingDayCalendar workingDayCalendar = workingDayCalendar();
+        TeamAbsenceDayRepository teamAbsenceDayRepository = stub(TeamAbsenceDayRepository.class, Map.of(
+            "saveAll", args -> args[0]));
+        
+        // Outside a transaction its updates apply at once; the benchmarked paths never read it
+        PendingApprovalIndex pendingApprovalIndex = new PendingApprovalIndex(leaveRepository, new SimpleMeterRegistry());
+        
+        // Approvals add to a month that already has a summary row
+        LeaveUsageSummaryRepository leaveUsageSummaryRepository = stub(LeaveUsageSummaryRepository.class, Map.of(
+            "addUsage", args -> 1));
+        LeaveUsageService leaveUsageService = new LeaveUsageService(leaveUsageSummaryRepository, leaveRepository,
+            workingDayCalendar, stub(EntityManager.class, Map.of()));
+        // No replica configured, as in a default deployment, so writes pin nothing
+        ReadYourWrites readYourWrites = new ReadYourWrites(
+            new ReplicaDataSourceProperties(null, null, null, 10, Duration.ofSeconds(5), 100000));
+        
+        // There is no database to begin or commit on, so the work simply runs
+        TransactionTemplate transactionTemplate = new TransactionTemplate() {
+            @Override
+            public <T> T execute(TransactionCallback<T> action) {
+                return action.doInTransaction(new SimpleTransactionStatus());
+            }
+        };
+        
+        return new LeaveServiceImpl(leaveRepository, employeeRepository, leaveBalanceRepository,
+            outboxEventRepository, leaveBalanceCache, workingDayCalendar,
+            new TeamAbsenceCalendar(teamAbsenceDayRepository, workingDayCalendar), pendingApprovalIndex,
+            leaveUsageService, readYourWrites, transactionTemplate,
+            Validation.buildDefaultValidatorFactory().getValidator());
+    }
+    
+    static WorkingDayCalendar workingDayCalendar() {
+        HolidayRepository holidayRepository = stub(HolidayRepository.class, Map.of(
+            "findAll", args -> List.of()));
+        return new WorkingDayCalendar(holidayRepository,
+            new CalendarProperties(Set.of(DayOfWeek.SATURDAY, DayOfWeek.SUNDAY)));
+    }
+    
+    static Employee employee() {
+        return Employee.builder()
+            .id(EMPLOYEE_ID)
+            .name("John Doe")
+            .email("john@hcltech.com")
+            .department("IT")
+            .managerId(2L)
+            .leaveBalance(LeaveBalance.builder()
+                .id(EMPLOYEE_ID)
+                .sickLeave(10)
+                .casualLeave(12)
+                .earnedLeave(18)
+                .year(2024)
+                .build())
+            .build();
+    }
+    
+    static Leave pendingLeave(Long id, Employee employee) {
+        LocalDate start = NEXT_MONDAY;
+        return Leave.builder()
+            .id(id)
+            .employee(employee)
+            .leaveType(LeaveType.CASUAL)
+            .startDate(start)
+            .endDate(start.plusDays(1))
+            .numberOfDays(2)
+            .reason("Family function")
+            .status(LeaveStatus.PENDING)
+            .appliedDate(LocalDate.now())
+            .build();
+    }
+    
+    /** The service logs every request; without Spring Boot, Logback would log it all to the console. */
+    static void quietLogging() {
+        ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME)).setLevel(Level.WARN);
+    }
+    
+    @SuppressWarnings("unchecked")
+    private static <T> T stub(Class<T> type, Map<String, Function<Object[], Object>> handlers) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            Function<Object[], Object> handler = handlers.get(method.getName());
+            if (handler != null) {
+                return handler.apply(args);
+            }
+            return switch (method.getName()) {
+                case "toString" -> "InMemory" + type.getSimpleName();
+                case "hashCode" -> System.identityHashCode(proxy);
+                case "equals" -> proxy == args[0];
+                default -> throw new UnsupportedOperationException(type.getSimpleName() + "." + method.getName());
+            };
+        });
+    }
+}
@@ -0,0 +1,126 @@
+package com.hcltech.leave.service;
+
+import com.hcltech.leave.dto.LeaveRequestDTO;
+import com.hcltech.leave.enums.LeaveStatus;
+import com.hcltech.leave.enums.LeaveType;
+import com.hcltech.leave.exception.OverlappingLeaveException;
+import com.hcltech.leave.model.Employee;
+import com.hcltech.leave.model.Leave;
+import com.hcltech.leave.repository.EmployeeRepository;
+import com.hcltech.leave.repository.LeaveRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The overlap check on {@link LeaveServiceImpl#applyLeave} as an employee's leave history grows.
+ * {@code idx_leaves_employee_dates} leads with the end date, so the check seeks past an
+ * employee's finished leaves and should stay flat across {@code historySize}.
+ *
+ * <p>Each of {@value #EMPLOYEES} employees gets {@code historySize} past week-long leaves,
+ * alternating approved and rejected, plus one approved leave the week after
+ * {@link InMemoryLeaveServices#NEXT_MONDAY}, which the rejected requests overlap.
+ */
+@Fork(1)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class LeaveOverlapBenchmark {
+    
+    private static final int EMPLOYEES = 10;
+    private static final int LEAVE_SPAN_DAYS = 7;
+    private static final int INSERT_BATCH = 5000;
+    private static final Set<LeaveStatus> ACTIVE_STATUSES = EnumSet.of(LeaveStatus.PENDING, LeaveStatus.APPROVED);
+    
+    @Param({"10", "1000", "10000"})
+    public int historySize;
+    
+    private ConfigurableApplicationContext context;
+    private LeaveService leaveService;
+    private LeaveRepository leaveRepository;
+    private List<Employee> employees;
+    private LocalDate upcomingLeaveStart;
+    private int next;
+    
+    @Setup(Level.Trial)
+    public void startContext() {
+        context = H2BenchmarkContext.start("leave_overlap_benchmark");
+        leaveService = context.getBean(LeaveService.class);
+        leaveRepository = context.getBean(LeaveRepository.class);
+    
+        List<Employee> team = new ArrayList<>(EMPLOYEES);
+        for (int i = 0; i < EMPLOYEES; i++) {
+            team.add(H2BenchmarkContext.employee(i));
+        }
+        employees = context.getBean(EmployeeRepository.class).saveAll(team);
+    
+        List<Leave> history = new ArrayList<>(INSERT_BATCH);
+        upcomingLeaveStart = InMemoryLeaveServices.NEXT_MONDAY.plusWeeks(1);
+        for (Employee employee : employees) {
+            for (int week = 1; week <= historySize; week++) {
+                LeaveStatus status = week % 2 == 1 ? LeaveStatus.APPROVED : LeaveStatus.REJECTED;
+                history.add(weekLong(employee, InMemoryLeaveServices.NEXT_MONDAY.minusWeeks(week), status));
+                if (history.size() == INSERT_BATCH) {
+                    leaveRepository.saveAll(history);
+                    history.clear();
+                }
+            }
+            history.add(weekLong(employee, upcomingLeaveStart, LeaveStatus.APPROVED));
+        }
+        leaveRepository.saveAll(history);
+    }
+    
+    @TearDown(Level.Trial)
+    public void closeContext() {
+        context.close();
+    }
+    
+    /** A free range between the history and the upcoming leave: the common case for a new request. */
+    @Benchmark
+    public boolean existsOverlappingFreeRange() {
+        return leaveRepository.existsOverlapping(nextEmployee().getId(), ACTIVE_STATUSES,
+            InMemoryLeaveServices.NEXT_MONDAY, InMemoryLeaveServices.NEXT_MONDAY.plusDays(LEAVE_SPAN_DAYS - 1));
+    }
+    
+    /** The full request path, rejected by the overlap check so the history does not grow. */
+    @Benchmark
+    public OverlappingLeaveException applyOverlappingLeave() {
+        try {
+            leaveService.applyLeave(LeaveRequestDTO.builder()
+                .employeeId(nextEmployee().getId())
+                .leaveType(LeaveType.CASUAL)
+                .startDate(upcomingLeaveStart)
+                .endDate(upcomingLeaveStart.plusDays(1))
+                .reason("Benchmark overlap")
+                .build());
+        } catch (OverlappingLeaveException ex) {
+            return ex;
+        }
+        throw new IllegalStateException("Leave was expected to overlap the history");
+    }
+    
+    private static Leave weekLong(Employee employee, LocalDate start, LeaveStatus status) {
+        return Leave.builder()
+            .employee(employee)
+            .leaveType(LeaveType.CASUAL)
+            .startDate(start)
+            .endDate(start.plusDays(LEAVE_SPAN_DAYS - 1))
+            .numberOfDays(5)
+            .reason("Benchmark history")
+            .status(status)
+            .appliedDate(start.minusDays(1))
+            .build();
+    }
+    
+    private Employee nextEmployee() {
+        return employees.get(next++ % EMPLOYEES);
+    }
+}
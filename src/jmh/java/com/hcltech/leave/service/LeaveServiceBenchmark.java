@@ -0,0 +1,55 @@
+package com.hcltech.leave.service;
+
+import com.hcltech.leave.dto.LeaveApprovalDTO;
+import com.hcltech.leave.dto.LeaveRequestDTO;
+import com.hcltech.leave.dto.LeaveResponseDTO;
+import com.hcltech.leave.enums.LeaveStatus;
+import com.hcltech.leave.enums.LeaveType;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link LeaveServiceImpl#applyLeave} and {@link LeaveServiceImpl#approveOrRejectLeave} against
+ * in-memory repositories: the cost of the service logic alone.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LeaveServiceBenchmark {
+    
+    private LeaveServiceImpl leaveService;
+    private LeaveRequestDTO request;
+    private LeaveApprovalDTO approval;
+    
+    @Setup
+    public void setUp() {
+        leaveService = InMemoryLeaveServices.create();
+        request = LeaveRequestDTO.builder()
+            .employeeId(InMemoryLeaveServices.EMPLOYEE_ID)
+            .leaveType(LeaveType.CASUAL)
+            .startDate(InMemoryLeaveServices.NEXT_MONDAY)
+            .endDate(InMemoryLeaveServices.NEXT_MONDAY.plusDays(1))
+            .reason("Family function")
+            .build();
+        approval = LeaveApprovalDTO.builder()
+            .leaveId(1L)
+            .managerId(2L)
+            .status(LeaveStatus.APPROVED)
+            .comments("Approved")
+            .build();
+    }
+    
+    @Benchmark
+    public LeaveResponseDTO applyLeave() {
+        return leaveService.applyLeave(request);
+    }
+    
+    @Benchmark
+    public LeaveResponseDTO approveOrRejectLeave() {
+        return leaveService.approveOrRejectLeave(approval);
+    }
+}
@@ -0,0 +1,123 @@
+package com.hcltech.leave.service;
+
+import com.hcltech.leave.dto.LeaveApprovalDTO;
+import com.hcltech.leave.dto.LeaveRequestDTO;
+import com.hcltech.leave.dto.LeaveResponseDTO;
+import com.hcltech.leave.enums.LeaveStatus;
+import com.hcltech.leave.enums.LeaveType;
+import com.hcltech.leave.model.Employee;
+import com.hcltech.leave.model.Leave;
+import com.hcltech.leave.repository.EmployeeRepository;
+import com.hcltech.leave.repository.LeaveRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link LeaveServiceImpl#applyLeave} and {@link LeaveServiceImpl#approveOrRejectLeave} through the
+ * Spring context against an embedded H2 database, including transactions and SQL.
+ *
+ * <p>Approvals consume pending leaves, so they run as single-shot batches of {@value #BATCH_SIZE}
+ * approvals over leaves created before each iteration.
+ */
+@Fork(1)
+@State(Scope.Benchmark)
+public class LeaveServiceH2Benchmark {
+    
+    private static final int EMPLOYEES = 1000;
+    private static final int BATCH_SIZE = 1000;
+    private static final int LEAVE_SPAN_DAYS = 7;
+    private static final int WORKING_DAYS_PER_LEAVE = 5;
+    
+    private ConfigurableApplicationContext context;
+    private LeaveService leaveService;
+    private LeaveRepository leaveRepository;
+    private List<Employee> employees;
+    private final Deque<Long> pendingLeaveIds = new ArrayDeque<>();
+    private long applied;
+    
+    @Setup(Level.Trial)
+    public void startContext() {
+        context = H2BenchmarkContext.start("leave_benchmark");
+        leaveService = context.getBean(LeaveService.class);
+        leaveRepository = context.getBean(LeaveRepository.class);
+        
+        EmployeeRepository employeeRepository = context.getBean(EmployeeRepository.class);
+        List<Employee> team = new ArrayList<>(EMPLOYEES);
+        for (int i = 0; i < EMPLOYEES; i++) {
+            team.add(H2BenchmarkContext.employee(i));
+        }
+        employees = employeeRepository.saveAll(team);
+    }
+    
+    @TearDown(Level.Trial)
+    public void closeContext() {
+        context.close();
+    }
+    
+    @Setup(Level.Iteration)
+    public void createPendingLeaves() {
+        List<Leave> leaves = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            Employee employee = nextEmployee();
+            LocalDate start = nextLeaveStart();
+            leaves.add(Leave.builder()
+                .employee(employee)
+                .leaveType(LeaveType.CASUAL)
+                .startDate(start)
+                .endDate(start.plusDays(LEAVE_SPAN_DAYS - 1))
+                .numberOfDays(WORKING_DAYS_PER_LEAVE)
+                .reason("Benchmark leave")
+                .status(LeaveStatus.PENDING)
+                .appliedDate(LocalDate.now())
+                .build());
+        }
+        pendingLeaveIds.clear();
+        leaveRepository.saveAll(leaves).forEach(leave -> pendingLeaveIds.add(leave.getId()));
+    }
+    
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    @Warmup(iterations = 5, time = 2)
+    @Measurement(iterations = 5, time = 2)
+    public LeaveResponseDTO applyLeave() {
+        Employee employee = nextEmployee();
+        LocalDate start = nextLeaveStart();
+        return leaveService.applyLeave(LeaveRequestDTO.builder()
+            .employeeId(employee.getId())
+            .leaveType(LeaveType.CASUAL)
+            .startDate(start)
+            .endDate(start.plusDays(LEAVE_SPAN_DAYS - 1))
+            .reason("Benchmark leave")
+            .build());
+    }
+    
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 5, batchSize = BATCH_SIZE)
+    @Measurement(iterations = 5, batchSize = BATCH_SIZE)
+    public LeaveResponseDTO approveOrRejectLeave() {
+        return leaveService.approveOrRejectLeave(LeaveApprovalDTO.builder()
+            .leaveId(pendingLeaveIds.pop())
+            .managerId(1L)
+            .status(LeaveStatus.APPROVED)
+            .build());
+    }
+    
+    private Employee nextEmployee() {
+        return employees.get((int) (applied % EMPLOYEES));
+    }
+    
+    /** Spreads week-long leaves over employees and weeks so no employee's leaves overlap. */
+    private LocalDate nextLeaveStart() {
+        return LocalDate.now().plusDays(1 + LEAVE_SPAN_DAYS * (applied++ / EMPLOYEES));
+    }
+}
@@ -0,0 +1,83 @@
+package com.hcltech.leave.service;
+
+import com.hcltech.leave.dto.LeaveResponseDTO;
+import com.hcltech.leave.model.Employee;
+import com.hcltech.leave.model.Leave;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The per-leave helpers of {@link LeaveServiceImpl}: DTO mapping over large result lists, date
+ * validation and working-day counting.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LeaveServiceHelpersBenchmark {
+    
+    @State(Scope.Benchmark)
+    public static class Leaves {
+        
+        @Param({"1000", "100000"})
+        int leaveCount;
+        
+        LeaveServiceImpl leaveService;
+        List<Leave> leaves;
+        
+        @Setup
+        public void setUp() {
+            leaveService = InMemoryLeaveServices.create();
+            Employee employee = InMemoryLeaveServices.employee();
+            leaves = new ArrayList<>(leaveCount);
+            for (long id = 1; id <= leaveCount; id++) {
+                leaves.add(InMemoryLeaveServices.pendingLeave(id, employee));
+            }
+        }
+    }
+    
+    @State(Scope.Benchmark)
+    public static class DateRange {
+        
+        @Param({"1", "30", "365"})
+        int spanDays;
+        
+        LeaveServiceImpl leaveService;
+        LocalDate startDate;
+        LocalDate endDate;
+        
+        @Setup
+        public void setUp() {
+            leaveService = InMemoryLeaveServices.create();
+            startDate = InMemoryLeaveServices.NEXT_MONDAY;
+            endDate = startDate.plusDays(spanDays - 1L);
+        }
+    }
+    
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public List<LeaveResponseDTO> mapToResponseDTO(Leaves state) {
+        List<LeaveResponseDTO> dtos = new ArrayList<>(state.leaves.size());
+        for (Leave leave : state.leaves) {
+            dtos.add(state.leaveService.mapToResponseDTO(leave));
+        }
+        return dtos;
+    }
+    
+    @Benchmark
+    public void validateDates(DateRange state, Blackhole blackhole) {
+        state.leaveService.validateDates(state.startDate, state.endDate);
+        blackhole.consume(state.endDate);
+    }
+    
+    @Benchmark
+    public int calculateLeaveDays(DateRange state) {
+        return state.leaveService.calculateLeaveDays("IT", state.startDate, state.endDate);
+    }
+}
@@ -0,0 +1,18 @@
+package com.hcltech.leave.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * How leave balance lookups are served.
+ *
+ * @param nonBlocking   release the request thread while a lookup missing the cache reads the database
+ * @param loaderThreads threads reading balances that missed the cache; more than the connection pool only queue
+ * @param queueCapacity lookups waiting for a loader thread before new ones are turned away with 503
+ */
+@ConfigurationProperties(prefix = "leave.balance-lookup")
+public record BalanceLookupProperties(
+        @DefaultValue("false") boolean nonBlocking,
+        @DefaultValue("10") int loaderThreads,
+        @DefaultValue("10000") int queueCapacity) {
+}
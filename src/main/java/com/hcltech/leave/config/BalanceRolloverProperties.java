@@ -0,0 +1,16 @@
+package com.hcltech.leave.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Tuning for the year-end balance rollover.
+ *
+ * @param partitions balance id ranges rolled over concurrently
+ * @param chunkSize  balance ids covered by one transaction; each commit is a checkpoint
+ */
+@ConfigurationProperties(prefix = "leave.rollover")
+public record BalanceRolloverProperties(
+        @DefaultValue("4") int partitions,
+        @DefaultValue("1000") int chunkSize) {
+}
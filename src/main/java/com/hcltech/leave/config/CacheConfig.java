@@ -0,0 +1,13 @@
+package com.hcltech.leave.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Enables Spring's cache infrastructure. The cache provider, names and eviction policy are
+ * configured under {@code spring.cache} in {@code application.yml}.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+}
@@ -0,0 +1,17 @@
+package com.hcltech.leave.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.DayOfWeek;
+import java.util.Set;
+
+/**
+ * Working-day calendar settings.
+ *
+ * @param weekendDays days of the week that are never working days
+ */
+@ConfigurationProperties(prefix = "leave.calendar")
+public record CalendarProperties(
+        @DefaultValue({"SATURDAY", "SUNDAY"}) Set<DayOfWeek> weekendDays) {
+}
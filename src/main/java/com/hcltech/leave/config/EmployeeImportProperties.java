@@ -0,0 +1,18 @@
+package com.hcltech.leave.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Tuning for the bulk employee import.
+ *
+ * @param chunkSize         rows validated together and inserted in one transaction
+ * @param parallelism       chunks validated concurrently while earlier chunks are being inserted
+ * @param maxReportedErrors row errors returned in the result; further failures are only counted
+ */
+@ConfigurationProperties(prefix = "leave.employee-import")
+public record EmployeeImportProperties(
+        @DefaultValue("1000") int chunkSize,
+        @DefaultValue("4") int parallelism,
+        @DefaultValue("1000") int maxReportedErrors) {
+}
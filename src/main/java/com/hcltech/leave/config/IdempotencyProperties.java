@@ -0,0 +1,20 @@
+package com.hcltech.leave.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Tuning for {@code Idempotency-Key} handling.
+ *
+ * @param ttl              how long a key's response is replayed; retries after that run again
+ * @param maxEntries       responses kept in memory on each node
+ * @param databaseFallback also record keys in the database, so a retry reaching another node is replayed
+ */
+@ConfigurationProperties(prefix = "leave.idempotency")
+public record IdempotencyProperties(
+        @DefaultValue("24h") Duration ttl,
+        @DefaultValue("10000") int maxEntries,
+        @DefaultValue("true") boolean databaseFallback) {
+}
@@ -0,0 +1,20 @@
+package com.hcltech.leave.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Days granted per leave type each year, used for opening balances and the year-end rollover.
+ *
+ * @param sickLeave             sick days per year, not carried forward
+ * @param casualLeave           casual days per year, not carried forward
+ * @param earnedLeave           earned days added each year
+ * @param maxEarnedCarryForward unused earned days kept at year end; the rest are forfeited
+ */
+@ConfigurationProperties(prefix = "leave.entitlement")
+public record LeaveEntitlementProperties(
+        @DefaultValue("10") int sickLeave,
+        @DefaultValue("12") int casualLeave,
+        @DefaultValue("18") int earnedLeave,
+        @DefaultValue("30") int maxEarnedCarryForward) {
+}
@@ -0,0 +1,24 @@
+package com.hcltech.leave.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Tuning for the in-process notification queue and its dispatcher.
+ *
+ * @param queueCapacity  notifications held in memory before new ones are dropped
+ * @param batchSize      notifications drained from the queue per dispatch round
+ * @param maxAttempts    delivery attempts per recipient batch before it is counted as failed
+ * @param initialBackoff delay before the first retry, doubled on every further retry
+ * @param maxBackoff     upper bound for the retry delay
+ */
+@ConfigurationProperties(prefix = "leave.notifications")
+public record NotificationProperties(
+        @DefaultValue("10000") int queueCapacity,
+        @DefaultValue("100") int batchSize,
+        @DefaultValue("5") int maxAttempts,
+        @DefaultValue("200ms") Duration initialBackoff,
+        @DefaultValue("10s") Duration maxBackoff) {
+}
@@ -0,0 +1,23 @@
+package com.hcltech.leave.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Tuning for the leave status outbox relay.
+ *
+ * @param batchSize   events claimed per poll
+ * @param lease       how long a claimed event is reserved for this node before others may retry it;
+ *                    renewed while the event waits in this node's queue or is being delivered
+ * @param maxAttempts claims per event before it is left for manual inspection
+ * @param retention   how long processed events are kept before cleanup
+ */
+@ConfigurationProperties(prefix = "leave.outbox")
+public record OutboxProperties(
+        @DefaultValue("100") int batchSize,
+        @DefaultValue("1m") Duration lease,
+        @DefaultValue("10") int maxAttempts,
+        @DefaultValue("7d") Duration retention) {
+}
@@ -0,0 +1,52 @@
+package com.hcltech.leave.config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caps the events logged per second by loggers under {@code loggerPrefix}, such as
+ * {@code org.hibernate.SQL}, so statement logging can stay switched on under load.
+ * Events over the limit are dropped before any message formatting happens. Level checks such
+ * as {@code isDebugEnabled()} reach the filter without a format; they see whether the window is
+ * full but are not counted, so a guarded statement uses one slot, not two.
+ * Configured in {@code logback-spring.xml}.
+ */
+public class RateLimitingTurboFilter extends TurboFilter {
+    
+    private static final long WINDOW_NANOS = 1_000_000_000L;
+    
+    private String loggerPrefix;
+    private int maxPerSecond = 20;
+    
+    private final AtomicLong windowStart = new AtomicLong(System.nanoTime());
+    private final AtomicInteger eventsInWindow = new AtomicInteger();
+    
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        if (loggerPrefix == null || !logger.getName().startsWith(loggerPrefix)
+                || !level.isGreaterOrEqual(logger.getEffectiveLevel())) {
+            return FilterReply.NEUTRAL;
+        }
+        long now = System.nanoTime();
+        long start = windowStart.get();
+        if (now - start >= WINDOW_NANOS && windowStart.compareAndSet(start, now)) {
+            eventsInWindow.set(0);
+        }
+        int events = format == null ? eventsInWindow.get() + 1 : eventsInWindow.incrementAndGet();
+        return events <= maxPerSecond ? FilterReply.NEUTRAL : FilterReply.DENY;
+    }
+    
+    public void setLoggerPrefix(String loggerPrefix) {
+        this.loggerPrefix = loggerPrefix;
+    }
+    
+    public void setMaxPerSecond(int maxPerSecond) {
+        this.maxPerSecond = maxPerSecond;
+    }
+}
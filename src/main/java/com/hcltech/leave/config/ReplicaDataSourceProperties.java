@@ -0,0 +1,28 @@
+package com.hcltech.leave.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Read replica for read-only transactions, see {@link ReadReplicaConfig}. Without a {@code url}
+ * every query goes to {@code spring.datasource}.
+ *
+ * @param url             JDBC URL of the replica
+ * @param username        replica user, defaults to {@code spring.datasource.username}
+ * @param password        replica password, defaults to {@code spring.datasource.password}
+ * @param maximumPoolSize connections kept open to the replica
+ * @param pinAfterWrite   how long an employee's and their team's reads stay on the primary after
+ *                        a change to their leaves commits; should exceed the replica's usual lag
+ * @param maxPins         pins held on each node; the oldest are dropped beyond this
+ */
+@ConfigurationProperties(prefix = "leave.datasource.replica")
+public record ReplicaDataSourceProperties(
+        String url,
+        String username,
+        String password,
+        @DefaultValue("10") int maximumPoolSize,
+        @DefaultValue("5s") Duration pinAfterWrite,
+        @DefaultValue("100000") int maxPins) {
+}
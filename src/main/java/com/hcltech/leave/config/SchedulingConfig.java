@@ -0,0 +1,15 @@
+package com.hcltech.leave.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables background jobs such as the outbox relay. Set {@code leave.scheduling.enabled=false}
+ * to run a node that only serves requests.
+ */
+@Configuration
+@EnableScheduling
+@ConditionalOnProperty(prefix = "leave.scheduling", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class SchedulingConfig {
+}
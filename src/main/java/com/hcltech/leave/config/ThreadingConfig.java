@@ -0,0 +1,31 @@
+package com.hcltech.leave.config;
+
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Threads for the application's own background workers. They follow
+ * {@code spring.threads.virtual.enabled}, like Tomcat and the scheduler do, so the
+ * {@code virtual-threads} profile moves them onto virtual threads on Java 21+.
+ */
+@Configuration
+public class ThreadingConfig {
+    
+    private static final String NOTIFICATION_THREAD_PREFIX = "notification-dispatcher-";
+    
+    @Bean
+    public ThreadFactory notificationThreadFactory(Environment environment) {
+        if (Threading.VIRTUAL.isActive(environment)) {
+            return new VirtualThreadTaskExecutor(NOTIFICATION_THREAD_PREFIX).getVirtualThreadFactory();
+        }
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory(NOTIFICATION_THREAD_PREFIX);
+        threadFactory.setDaemon(true);
+        return threadFactory;
+    }
+}
@@ -0,0 +1,30 @@
+package com.hcltech.leave.controller;
+
+import com.hcltech.leave.dto.BalanceRolloverDTO;
+import com.hcltech.leave.service.BalanceRolloverJob;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/balances/rollover")
+@RequiredArgsConstructor
+@Tag(name = "Balance Rollover", description = "APIs for the year-end leave balance rollover")
+public class BalanceRolloverController {
+    
+    private final BalanceRolloverJob balanceRolloverJob;
+    
+    @PostMapping
+    @Operation(summary = "Roll leave balances over from a year to the next, or resume an interrupted rollover")
+    public ResponseEntity<BalanceRolloverDTO> rollOver(@RequestParam int fromYear) {
+        return ResponseEntity.ok(balanceRolloverJob.rollOver(fromYear));
+    }
+    
+    @GetMapping("/{fromYear}")
+    @Operation(summary = "Get the status and audit summary of a rollover")
+    public ResponseEntity<BalanceRolloverDTO> getRollover(@PathVariable int fromYear) {
+        return ResponseEntity.ok(balanceRolloverJob.getRollover(fromYear));
+    }
+}
@@ -0,0 +1,29 @@
+package com.hcltech.leave.controller;
+
+import com.hcltech.leave.dto.EmployeeImportResultDTO;
+import com.hcltech.leave.service.EmployeeImportService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+@RestController
+@RequestMapping("/api/employees")
+@RequiredArgsConstructor
+@Tag(name = "Employees", description = "APIs for onboarding employees")
+public class EmployeeController {
+    
+    private final EmployeeImportService employeeImportService;
+    
+    @PostMapping(value = "/import", consumes = "text/csv")
+    @Operation(summary = "Create employees and their opening leave balances from a CSV body")
+    public ResponseEntity<EmployeeImportResultDTO> importEmployees(InputStream csv) throws IOException {
+        return ResponseEntity.ok(employeeImportService.importCsv(csv));
+    }
+}
@@ -0,0 +1,26 @@
+package com.hcltech.leave.controller;
+
+import com.hcltech.leave.service.WorkingDayCalendar;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/holidays")
+@RequiredArgsConstructor
+@Tag(name = "Holiday Calendar", description = "APIs for managing the working-day calendar")
+public class HolidayController {
+    
+    private final WorkingDayCalendar workingDayCalendar;
+    
+    @PostMapping("/reload")
+    @Operation(summary = "Reload holidays from the database into the working-day calendar")
+    public ResponseEntity<Void> reloadHolidays() {
+        workingDayCalendar.reload();
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,38 @@
+package com.hcltech.leave.controller;
+
+import com.hcltech.leave.dto.LeaveUsageDTO;
+import com.hcltech.leave.enums.LeaveType;
+import com.hcltech.leave.service.LeaveUsageService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.YearMonth;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/analytics")
+@RequiredArgsConstructor
+@Tag(name = "Leave Analytics", description = "APIs for leave usage reporting")
+public class LeaveAnalyticsController {
+    
+    private final LeaveUsageService leaveUsageService;
+    
+    @GetMapping("/leave-usage")
+    @Operation(summary = "Get approved leave days per department, month and leave type")
+    public ResponseEntity<List<LeaveUsageDTO>> getLeaveUsage(@RequestParam YearMonth from,
+                                                             @RequestParam YearMonth to,
+                                                             @RequestParam(required = false) String department,
+                                                             @RequestParam(required = false) LeaveType leaveType) {
+        return ResponseEntity.ok(leaveUsageService.getUsage(from, to, department, leaveType));
+    }
+    
+    @PostMapping("/leave-usage/rebuild")
+    @Operation(summary = "Recompute the leave usage summaries from all approved leaves")
+    public ResponseEntity<Void> rebuildLeaveUsage() {
+        leaveUsageService.rebuild();
+        return ResponseEntity.noContent().build();
+    }
+}
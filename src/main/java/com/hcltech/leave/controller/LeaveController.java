@@ -1,17 +1,31 @@
 package com.hcltech.leave.controller;
 
 import com.hcltech.leave.dto.*;
+import com.hcltech.leave.enums.ExportFormat;
 import com.hcltech.leave.model.LeaveBalance;
+import com.hcltech.leave.service.IdempotencyService;
+import com.hcltech.leave.service.LeaveBalanceLookup;
+import com.hcltech.leave.service.LeaveExportService;
 import com.hcltech.leave.service.LeaveService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/leaves")
@@ -20,19 +34,39 @@ import java.util.List;
 public class LeaveController {
     
     private final LeaveService leaveService;
+    private final LeaveExportService leaveExportService;
+    private final IdempotencyService idempotencyService;
+    private final LeaveBalanceLookup leaveBalanceLookup;
     
     @PostMapping
-    @Operation(summary = "Apply for leave")
-    public ResponseEntity<LeaveResponseDTO> applyLeave(@Valid @RequestBody LeaveRequestDTO requestDTO) {
-        LeaveResponseDTO response = leaveService.applyLeave(requestDTO);
-        return new ResponseEntity<>(response, HttpStatus.CREATED);
+    @Operation(summary = "Apply for leave; retries with the same Idempotency-Key get the first response")
+    public ResponseEntity<LeaveResponseDTO> applyLeave(
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+            @Valid @RequestBody LeaveRequestDTO requestDTO) {
+        return idempotencyService.execute("applyLeave", idempotencyKey, requestDTO, LeaveResponseDTO.class, () -> {
+            LeaveResponseDTO response = leaveService.applyLeave(requestDTO);
+            return new ResponseEntity<>(response, HttpStatus.CREATED);
+        });
     }
     
     @PutMapping("/approve")
-    @Operation(summary = "Approve or reject leave")
-    public ResponseEntity<LeaveResponseDTO> approveOrRejectLeave(@Valid @RequestBody LeaveApprovalDTO approvalDTO) {
-        LeaveResponseDTO response = leaveService.approveOrRejectLeave(approvalDTO);
-        return ResponseEntity.ok(response);
+    @Operation(summary = "Approve or reject leave; retries with the same Idempotency-Key get the first response")
+    public ResponseEntity<LeaveResponseDTO> approveOrRejectLeave(
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+            @Valid @RequestBody LeaveApprovalDTO approvalDTO) {
+        return idempotencyService.execute("approveLeave", idempotencyKey, approvalDTO, LeaveResponseDTO.class, () -> {
+            LeaveResponseDTO response = leaveService.approveOrRejectLeave(approvalDTO);
+            return ResponseEntity.ok(response);
+        });
+    }
+    
+    @PutMapping("/approve/bulk")
+    @Operation(summary = "Approve or reject several leaves at once")
+    public ResponseEntity<List<LeaveApprovalResultDTO>> approveOrRejectLeaves(
+            @RequestBody List<@NotNull(message = "Bulk decision items must not be null") LeaveApprovalDTO> approvalDTOs) {
+        // Items are not cascaded into: an invalid item is reported in its own result, not as a 400
+        List<LeaveApprovalResultDTO> results = leaveService.approveOrRejectLeaves(approvalDTOs);
+        return ResponseEntity.ok(results);
     }
     
     @PutMapping("/{leaveId}/cancel")
@@ -43,23 +77,83 @@ public class LeaveController {
     }
     
     @GetMapping("/employee/{employeeId}")
-    @Operation(summary = "Get employee leave history")
-    public ResponseEntity<List<LeaveResponseDTO>> getEmployeeLeaves(@PathVariable Long employeeId) {
-        List<LeaveResponseDTO> leaves = leaveService.getEmployeeLeaves(employeeId);
+    @Operation(summary = "Get employee leave history; 304 while the ETag still matches")
+    public ResponseEntity<LeaveHistoryPageDTO> getEmployeeLeaves(@PathVariable Long employeeId,
+                                                                 @Valid LeaveHistoryQuery query,
+                                                                 WebRequest request) {
+        // The version is read before the page, so a change committed in between is served under
+        // the older tag and fetched again on the next poll, never cached under the newer one
+        String etag = leaveService.getEmployeeLeavesVersion(employeeId)
+            .map(version -> "employee-" + employeeId + "-" + version)
+            .orElse(null);
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        LeaveHistoryPageDTO leaves = leaveService.getEmployeeLeaves(employeeId, query);
         return ResponseEntity.ok(leaves);
     }
     
     @GetMapping("/manager/{managerId}/team")
-    @Operation(summary = "Get team leaves for manager")
-    public ResponseEntity<List<LeaveResponseDTO>> getTeamLeaves(@PathVariable Long managerId) {
-        List<LeaveResponseDTO> leaves = leaveService.getTeamLeaves(managerId);
+    @Operation(summary = "Get team leaves for manager; 304 while the ETag still matches")
+    public ResponseEntity<LeaveHistoryPageDTO> getTeamLeaves(@PathVariable Long managerId,
+                                                             @Valid LeaveHistoryQuery query,
+                                                             WebRequest request) {
+        if (request.checkNotModified("team-" + managerId + "-" + leaveService.getTeamLeavesVersion(managerId))) {
+            return null;
+        }
+        LeaveHistoryPageDTO leaves = leaveService.getTeamLeaves(managerId, query);
         return ResponseEntity.ok(leaves);
     }
     
+    @GetMapping("/manager/{managerId}/pending")
+    @Operation(summary = "Get leaves awaiting the manager's decision, oldest first")
+    public ResponseEntity<List<LeaveResponseDTO>> getPendingApprovals(@PathVariable Long managerId) {
+        List<LeaveResponseDTO> pending = leaveService.getPendingApprovals(managerId);
+        return ResponseEntity.ok(pending);
+    }
+    
+    @GetMapping("/manager/{managerId}/pending/count")
+    @Operation(summary = "Count leaves awaiting the manager's decision")
+    public ResponseEntity<PendingApprovalCountDTO> countPendingApprovals(@PathVariable Long managerId) {
+        PendingApprovalCountDTO count = leaveService.countPendingApprovals(managerId);
+        return ResponseEntity.ok(count);
+    }
+    
+    @GetMapping("/manager/{managerId}/calendar")
+    @Operation(summary = "Get team absences per day for manager")
+    public ResponseEntity<List<TeamCalendarDayDTO>> getTeamCalendar(
+            @PathVariable Long managerId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        List<TeamCalendarDayDTO> calendar = leaveService.getTeamCalendar(managerId, from, to);
+        return ResponseEntity.ok(calendar);
+    }
+    
+    @GetMapping("/export")
+    @Operation(summary = "Stream all leaves overlapping a date range as CSV or NDJSON")
+    public void exportLeaves(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                             @RequestParam(defaultValue = "CSV") ExportFormat format,
+                             HttpServletResponse response) throws IOException {
+        // Checked before anything is written, while an error can still become a 400 response
+        leaveExportService.validateRange(from, to);
+        response.setContentType(format.getMediaType());
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+            .filename("leaves-" + from + "-" + to + "." + format.getFileExtension())
+            .build()
+            .toString());
+        leaveExportService.export(from, to, format, response.getOutputStream());
+    }
+    
     @GetMapping("/balance/{employeeId}")
-    @Operation(summary = "Get employee leave balance")
-    public ResponseEntity<LeaveBalance> getLeaveBalance(@PathVariable Long employeeId) {
-        LeaveBalance balance = leaveService.getLeaveBalance(employeeId);
-        return ResponseEntity.ok(balance);
+    @Operation(summary = "Get employee leave balance; 304 while the ETag still matches")
+    public CompletableFuture<ResponseEntity<LeaveBalance>> getLeaveBalance(@PathVariable Long employeeId) {
+        // Served from the balance cache, so a matching poll reads nothing from the database. The
+        // response is written once the lookup completes, as a 304 when If-None-Match matches the ETag.
+        return leaveBalanceLookup.lookup(employeeId)
+            .thenApply(balance -> ResponseEntity.ok()
+                .eTag("balance-" + balance.getId() + "-" + balance.getVersion())
+                .body(balance));
     }
 }
\ No newline at end of file
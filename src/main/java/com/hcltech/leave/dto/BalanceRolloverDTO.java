@@ -0,0 +1,21 @@
+package com.hcltech.leave.dto;
+
+import com.hcltech.leave.enums.RolloverStatus;
+import lombok.*;
+
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BalanceRolloverDTO {
+    private int fromYear;
+    private int toYear;
+    private RolloverStatus status;
+    private Instant startedAt;
+    private Instant finishedAt;
+    private long balancesRolled;
+    private long earnedCarriedForward;
+    private long earnedForfeited;
+}
@@ -0,0 +1,13 @@
+package com.hcltech.leave.dto;
+
+import lombok.*;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EmployeeImportErrorDTO {
+    private long line;
+    private String email;
+    private String message;
+}
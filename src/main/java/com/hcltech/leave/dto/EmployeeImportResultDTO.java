@@ -0,0 +1,17 @@
+package com.hcltech.leave.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EmployeeImportResultDTO {
+    private long totalRows;
+    private long imported;
+    private long failed;
+    private List<EmployeeImportErrorDTO> errors;
+    private boolean errorsTruncated;
+}
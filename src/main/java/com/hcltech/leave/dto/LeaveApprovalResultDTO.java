@@ -0,0 +1,14 @@
+package com.hcltech.leave.dto;
+
+import lombok.*;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LeaveApprovalResultDTO {
+    private Long leaveId;
+    private boolean success;
+    private String message;
+    private LeaveResponseDTO leave;
+}
@@ -0,0 +1,26 @@
+package com.hcltech.leave.dto;
+
+import com.hcltech.leave.enums.LeaveStatus;
+import com.hcltech.leave.enums.LeaveType;
+import lombok.*;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LeaveExportRow {
+    private Long id;
+    private Long employeeId;
+    private String employeeName;
+    private String employeeEmail;
+    private String department;
+    private LeaveType leaveType;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private Integer numberOfDays;
+    private LeaveStatus status;
+    private LocalDate appliedDate;
+    private Long approvedBy;
+}
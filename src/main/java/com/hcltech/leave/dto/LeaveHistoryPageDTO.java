@@ -0,0 +1,15 @@
+package com.hcltech.leave.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LeaveHistoryPageDTO {
+    private List<LeaveResponseDTO> content;
+    private String nextCursor;
+    private boolean hasNext;
+}
@@ -0,0 +1,18 @@
+package com.hcltech.leave.dto;
+
+import com.hcltech.leave.enums.LeaveType;
+import lombok.*;
+
+import java.time.YearMonth;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LeaveUsageDTO {
+    private String department;
+    private YearMonth month;
+    private LeaveType leaveType;
+    private long daysTaken;
+    private long leaveCount;
+}
@@ -0,0 +1,12 @@
+package com.hcltech.leave.dto;
+
+import lombok.*;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PendingApprovalCountDTO {
+    private Long managerId;
+    private int pendingCount;
+}
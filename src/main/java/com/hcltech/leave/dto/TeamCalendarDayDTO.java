@@ -0,0 +1,16 @@
+package com.hcltech.leave.dto;
+
+import lombok.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TeamCalendarDayDTO {
+    private LocalDate date;
+    private int absentCount;
+    private List<String> absentEmployees;
+}
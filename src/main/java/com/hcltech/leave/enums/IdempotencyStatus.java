@@ -0,0 +1,5 @@
+package com.hcltech.leave.enums;
+
+public enum IdempotencyStatus {
+    IN_PROGRESS, COMPLETED
+}
@@ -0,0 +1,7 @@
+package com.hcltech.leave.exception;
+
+public class OverlappingLeaveException extends RuntimeException {
+    public OverlappingLeaveException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,46 @@
+package com.hcltech.leave.model;
+
+import com.hcltech.leave.enums.RolloverStatus;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * One year-end rollover of leave balances from {@code fromYear} to the next year, and its audit
+ * summary. The totals are filled in from the partitions when the run completes.
+ */
+@Entity
+@Table(name = "balance_rollovers")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BalanceRollover {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "balance_rollovers_seq")
+    @SequenceGenerator(name = "balance_rollovers_seq", sequenceName = "balance_rollovers_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false, unique = true)
+    private Integer fromYear;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private RolloverStatus status;
+
+    @Column(nullable = false)
+    private Instant startedAt;
+
+    private Instant finishedAt;
+
+    @Column(nullable = false)
+    private long balancesRolled;
+
+    @Column(nullable = false)
+    private long earnedCarriedForward;
+
+    @Column(nullable = false)
+    private long earnedForfeited;
+}
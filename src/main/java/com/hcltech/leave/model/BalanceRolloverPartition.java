@@ -0,0 +1,50 @@
+package com.hcltech.leave.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Checkpoint for one balance id range of a {@link BalanceRollover}. Balances from {@code nextId}
+ * up to, but excluding, {@code endId} are still to be rolled over. The position and the counters
+ * advance in the same transaction as the balances they cover.
+ */
+@Entity
+@Table(name = "balance_rollover_partitions",
+    uniqueConstraints = @UniqueConstraint(columnNames = {"rollover_id", "partition_no"}))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BalanceRolloverPartition {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "balance_rollover_partitions_seq")
+    @SequenceGenerator(name = "balance_rollover_partitions_seq", sequenceName = "balance_rollover_partitions_seq",
+        allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long rolloverId;
+
+    @Column(nullable = false)
+    private Integer partitionNo;
+
+    @Column(nullable = false)
+    private Long nextId;
+
+    @Column(nullable = false)
+    private Long endId;
+
+    @Column(nullable = false)
+    private long balancesRolled;
+
+    @Column(nullable = false)
+    private long earnedCarriedForward;
+
+    @Column(nullable = false)
+    private long earnedForfeited;
+
+    public boolean isDone() {
+        return nextId >= endId;
+    }
+}
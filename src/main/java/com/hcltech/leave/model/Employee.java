@@ -2,6 +2,7 @@ package com.hcltech.leave.model;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
 
 @Entity
 @Table(name = "employees")
@@ -12,7 +13,8 @@ import lombok.*;
 public class Employee {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "employees_seq")
+    @SequenceGenerator(name = "employees_seq", sequenceName = "employees_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -26,7 +28,16 @@ public class Employee {
 
     private Long managerId;
 
-    @OneToOne(cascade = CascadeType.ALL)
+    @OneToOne(cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     @JoinColumn(name = "leave_balance_id")
     private LeaveBalance leaveBalance;
+
+    /**
+     * Bumped in the same transaction as every change to this employee's leaves, so it identifies
+     * a version of their leave history. Only ever incremented with a bulk update.
+     */
+    @Column(nullable = false)
+    @ColumnDefault("0")
+    @Builder.Default
+    private Long leavesVersion = 0L;
 }
\ No newline at end of file
@@ -0,0 +1,30 @@
+package com.hcltech.leave.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+
+/**
+ * Non-working day. Holidays without a department apply to every department.
+ */
+@Entity
+@Table(name = "holidays", uniqueConstraints = @UniqueConstraint(columnNames = {"department", "holiday_date"}))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class Holiday {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private String department;
+
+    @Column(name = "holiday_date", nullable = false)
+    private LocalDate date;
+
+    @Column(nullable = false)
+    private String name;
+}
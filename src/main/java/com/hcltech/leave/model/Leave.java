@@ -8,7 +8,7 @@ import lombok.*;
 import java.time.LocalDate;
 
 @Entity
-@Table(name = "leaves")
+@Table(name = "leaves", indexes = @Index(name = "idx_leaves_employee_dates", columnList = "employee_id, end_date, start_date"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -19,7 +19,7 @@ public class Leave {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "employee_id", nullable = false)
     private Employee employee;
 
@@ -48,4 +48,7 @@ public class Leave {
 
     @Column(nullable = false)
     private LocalDate appliedDate = LocalDate.now();
+
+    @Version
+    private Long version;
 }
\ No newline at end of file
@@ -12,7 +12,8 @@ import lombok.*;
 public class LeaveBalance {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "leave_balances_seq")
+    @SequenceGenerator(name = "leave_balances_seq", sequenceName = "leave_balances_seq", allocationSize = 50)
     private Long id;
 
     private Integer sickLeave = 10;
@@ -21,4 +22,7 @@ public class LeaveBalance {
 
     @Column(nullable = false)
     private Integer year;
+
+    @Version
+    private Long version;
 }
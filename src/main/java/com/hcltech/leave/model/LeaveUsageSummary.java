@@ -0,0 +1,50 @@
+package com.hcltech.leave.model;
+
+import com.hcltech.leave.enums.LeaveType;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * Approved leave per department, month and leave type, kept up to date as leaves are approved.
+ * Days are the working days of each leave that fall in the month.
+ */
+@Entity
+@Table(name = "leave_usage_summaries")
+@IdClass(LeaveUsageSummary.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LeaveUsageSummary {
+
+    /** First day of the month. */
+    @Id
+    @Column(name = "usage_month")
+    private LocalDate month;
+
+    @Id
+    private String department;
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    private LeaveType leaveType;
+
+    @Column(nullable = false)
+    private Long daysTaken;
+
+    /** Leaves with at least one working day in the month. */
+    @Column(nullable = false)
+    private Long leaveCount;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private LocalDate month;
+        private String department;
+        private LeaveType leaveType;
+    }
+}
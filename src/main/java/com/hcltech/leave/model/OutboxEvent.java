@@ -0,0 +1,49 @@
+package com.hcltech.leave.model;
+
+import com.hcltech.leave.enums.LeaveStatus;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * Leave status change recorded in the same transaction as the leave update and relayed to
+ * the notification pipeline afterwards. A row is pending until {@code processedAt} is set.
+ */
+@Entity
+@Table(name = "outbox_events")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "outbox_events_seq")
+    @SequenceGenerator(name = "outbox_events_seq", sequenceName = "outbox_events_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long leaveId;
+
+    @Column(nullable = false)
+    private String recipientEmail;
+
+    private String employeeName;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private LeaveStatus status;
+
+    private String comments;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+
+    private Instant claimedAt;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    private Instant processedAt;
+}
@@ -0,0 +1,45 @@
+package com.hcltech.leave.model;
+
+import com.hcltech.leave.enums.LeaveType;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+
+/**
+ * One working day of an approved leave, filed under the employee's manager at approval time.
+ * Rows are written with the approval, so a team calendar reads only the days it shows.
+ */
+@Entity
+@Table(name = "team_absence_days",
+    indexes = @Index(name = "idx_team_absence_days_manager_date", columnList = "manager_id, absence_date"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TeamAbsenceDay {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "team_absence_days_seq")
+    @SequenceGenerator(name = "team_absence_days_seq", sequenceName = "team_absence_days_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "manager_id", nullable = false)
+    private Long managerId;
+
+    @Column(name = "absence_date", nullable = false)
+    private LocalDate absenceDate;
+
+    @Column(nullable = false)
+    private Long employeeId;
+
+    @Column(nullable = false)
+    private String employeeName;
+
+    @Column(nullable = false)
+    private Long leaveId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private LeaveType leaveType;
+}
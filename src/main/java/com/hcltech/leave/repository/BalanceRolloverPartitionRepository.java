@@ -0,0 +1,20 @@
+package com.hcltech.leave.repository;
+
+import com.hcltech.leave.model.BalanceRolloverPartition;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface BalanceRolloverPartitionRepository extends JpaRepository<BalanceRolloverPartition, Long> {
+
+    List<BalanceRolloverPartition> findByRolloverIdOrderByPartitionNo(Long rolloverId);
+
+    /** Locks the checkpoint so two nodes resuming the same run take turns on each chunk. */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<BalanceRolloverPartition> findForUpdateById(Long id);
+}
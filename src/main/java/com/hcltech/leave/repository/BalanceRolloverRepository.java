@@ -0,0 +1,17 @@
+package com.hcltech.leave.repository;
+
+import com.hcltech.leave.enums.RolloverStatus;
+import com.hcltech.leave.model.BalanceRollover;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface BalanceRolloverRepository extends JpaRepository<BalanceRollover, Long> {
+
+    Optional<BalanceRollover> findByFromYear(Integer fromYear);
+
+    List<BalanceRollover> findByStatus(RolloverStatus status);
+}
@@ -1,11 +1,55 @@
 package com.hcltech.leave.repository;
 
 import com.hcltech.leave.model.Employee;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface EmployeeRepository extends JpaRepository<Employee, Long> {
     Optional<Employee> findByEmail(String email);
+
+    /** Read-only when called outside a transaction, so a replica can serve balance cache misses. */
+    @Transactional(readOnly = true)
+    @EntityGraph(attributePaths = "leaveBalance")
+    Optional<Employee> findWithLeaveBalanceById(Long id);
+
+    /** Locks the employee row so the employee's leave requests are checked and inserted one at a time. */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<Employee> findForUpdateById(Long id);
+
+    /** Which of {@code emails} already belong to an employee. */
+    @Query("SELECT e.email FROM Employee e WHERE e.email IN :emails")
+    List<String> findExistingEmails(Collection<String> emails);
+
+    /** Employees whose balance id lies in {@code [fromId, toId)}. */
+    @Query("SELECT e.id FROM Employee e WHERE e.leaveBalance.id >= :fromId AND e.leaveBalance.id < :toId")
+    List<Long> findIdsByLeaveBalanceIdRange(long fromId, long toId);
+
+    /** Marks the employees' leave histories as changed. */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Employee e SET e.leavesVersion = e.leavesVersion + 1 WHERE e.id IN :ids")
+    int incrementLeavesVersion(Collection<Long> ids);
+
+    @Query("SELECT e.leavesVersion FROM Employee e WHERE e.id = :id")
+    Optional<Long> findLeavesVersionById(Long id);
+
+    /**
+     * The team members' leave history versions as {@code id:leavesVersion}, in id order. Together
+     * they version the team's leave history, including who is on the team.
+     */
+    @Query("""
+        SELECT CONCAT(CAST(e.id AS String), ':', CAST(e.leavesVersion AS String)) FROM Employee e
+        WHERE e.managerId = :managerId
+        ORDER BY e.id
+        """)
+    List<String> findMemberLeavesVersionsByManagerId(Long managerId);
 }
\ No newline at end of file
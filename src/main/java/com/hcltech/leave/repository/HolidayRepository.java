@@ -0,0 +1,9 @@
+package com.hcltech.leave.repository;
+
+import com.hcltech.leave.model.Holiday;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface HolidayRepository extends JpaRepository<Holiday, Long> {
+}
@@ -0,0 +1,53 @@
+package com.hcltech.leave.repository;
+
+import com.hcltech.leave.model.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+
+    /** Claims a key for this node. Returns 0, without waiting, when the key is already recorded. */
+    @Transactional
+    @Modifying
+    @Query(value = """
+        INSERT INTO idempotency_records (id, request_hash, status, created_at, expires_at)
+        VALUES (:id, :requestHash, 'IN_PROGRESS', :createdAt, :expiresAt)
+        ON CONFLICT DO NOTHING
+        """, nativeQuery = true)
+    int claim(String id, String requestHash, Instant createdAt, Instant expiresAt);
+
+    @Transactional
+    @Modifying
+    @Query("""
+        UPDATE IdempotencyRecord r
+        SET r.status = com.hcltech.leave.enums.IdempotencyStatus.COMPLETED,
+            r.responseStatus = :responseStatus, r.responseBody = :responseBody
+        WHERE r.id = :id
+        """)
+    int complete(String id, int responseStatus, String responseBody);
+
+    /** Frees a key whose request failed, so a retry runs it again. */
+    @Transactional
+    @Modifying
+    @Query("""
+        DELETE FROM IdempotencyRecord r
+        WHERE r.id = :id AND r.status = com.hcltech.leave.enums.IdempotencyStatus.IN_PROGRESS
+        """)
+    int release(String id);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.id = :id AND r.expiresAt < :now")
+    int deleteIfExpired(String id, Instant now);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.expiresAt < :now")
+    int deleteExpired(Instant now);
+}
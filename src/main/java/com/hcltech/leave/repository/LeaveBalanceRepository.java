@@ -0,0 +1,74 @@
+package com.hcltech.leave.repository;
+
+import com.hcltech.leave.model.LeaveBalance;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Balance deductions are single conditional updates: the row is only changed when it still holds
+ * enough days, so concurrent approvals can neither lose an update nor drive a balance negative.
+ * Each returns the number of rows updated, 0 meaning the balance was insufficient.
+ */
+@Repository
+public interface LeaveBalanceRepository extends JpaRepository<LeaveBalance, Long> {
+
+    @Modifying(flushAutomatically = true)
+    @Query("""
+        UPDATE LeaveBalance b SET b.sickLeave = b.sickLeave - :days, b.version = COALESCE(b.version, 0) + 1
+        WHERE b.id = :balanceId AND b.sickLeave >= :days
+        """)
+    int deductSickLeave(Long balanceId, int days);
+
+    @Modifying(flushAutomatically = true)
+    @Query("""
+        UPDATE LeaveBalance b SET b.casualLeave = b.casualLeave - :days, b.version = COALESCE(b.version, 0) + 1
+        WHERE b.id = :balanceId AND b.casualLeave >= :days
+        """)
+    int deductCasualLeave(Long balanceId, int days);
+
+    @Modifying(flushAutomatically = true)
+    @Query("""
+        UPDATE LeaveBalance b SET b.earnedLeave = b.earnedLeave - :days, b.version = COALESCE(b.version, 0) + 1
+        WHERE b.id = :balanceId AND b.earnedLeave >= :days
+        """)
+    int deductEarnedLeave(Long balanceId, int days);
+
+    @Query("SELECT MIN(b.id) FROM LeaveBalance b WHERE b.year = :year")
+    Long findMinIdByYear(int year);
+
+    @Query("SELECT MAX(b.id) FROM LeaveBalance b WHERE b.year = :year")
+    Long findMaxIdByYear(int year);
+
+    /**
+     * Locks one chunk of a year's balances for the rollover and returns their earned leave, so the
+     * audit totals match exactly what {@link #rollOver} then changes. Must run in a transaction.
+     */
+    @Query(value = """
+        SELECT earned_leave FROM leave_balances
+        WHERE year = :year AND id >= :fromId AND id < :toId
+        FOR UPDATE
+        """, nativeQuery = true)
+    List<Integer> lockEarnedLeaveForRollover(int year, long fromId, long toId);
+
+    /**
+     * Moves one chunk of balances to the next year in a single statement: sick and casual leave are
+     * reset, earned leave keeps up to {@code maxCarryForward} unused days plus the new year's grant.
+     * Balances already rolled over no longer match {@code fromYear}, so repeating a chunk is harmless.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("""
+        UPDATE LeaveBalance b SET b.year = :fromYear + 1,
+            b.sickLeave = :sickLeave,
+            b.casualLeave = :casualLeave,
+            b.earnedLeave = CASE WHEN COALESCE(b.earnedLeave, 0) > :maxCarryForward THEN :maxCarryForward
+                ELSE COALESCE(b.earnedLeave, 0) END + :earnedLeave,
+            b.version = COALESCE(b.version, 0) + 1
+        WHERE b.year = :fromYear AND b.id >= :fromId AND b.id < :toId
+        """)
+    int rollOver(int fromYear, long fromId, long toId, int sickLeave, int casualLeave, int earnedLeave,
+                 int maxCarryForward);
+}
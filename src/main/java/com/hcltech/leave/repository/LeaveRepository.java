@@ -1,22 +1,125 @@
 package com.hcltech.leave.repository;
 
+import com.hcltech.leave.dto.LeaveExportRow;
+import com.hcltech.leave.dto.PendingLeaveRow;
+import com.hcltech.leave.dto.LeaveResponseDTO;
 import com.hcltech.leave.model.Leave;
 import com.hcltech.leave.enums.LeaveStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface LeaveRepository extends JpaRepository<Leave, Long> {
     
+    @EntityGraph(attributePaths = {"employee", "employee.leaveBalance"})
+    Optional<Leave> findWithEmployeeById(Long id);
+    
+    @EntityGraph(attributePaths = {"employee", "employee.leaveBalance"})
+    List<Leave> findWithEmployeeByIdIn(Collection<Long> ids);
+    
+    /** Filters on the leave's own employee_id; the derived query filtered on a second join and scanned all leaves. */
+    @Query("SELECT l FROM Leave l JOIN FETCH l.employee WHERE l.employee.id = :employeeId")
     List<Leave> findByEmployeeId(Long employeeId);
     
+    /**
+     * Whether the employee has a leave in one of the statuses overlapping the range. The end date
+     * bound seeks {@code idx_leaves_employee_dates} past leaves that finished before the range, so
+     * the check reads only the employee's current and upcoming leaves.
+     */
+    @Query("""
+        SELECT COUNT(l) > 0 FROM Leave l
+        WHERE l.employee.id = :employeeId
+          AND l.status IN :statuses
+          AND l.startDate <= :endDate
+          AND l.endDate >= :startDate
+        """)
+    boolean existsOverlapping(Long employeeId, Collection<LeaveStatus> statuses, LocalDate startDate, LocalDate endDate);
+    
+    @EntityGraph(attributePaths = "employee")
     List<Leave> findByStatus(LeaveStatus status);
     
-    @Query("SELECT l FROM Leave l WHERE l.employee.managerId = :managerId")
+    @Query("SELECT l FROM Leave l JOIN FETCH l.employee e WHERE e.managerId = :managerId")
     List<Leave> findByManagerId(Long managerId);
     
-    @Query("SELECT l FROM Leave l WHERE l.employee.managerId = :managerId AND l.status = :status")
+    @Query("SELECT l FROM Leave l JOIN FETCH l.employee e WHERE e.managerId = :managerId AND l.status = :status")
     List<Leave> findByManagerIdAndStatus(Long managerId, LeaveStatus status);
-}
\ No newline at end of file
+
+    /** Every pending leave awaiting a manager, with that manager's id. Builds the pending approval index. */
+    @Query("""
+        SELECT new com.hcltech.leave.dto.PendingLeaveRow(
+            e.managerId, l.id, e.name, l.leaveType, l.startDate, l.endDate, l.numberOfDays,
+            l.reason, l.appliedDate)
+        FROM Leave l JOIN l.employee e
+        WHERE l.status = com.hcltech.leave.enums.LeaveStatus.PENDING AND e.managerId IS NOT NULL
+        """)
+    List<PendingLeaveRow> findAllPendingApprovals();
+
+    @Query("""
+        SELECT new com.hcltech.leave.dto.PendingLeaveRow(
+            e.managerId, l.id, e.name, l.leaveType, l.startDate, l.endDate, l.numberOfDays,
+            l.reason, l.appliedDate)
+        FROM Leave l JOIN l.employee e
+        WHERE e.managerId = :managerId AND l.status = com.hcltech.leave.enums.LeaveStatus.PENDING
+        ORDER BY l.id
+        """)
+    List<PendingLeaveRow> findPendingApprovals(Long managerId);
+
+    @Query("""
+        SELECT new com.hcltech.leave.dto.LeaveResponseDTO(
+            l.id, e.name, l.leaveType, l.startDate, l.endDate, l.numberOfDays,
+            l.reason, l.status, l.appliedDate, l.comments)
+        FROM Leave l JOIN l.employee e
+        WHERE e.id = :employeeId
+          AND l.status IN :statuses
+          AND l.endDate >= :from AND l.startDate <= :to
+          AND (l.appliedDate < :cursorDate OR (l.appliedDate = :cursorDate AND l.id < :cursorId))
+        ORDER BY l.appliedDate DESC, l.id DESC
+        """)
+    List<LeaveResponseDTO> findEmployeeHistoryPage(Long employeeId, Collection<LeaveStatus> statuses,
+                                                   LocalDate from, LocalDate to,
+                                                   LocalDate cursorDate, Long cursorId, Limit limit);
+
+    @Query("""
+        SELECT new com.hcltech.leave.dto.LeaveResponseDTO(
+            l.id, e.name, l.leaveType, l.startDate, l.endDate, l.numberOfDays,
+            l.reason, l.status, l.appliedDate, l.comments)
+        FROM Leave l JOIN l.employee e
+        WHERE e.managerId = :managerId
+          AND l.status IN :statuses
+          AND l.endDate >= :from AND l.startDate <= :to
+          AND (l.appliedDate < :cursorDate OR (l.appliedDate = :cursorDate AND l.id < :cursorId))
+        ORDER BY l.appliedDate DESC, l.id DESC
+        """)
+    List<LeaveResponseDTO> findTeamHistoryPage(Long managerId, Collection<LeaveStatus> statuses,
+                                               LocalDate from, LocalDate to,
+                                               LocalDate cursorDate, Long cursorId, Limit limit);
+
+    /**
+     * Leaves overlapping the range, read through a forward-only cursor in the order of
+     * {@code idx_leaves_end_date} so the database streams rows without sorting them. Rows are
+     * projections, not entities, so the persistence context stays empty however many are read.
+     * The stream must be closed, and consumed inside a transaction.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("""
+        SELECT new com.hcltech.leave.dto.LeaveExportRow(
+            l.id, e.id, e.name, e.email, e.department, l.leaveType, l.startDate, l.endDate,
+            l.numberOfDays, l.status, l.appliedDate, l.approvedBy)
+        FROM Leave l JOIN l.employee e
+        WHERE l.endDate >= :from AND l.startDate <= :to
+        ORDER BY l.endDate, l.id
+        """)
+    Stream<LeaveExportRow> streamForExport(LocalDate from, LocalDate to);
+}
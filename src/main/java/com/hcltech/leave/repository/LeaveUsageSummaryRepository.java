@@ -0,0 +1,46 @@
+package com.hcltech.leave.repository;
+
+import com.hcltech.leave.enums.LeaveType;
+import com.hcltech.leave.model.LeaveUsageSummary;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Summaries are changed by adding to them in place, so concurrent approvals in the same department
+ * and month never lose each other's days. A missing row is inserted first, see {@link #insertIfAbsent}.
+ */
+@Repository
+public interface LeaveUsageSummaryRepository extends JpaRepository<LeaveUsageSummary, LeaveUsageSummary.Key> {
+
+    /** Returns 0 when there is no row for the month, department and type yet. */
+    @Modifying(flushAutomatically = true)
+    @Query("""
+        UPDATE LeaveUsageSummary s
+        SET s.daysTaken = s.daysTaken + :days, s.leaveCount = s.leaveCount + :leaves
+        WHERE s.month = :month AND s.department = :department AND s.leaveType = :leaveType
+        """)
+    int addUsage(LocalDate month, String department, LeaveType leaveType, long days, long leaves);
+
+    /** Returns 0 when the row already exists, a concurrent approval having inserted it first. */
+    @Modifying
+    @Query(value = """
+        INSERT INTO leave_usage_summaries (usage_month, department, leave_type, days_taken, leave_count)
+        VALUES (:month, :department, :leaveType, :days, :leaves)
+        ON CONFLICT DO NOTHING
+        """, nativeQuery = true)
+    int insertIfAbsent(LocalDate month, String department, String leaveType, long days, long leaves);
+
+    @Query("""
+        SELECT s FROM LeaveUsageSummary s
+        WHERE s.month BETWEEN :from AND :to
+          AND (:department IS NULL OR s.department = :department)
+          AND (:leaveType IS NULL OR s.leaveType = :leaveType)
+        ORDER BY s.month, s.department, s.leaveType
+        """)
+    List<LeaveUsageSummary> findUsage(LocalDate from, LocalDate to, String department, LeaveType leaveType);
+}
@@ -0,0 +1,56 @@
+package com.hcltech.leave.repository;
+
+import com.hcltech.leave.model.OutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    /**
+     * Locks a batch of deliverable events. Rows locked by another node are skipped rather than
+     * waited on, so several nodes can drain the outbox concurrently. Must run in a transaction.
+     */
+    @Query(value = """
+        SELECT * FROM outbox_events
+        WHERE processed_at IS NULL
+          AND (claimed_at IS NULL OR claimed_at < :leaseExpiredBefore)
+          AND attempts < :maxAttempts
+        ORDER BY id
+        LIMIT :batchSize
+        FOR UPDATE SKIP LOCKED
+        """, nativeQuery = true)
+    List<OutboxEvent> lockNextBatch(Instant leaseExpiredBefore, int maxAttempts, int batchSize);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.processedAt = :processedAt WHERE e.id IN :ids")
+    int markProcessed(Collection<Long> ids, Instant processedAt);
+
+    /** Extends the lease of events this node is still delivering. */
+    @Transactional
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.claimedAt = :claimedAt WHERE e.id IN :ids AND e.processedAt IS NULL")
+    int renewClaims(Collection<Long> ids, Instant claimedAt);
+
+    /** Returns claimed events to the outbox without counting the claim as a delivery attempt. */
+    @Transactional
+    @Modifying
+    @Query("""
+        UPDATE OutboxEvent e SET e.claimedAt = NULL, e.attempts = e.attempts - 1
+        WHERE e.id IN :ids AND e.processedAt IS NULL
+        """)
+    int releaseClaims(Collection<Long> ids);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM OutboxEvent e WHERE e.processedAt < :processedBefore")
+    int deleteProcessedBefore(Instant processedBefore);
+}
@@ -0,0 +1,15 @@
+package com.hcltech.leave.repository;
+
+import com.hcltech.leave.model.TeamAbsenceDay;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface TeamAbsenceDayRepository extends JpaRepository<TeamAbsenceDay, Long> {
+    
+    List<TeamAbsenceDay> findByManagerIdAndAbsenceDateBetweenOrderByAbsenceDateAscEmployeeNameAsc(
+        Long managerId, LocalDate from, LocalDate to);
+}
@@ -0,0 +1,203 @@
+package com.hcltech.leave.service;
+
+import com.hcltech.leave.config.BalanceRolloverProperties;
+import com.hcltech.leave.config.LeaveEntitlementProperties;
+import com.hcltech.leave.dto.BalanceRolloverDTO;
+import com.hcltech.leave.enums.RolloverStatus;
+import com.hcltech.leave.exception.ResourceNotFoundException;
+import com.hcltech.leave.model.BalanceRollover;
+import com.hcltech.leave.model.BalanceRolloverPartition;
+import com.hcltech.leave.repository.BalanceRolloverPartitionRepository;
+import com.hcltech.leave.repository.BalanceRolloverRepository;
+import com.hcltech.leave.repository.EmployeeRepository;
+import com.hcltech.leave.repository.LeaveBalanceRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Rolls every leave balance of one year over to the next: sick and casual leave are reset to the
+ * yearly entitlement, earned leave is carried forward up to a cap and topped up.
+ *
+ * <p>The year's balance ids are split into {@link BalanceRolloverProperties#partitions()} ranges,
+ * rolled over concurrently. Each range is walked in chunks, one short transaction per chunk that
+ * updates the chunk with a single statement and advances the range's checkpoint. Only the chunk's
+ * rows are locked, and only until its commit, so leave requests keep working during the run. A run
+ * that stops part way, for whatever reason, carries on from the checkpoints when started again.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BalanceRolloverJob {
+    
+    private final LeaveBalanceRepository leaveBalanceRepository;
+    private final BalanceRolloverRepository balanceRolloverRepository;
+    private final BalanceRolloverPartitionRepository partitionRepository;
+    private final EmployeeRepository employeeRepository;
+    private final LeaveBalanceCache leaveBalanceCache;
+    private final TransactionTemplate transactionTemplate;
+    private final BalanceRolloverProperties properties;
+    private final LeaveEntitlementProperties entitlement;
+    
+    /** Rolls {@code fromYear} over, resuming an interrupted run. A completed run is returned as is. */
+    public BalanceRolloverDTO rollOver(int fromYear) {
+        BalanceRollover rollover = startOrResume(fromYear);
+        if (rollover.getStatus() == RolloverStatus.COMPLETED) {
+            return toDTO(rollover);
+        }
+        
+        List<BalanceRolloverPartition> pending = partitionRepository.findByRolloverIdOrderByPartitionNo(rollover.getId())
+            .stream()
+            .filter(partition -> !partition.isDone())
+            .toList();
+        log.info("Rolling over {} leave balances: {} partitions to go", fromYear, pending.size());
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, pending.size()),
+            new CustomizableThreadFactory("balance-rollover-"));
+        try {
+            List<CompletableFuture<Void>> partitions = new ArrayList<>(pending.size());
+            for (BalanceRolloverPartition partition : pending) {
+                partitions.add(CompletableFuture.runAsync(() -> rollOverPartition(fromYear, partition.getId()), executor));
+            }
+            CompletableFuture.allOf(partitions.toArray(CompletableFuture[]::new)).join();
+        } finally {
+            executor.shutdown();
+        }
+        
+        BalanceRollover completed = transactionTemplate.execute(status -> complete(rollover.getId()));
+        log.info("Rolled over {} leave balances from {} to {}: {} earned days carried forward, {} forfeited",
+            completed.getBalancesRolled(), fromYear, fromYear + 1,
+            completed.getEarnedCarriedForward(), completed.getEarnedForfeited());
+        return toDTO(completed);
+    }
+    
+    @Transactional(readOnly = true)
+    public BalanceRolloverDTO getRollover(int fromYear) {
+        return balanceRolloverRepository.findByFromYear(fromYear)
+            .map(this::toDTO)
+            .orElseThrow(() -> new ResourceNotFoundException("No balance rollover from year: " + fromYear));
+    }
+    
+    /** Finishes runs left incomplete by a crash or shutdown. */
+    public void resumeInterrupted() {
+        for (BalanceRollover rollover : balanceRolloverRepository.findByStatus(RolloverStatus.RUNNING)) {
+            log.warn("Resuming interrupted rollover of {} leave balances", rollover.getFromYear());
+            rollOver(rollover.getFromYear());
+        }
+    }
+    
+    private BalanceRollover startOrResume(int fromYear) {
+        try {
+            return transactionTemplate.execute(status -> balanceRolloverRepository.findByFromYear(fromYear)
+                .orElseGet(() -> start(fromYear)));
+        } catch (DataIntegrityViolationException ex) {
+            // Another node started the same run first; join it
+            return balanceRolloverRepository.findByFromYear(fromYear).orElseThrow(() -> ex);
+        }
+    }
+    
+    private BalanceRollover start(int fromYear) {
+        BalanceRollover rollover = balanceRolloverRepository.saveAndFlush(BalanceRollover.builder()
+            .fromYear(fromYear)
+            .status(RolloverStatus.RUNNING)
+            .startedAt(Instant.now().truncatedTo(ChronoUnit.MICROS))
+            .build());
+        
+        Long minId = leaveBalanceRepository.findMinIdByYear(fromYear);
+        if (minId == null) {
+            return rollover;
+        }
+        long endId = leaveBalanceRepository.findMaxIdByYear(fromYear) + 1;
+        long span = Math.max(1, (endId - minId + properties.partitions() - 1) / properties.partitions());
+        List<BalanceRolloverPartition> partitions = new ArrayList<>();
+        for (long from = minId; from < endId; from += span) {
+            partitions.add(BalanceRolloverPartition.builder()
+                .rolloverId(rollover.getId())
+                .partitionNo(partitions.size())
+                .nextId(from)
+                .endId(Math.min(from + span, endId))
+                .build());
+        }
+        partitionRepository.saveAll(partitions);
+        return rollover;
+    }
+    
+    private void rollOverPartition(int fromYear, Long partitionId) {
+        boolean done;
+        do {
+            done = transactionTemplate.execute(status -> rollOverChunk(fromYear, partitionId));
+        } while (!done);
+    }
+    
+    /** Rolls over the partition's next chunk and moves its checkpoint. Returns whether the partition is done. */
+    private boolean rollOverChunk(int fromYear, Long partitionId) {
+        BalanceRolloverPartition partition = partitionRepository.findForUpdateById(partitionId).orElseThrow();
+        if (partition.isDone()) {
+            return true;
+        }
+        long fromId = partition.getNextId();
+        long toId = Math.min(fromId + properties.chunkSize(), partition.getEndId());
+        
+        int cap = entitlement.maxEarnedCarryForward();
+        long carried = 0;
+        long forfeited = 0;
+        List<Integer> earned = leaveBalanceRepository.lockEarnedLeaveForRollover(fromYear, fromId, toId);
+        for (Integer days : earned) {
+            int unused = days == null ? 0 : days;
+            carried += Math.min(unused, cap);
+            forfeited += Math.max(unused - cap, 0);
+        }
+        int rolled = earned.isEmpty() ? 0 : leaveBalanceRepository.rollOver(fromYear, fromId, toId,
+            entitlement.sickLeave(), entitlement.casualLeave(), entitlement.earnedLeave(), cap);
+        if (rolled > 0) {
+            // Per employee, so each eviction waits for a load in flight; again after the commit, so
+            // a balance read before it is not cached with the old year
+            leaveBalanceCache.evictAfterCommit(employeeRepository.findIdsByLeaveBalanceIdRange(fromId, toId));
+        }
+        
+        partition.setNextId(toId);
+        partition.setBalancesRolled(partition.getBalancesRolled() + rolled);
+        partition.setEarnedCarriedForward(partition.getEarnedCarriedForward() + carried);
+        partition.setEarnedForfeited(partition.getEarnedForfeited() + forfeited);
+        return partition.isDone();
+    }
+    
+    private BalanceRollover complete(Long rolloverId) {
+        BalanceRollover rollover = balanceRolloverRepository.findById(rolloverId).orElseThrow();
+        if (rollover.getStatus() == RolloverStatus.COMPLETED) {
+            return rollover;
+        }
+        List<BalanceRolloverPartition> partitions = partitionRepository.findByRolloverIdOrderByPartitionNo(rolloverId);
+        rollover.setBalancesRolled(partitions.stream().mapToLong(BalanceRolloverPartition::getBalancesRolled).sum());
+        rollover.setEarnedCarriedForward(
+            partitions.stream().mapToLong(BalanceRolloverPartition::getEarnedCarriedForward).sum());
+        rollover.setEarnedForfeited(partitions.stream().mapToLong(BalanceRolloverPartition::getEarnedForfeited).sum());
+        rollover.setStatus(RolloverStatus.COMPLETED);
+        rollover.setFinishedAt(Instant.now().truncatedTo(ChronoUnit.MICROS));
+        return rollover;
+    }
+    
+    private BalanceRolloverDTO toDTO(BalanceRollover rollover) {
+        return BalanceRolloverDTO.builder()
+            .fromYear(rollover.getFromYear())
+            .toYear(rollover.getFromYear() + 1)
+            .status(rollover.getStatus())
+            .startedAt(rollover.getStartedAt())
+            .finishedAt(rollover.getFinishedAt())
+            .balancesRolled(rollover.getBalancesRolled())
+            .earnedCarriedForward(rollover.getEarnedCarriedForward())
+            .earnedForfeited(rollover.getEarnedForfeited())
+            .build();
+    }
+}
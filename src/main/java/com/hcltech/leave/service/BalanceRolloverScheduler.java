@@ -0,0 +1,32 @@
+package com.hcltech.leave.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Year;
+
+/**
+ * Starts the year-end rollover of the year just ended, and on startup finishes a rollover that a
+ * crash or shutdown interrupted. Only runs on nodes with background jobs enabled.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "leave.scheduling", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class BalanceRolloverScheduler {
+    
+    private final BalanceRolloverJob balanceRolloverJob;
+    
+    @Scheduled(cron = "${leave.rollover.cron:0 5 0 1 1 *}")
+    public void rollOverPreviousYear() {
+        balanceRolloverJob.rollOver(Year.now().getValue() - 1);
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeInterrupted() {
+        balanceRolloverJob.resumeInterrupted();
+    }
+}
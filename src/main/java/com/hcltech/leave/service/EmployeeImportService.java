@@ -0,0 +1,328 @@
+package com.hcltech.leave.service;
+
+import com.hcltech.leave.config.EmployeeImportProperties;
+import com.hcltech.leave.config.LeaveEntitlementProperties;
+import com.hcltech.leave.dto.EmployeeImportErrorDTO;
+import com.hcltech.leave.dto.EmployeeImportResultDTO;
+import com.hcltech.leave.exception.InvalidImportFileException;
+import com.hcltech.leave.model.Employee;
+import com.hcltech.leave.model.LeaveBalance;
+import com.hcltech.leave.repository.EmployeeRepository;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.Year;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.regex.Pattern;
+
+/**
+ * Creates employees and their opening balances from CSV. The file is read in chunks of
+ * {@link EmployeeImportProperties#chunkSize()} rows; chunks are parsed and validated in parallel
+ * while earlier chunks are inserted, each in its own transaction. Ids come from pooled sequences,
+ * so the inserts go out as JDBC batches. Bad rows are reported by line number and skipped; the
+ * rest of the file is still imported.
+ */
+@Service
+@Slf4j
+public class EmployeeImportService {
+    
+    static final String CSV_HEADER = "name,email,department,manager_id,sick_leave,casual_leave,earned_leave";
+    
+    private static final int COLUMNS = 7;
+    private static final int MAX_TEXT_LENGTH = 255;
+    private static final Pattern EMAIL = Pattern.compile("[^@\\s]+@[^@\\s]+\\.[^@\\s]+");
+    private static final String PARSER_THREAD_PREFIX = "employee-import-";
+    
+    private final EmployeeRepository employeeRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final EmployeeImportProperties properties;
+    private final LeaveEntitlementProperties entitlement;
+    // Shared by concurrent imports; each keeps at most parallelism chunks in flight
+    private final ExecutorService parsers;
+    
+    public EmployeeImportService(EmployeeRepository employeeRepository, EntityManager entityManager,
+                                 TransactionTemplate transactionTemplate, EmployeeImportProperties properties,
+                                 LeaveEntitlementProperties entitlement) {
+        this.employeeRepository = employeeRepository;
+        this.entityManager = entityManager;
+        this.transactionTemplate = transactionTemplate;
+        this.properties = properties;
+        this.entitlement = entitlement;
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory(PARSER_THREAD_PREFIX);
+        threadFactory.setDaemon(true);
+        this.parsers = Executors.newFixedThreadPool(properties.parallelism(), threadFactory);
+    }
+    
+    public EmployeeImportResultDTO importCsv(InputStream csv) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(csv, StandardCharsets.UTF_8));
+        String header = reader.readLine();
+        if (header == null || !CSV_HEADER.equalsIgnoreCase(stripBom(header).strip())) {
+            throw new InvalidImportFileException("CSV header must be: " + CSV_HEADER);
+        }
+        
+        ImportProgress progress = new ImportProgress(properties.maxReportedErrors());
+        int year = Year.now().getValue();
+        Deque<CompletableFuture<List<ParsedRow>>> validating = new ArrayDeque<>();
+        List<NumberedLine> chunk = new ArrayList<>(properties.chunkSize());
+        long lineNumber = 1;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            chunk.add(new NumberedLine(lineNumber, line));
+            if (chunk.size() == properties.chunkSize()) {
+                List<NumberedLine> lines = chunk;
+                validating.add(CompletableFuture.supplyAsync(() -> parseChunk(lines, year, entitlement), parsers));
+                chunk = new ArrayList<>(properties.chunkSize());
+                // Bounds memory to parallelism + 1 chunks however large the file is
+                if (validating.size() > properties.parallelism()) {
+                    insertChunk(validating.poll().join(), progress);
+                }
+            }
+        }
+        if (!chunk.isEmpty()) {
+            List<NumberedLine> lines = chunk;
+            validating.add(CompletableFuture.supplyAsync(() -> parseChunk(lines, year, entitlement), parsers));
+        }
+        while (!validating.isEmpty()) {
+            insertChunk(validating.poll().join(), progress);
+        }
+        
+        log.info("Employee import finished: {} rows, {} imported, {} failed",
+            progress.totalRows, progress.imported, progress.failed);
+        return progress.toResult();
+    }
+    
+    @PreDestroy
+    void shutdown() {
+        parsers.shutdownNow();
+    }
+    
+    private void insertChunk(List<ParsedRow> rows, ImportProgress progress) {
+        List<ParsedRow> valid = new ArrayList<>(rows.size());
+        for (ParsedRow row : rows) {
+            progress.totalRows++;
+            if (row.error() != null) {
+                progress.reject(row, row.error());
+            } else {
+                Long firstLine = progress.seenEmails.putIfAbsent(row.email(), row.line());
+                if (firstLine != null) {
+                    progress.reject(row, "Duplicate email, first used on line " + firstLine);
+                } else {
+                    valid.add(row);
+                }
+            }
+        }
+        
+        if (!valid.isEmpty()) {
+            try {
+                Set<String> existing = transactionTemplate.execute(status -> insert(valid));
+                for (ParsedRow row : valid) {
+                    if (existing.contains(row.email())) {
+                        progress.reject(row, "Employee with this email already exists");
+                    } else {
+                        progress.imported++;
+                    }
+                }
+            } catch (DataIntegrityViolationException ex) {
+                // Another writer created one of the emails since the existence check
+                log.warn("Employee import chunk failed: {}", ex.getMostSpecificCause().getMessage());
+                valid.forEach(row -> progress.reject(row, "Chunk rejected by the database, please retry"));
+            }
+        }
+        log.info("Employee import progress: {} rows read, {} imported, {} failed",
+            progress.totalRows, progress.imported, progress.failed);
+    }
+    
+    /** Inserts the rows whose email is not taken yet and returns the emails that were. */
+    private Set<String> insert(List<ParsedRow> rows) {
+        Set<String> existing = new HashSet<>(employeeRepository.findExistingEmails(
+            rows.stream().map(ParsedRow::email).toList()));
+        employeeRepository.saveAll(rows.stream()
+            .filter(row -> !existing.contains(row.email()))
+            .map(ParsedRow::employee)
+            .toList());
+        employeeRepository.flush();
+        // The inserted entities are not needed again; without this a large import would keep them
+        // all in the persistence context
+        entityManager.clear();
+        return existing;
+    }
+    
+    static List<ParsedRow> parseChunk(List<NumberedLine> lines, int year, LeaveEntitlementProperties entitlement) {
+        List<ParsedRow> rows = new ArrayList<>(lines.size());
+        for (NumberedLine line : lines) {
+            rows.add(parse(line, year, entitlement));
+        }
+        return rows;
+    }
+    
+    static ParsedRow parse(NumberedLine line, int year, LeaveEntitlementProperties entitlement) {
+        List<String> fields = splitCsv(line.text());
+        String email = fields.size() > 1 ? fields.get(1) : null;
+        if (fields.size() != COLUMNS) {
+            return ParsedRow.invalid(line.number(), email, "Expected " + COLUMNS + " columns but found " + fields.size());
+        }
+        try {
+            Employee employee = Employee.builder()
+                .name(requireText(fields.get(0), "name"))
+                .email(requireEmail(email))
+                .department(requireText(fields.get(2), "department"))
+                .managerId(optionalId(fields.get(3)))
+                .leaveBalance(LeaveBalance.builder()
+                    .sickLeave(optionalDays(fields.get(4), "sick_leave", entitlement.sickLeave()))
+                    .casualLeave(optionalDays(fields.get(5), "casual_leave", entitlement.casualLeave()))
+                    .earnedLeave(optionalDays(fields.get(6), "earned_leave", entitlement.earnedLeave()))
+                    .year(year)
+                    .build())
+                .build();
+            return new ParsedRow(line.number(), employee.getEmail(), employee, null);
+        } catch (IllegalArgumentException ex) {
+            return ParsedRow.invalid(line.number(), email, ex.getMessage());
+        }
+    }
+    
+    /** Splits one RFC 4180 line. Quoted fields may hold commas and doubled quotes, not line breaks. */
+    static List<String> splitCsv(String line) {
+        List<String> fields = new ArrayList<>(COLUMNS);
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString().strip());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString().strip());
+        return fields;
+    }
+    
+    private static String requireText(String value, String column) {
+        if (value.isEmpty()) {
+            throw new IllegalArgumentException(column + " is required");
+        }
+        if (value.length() > MAX_TEXT_LENGTH) {
+            throw new IllegalArgumentException(column + " is longer than " + MAX_TEXT_LENGTH + " characters");
+        }
+        return value;
+    }
+    
+    private static String requireEmail(String value) {
+        String email = requireText(value, "email");
+        if (!EMAIL.matcher(email).matches()) {
+            throw new IllegalArgumentException("email is not a valid address");
+        }
+        return email;
+    }
+    
+    private static Long optionalId(String value) {
+        if (value.isEmpty()) {
+            return null;
+        }
+        try {
+            long id = Long.parseLong(value);
+            if (id > 0) {
+                return id;
+            }
+        } catch (NumberFormatException ignored) {
+            // Reported below
+        }
+        throw new IllegalArgumentException("manager_id must be a positive number");
+    }
+    
+    private static int optionalDays(String value, String column, int defaultDays) {
+        if (value.isEmpty()) {
+            return defaultDays;
+        }
+        try {
+            int days = Integer.parseInt(value);
+            if (days >= 0) {
+                return days;
+            }
+        } catch (NumberFormatException ignored) {
+            // Reported below
+        }
+        throw new IllegalArgumentException(column + " must be zero or a positive number");
+    }
+    
+    private static String stripBom(String header) {
+        return header.startsWith("\uFEFF") ? header.substring(1) : header;
+    }
+    
+    record NumberedLine(long number, String text) {
+    }
+    
+    record ParsedRow(long line, String email, Employee employee, String error) {
+        
+        static ParsedRow invalid(long line, String email, String error) {
+            return new ParsedRow(line, email, null, error);
+        }
+    }
+    
+    /** Running totals, only touched by the thread doing the inserts. */
+    private static final class ImportProgress {
+        
+        private final int maxReportedErrors;
+        private final Map<String, Long> seenEmails = new HashMap<>();
+        private final List<EmployeeImportErrorDTO> errors = new ArrayList<>();
+        private long totalRows;
+        private long imported;
+        private long failed;
+        
+        ImportProgress(int maxReportedErrors) {
+            this.maxReportedErrors = maxReportedErrors;
+        }
+        
+        void reject(ParsedRow row, String message) {
+            failed++;
+            if (errors.size() < maxReportedErrors) {
+                errors.add(EmployeeImportErrorDTO.builder()
+                    .line(row.line())
+                    .email(row.email())
+                    .message(message)
+                    .build());
+            }
+        }
+        
+        EmployeeImportResultDTO toResult() {
+            errors.sort(Comparator.comparingLong(EmployeeImportErrorDTO::getLine));
+            return EmployeeImportResultDTO.builder()
+                .totalRows(totalRows)
+                .imported(imported)
+                .failed(failed)
+                .errors(errors)
+                .errorsTruncated(failed > errors.size())
+                .build();
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package com.hcltech.leave.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.hcltech.leave.config.IdempotencyProperties;
+import com.hcltech.leave.enums.IdempotencyStatus;
+import com.hcltech.leave.exception.IdempotencyConflictException;
+import com.hcltech.leave.model.IdempotencyRecord;
+import com.hcltech.leave.repository.IdempotencyRecordRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+/**
+ * Runs a request at most once per {@code Idempotency-Key}: retries get the first response back
+ * without running it again. Responses are kept in a bounded in-memory store that expires them
+ * after {@link IdempotencyProperties#ttl()}. A duplicate arriving while the first is still running
+ * on this node waits for it and shares its outcome. With the database fallback on, keys are also
+ * claimed in {@code idempotency_records}, so a retry reaching another node is replayed too, or
+ * refused while the first is still running there.
+ *
+ * <p>Only successful responses are kept. A request that fails leaves nothing behind and may be
+ * retried with the same key. Once the action has succeeded its claim is never released, even if
+ * its response cannot be recorded, as a retry would then run it a second time.
+ */
+@Service
+@Slf4j
+public class IdempotencyService {
+    
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private final ObjectMapper objectMapper;
+    private final IdempotencyProperties properties;
+    private final Cache<String, CompletableFuture<StoredResponse>> responses;
+    
+    public IdempotencyService(IdempotencyRecordRepository idempotencyRecordRepository, ObjectMapper objectMapper,
+                              IdempotencyProperties properties) {
+        this.idempotencyRecordRepository = idempotencyRecordRepository;
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+        this.responses = Caffeine.newBuilder()
+            .maximumSize(properties.maxEntries())
+            .expireAfterWrite(properties.ttl())
+            .build();
+    }
+    
+    /**
+     * Runs {@code action} for the first request with this key in {@code operation} and replays its
+     * response for every later one. Without a key, {@code action} simply runs.
+     */
+    public <T> ResponseEntity<T> execute(String operation, String key, Object request, Class<T> responseType,
+                                         Supplier<ResponseEntity<T>> action) {
+        if (key == null || key.isBlank()) {
+            return action.get();
+        }
+        String id = sha256(operation + ':' + key);
+        String requestHash = sha256(toJson(request));
+        
+        CompletableFuture<StoredResponse> mine = new CompletableFuture<>();
+        CompletableFuture<StoredResponse> first = responses.asMap().putIfAbsent(id, mine);
+        if (first != null) {
+            return replay(await(first), requestHash, responseType);
+        }
+        
+        boolean claimed = false;
+        ResponseEntity<T> response;
+        try {
+            if (properties.databaseFallback()) {
+                Optional<StoredResponse> elsewhere = claimOrFindCompleted(id, requestHash);
+                if (elsewhere.isPresent()) {
+                    mine.complete(elsewhere.get());
+                    return replay(elsewhere.get(), requestHash, responseType);
+                }
+                claimed = true;
+            }
+            response = action.get();
+        } catch (RuntimeException ex) {
+            responses.asMap().remove(id, mine);
+            mine.completeExceptionally(ex);
+            if (claimed) {
+                idempotencyRecordRepository.release(id);
+            }
+            throw ex;
+        }
+        
+        // The action has committed: whatever happens next, the caller gets its response
+        StoredResponse stored = new StoredResponse(requestHash, response.getStatusCode().value(),
+            toJson(response.getBody()));
+        mine.complete(stored);
+        if (claimed) {
+            complete(id, stored);
+        }
+        return response;
+    }
+    
+    @Scheduled(cron = "${leave.idempotency.cleanup-cron:0 30 3 * * *}")
+    public void purgeExpired() {
+        int deleted = idempotencyRecordRepository.deleteExpired(Instant.now());
+        log.info("Purged {} expired idempotency records", deleted);
+    }
+    
+    private void complete(String id, StoredResponse stored) {
+        try {
+            idempotencyRecordRepository.complete(id, stored.status(), stored.body());
+        } catch (RuntimeException ex) {
+            // The claim stays in progress until it expires: retries reaching another node are
+            // refused meanwhile, rather than run again
+            log.warn("Could not record the response for idempotency record {}", id, ex);
+        }
+    }
+    
+    /** Claims the key, or returns the response another node already recorded for it. */
+    private Optional<StoredResponse> claimOrFindCompleted(String id, String requestHash) {
+        Instant now = Instant.now();
+        idempotencyRecordRepository.deleteIfExpired(id, now);
+        if (idempotencyRecordRepository.claim(id, requestHash, now, now.plus(properties.ttl())) == 1) {
+            return Optional.empty();
+        }
+        IdempotencyRecord existing = idempotencyRecordRepository.findById(id)
+            .orElseThrow(() -> new IdempotencyConflictException(
+                "A request with this Idempotency-Key has just failed, please retry"));
+        if (existing.getStatus() != IdempotencyStatus.COMPLETED) {
+            throw new IdempotencyConflictException("A request with this Idempotency-Key is still being processed");
+        }
+        return Optional.of(new StoredResponse(existing.getRequestHash(), existing.getResponseStatus(),
+            existing.getResponseBody()));
+    }
+    
+    private static StoredResponse await(CompletableFuture<StoredResponse> first) {
+        try {
+            return first.join();
+        } catch (CompletionException ex) {
+            // The duplicate fails the same way the request it waited for did
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+    }
+    
+    private <T> ResponseEntity<T> replay(StoredResponse stored, String requestHash, Class<T> responseType) {
+        if (!stored.requestHash().equals(requestHash)) {
+            throw new IdempotencyConflictException("Idempotency-Key was already used for a different request");
+        }
+        try {
+            return ResponseEntity.status(stored.status())
+                .header(REPLAYED_HEADER, "true")
+                .body(objectMapper.readValue(stored.body(), responseType));
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Stored response cannot be read", ex);
+        }
+    }
+    
+    private String toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalArgumentException("Cannot serialize " + value.getClass().getSimpleName(), ex);
+        }
+    }
+    
+    private static String sha256(String value) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is not available", ex);
+        }
+    }
+    
+    private record StoredResponse(String requestHash, int status, String body) {
+    }
+}
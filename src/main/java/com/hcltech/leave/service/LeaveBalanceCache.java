@@ -0,0 +1,107 @@
+package com.hcltech.leave.service;
+
+import com.hcltech.leave.model.LeaveBalance;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * Read-through cache of per-employee {@link LeaveBalance} snapshots, keyed by employee id.
+ * Entries are detached copies, so callers can never mutate what other requests read. They keep
+ * the balance's version, which the balance endpoint serves as its ETag.
+ * Size, TTL and statistics recording come from {@code spring.cache.caffeine.spec}.
+ */
+@Component
+@RequiredArgsConstructor
+public class LeaveBalanceCache {
+    
+    public static final String CACHE_NAME = "leaveBalances";
+    
+    private final CacheManager cacheManager;
+    
+    public LeaveBalance get(Long employeeId, Supplier<LeaveBalance> loader) {
+        try {
+            // Loaded atomically: an eviction waits for a load in flight and then removes what it
+            // read, so a balance read before a write commits cannot be cached after its eviction
+            return copyOf(cache().get(employeeId, () -> copyOf(loader.get())));
+        } catch (Cache.ValueRetrievalException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+    }
+    
+    /** Whether the employee's balance is cached. Not counted as a get in the cache statistics. */
+    public boolean contains(Long employeeId) {
+        Cache cache = cache();
+        if (cache instanceof CaffeineCache caffeineCache) {
+            return caffeineCache.getNativeCache().asMap().containsKey(employeeId);
+        }
+        return cache.get(employeeId) != null;
+    }
+    
+    /**
+     * Evicts the employee's entry now and again once the surrounding transaction completes,
+     * so a concurrent reader cannot re-populate the cache with the pre-commit balance.
+     */
+    public void evictAfterCommit(Long employeeId) {
+        Cache cache = cache();
+        cache.evict(employeeId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    cache.evict(employeeId);
+                }
+            });
+        }
+    }
+    
+    /** {@link #evictAfterCommit(Long)} for several employees, with one synchronization for all of them. */
+    public void evictAfterCommit(Collection<Long> employeeIds) {
+        if (employeeIds.isEmpty()) {
+            return;
+        }
+        Cache cache = cache();
+        List<Long> ids = List.copyOf(employeeIds);
+        ids.forEach(cache::evict);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    ids.forEach(cache::evict);
+                }
+            });
+        }
+    }
+    
+    /** Evicts every entry, for changes that touch many balances at once. */
+    public void evictAll() {
+        cache().clear();
+    }
+    
+    private Cache cache() {
+        return Objects.requireNonNull(cacheManager.getCache(CACHE_NAME), "Cache not configured: " + CACHE_NAME);
+    }
+    
+    private static LeaveBalance copyOf(LeaveBalance balance) {
+        return LeaveBalance.builder()
+            .id(balance.getId())
+            .sickLeave(balance.getSickLeave())
+            .casualLeave(balance.getCasualLeave())
+            .earnedLeave(balance.getEarnedLeave())
+            .year(balance.getYear())
+            .version(balance.getVersion())
+            .build();
+    }
+}
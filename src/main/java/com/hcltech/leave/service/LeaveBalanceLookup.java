@@ -0,0 +1,74 @@
+package com.hcltech.leave.service;
+
+import com.hcltech.leave.config.BalanceLookupProperties;
+import com.hcltech.leave.model.LeaveBalance;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.MDC;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.*;
+
+/**
+ * Leave balance lookups for the balance endpoint. With {@code leave.balance-lookup.non-blocking}
+ * (the {@code non-blocking} profile), a lookup answered by the balance cache completes at once and
+ * one that misses it reads the database on a small pool of loader threads, so the request thread
+ * goes back to the container instead of waiting for a connection. Otherwise lookups run on the
+ * request thread, as every other endpoint does.
+ */
+@Component
+public class LeaveBalanceLookup {
+    
+    private static final String LOADER_THREAD_PREFIX = "balance-loader-";
+    
+    private final LeaveService leaveService;
+    private final LeaveBalanceCache leaveBalanceCache;
+    private final boolean nonBlocking;
+    // Fixed size: each loader holds a connection while it reads, more would only queue in the pool
+    private final ThreadPoolExecutor loaders;
+    
+    public LeaveBalanceLookup(LeaveService leaveService, LeaveBalanceCache leaveBalanceCache,
+                              BalanceLookupProperties properties) {
+        this.leaveService = leaveService;
+        this.leaveBalanceCache = leaveBalanceCache;
+        this.nonBlocking = properties.nonBlocking();
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory(LOADER_THREAD_PREFIX);
+        threadFactory.setDaemon(true);
+        this.loaders = new ThreadPoolExecutor(properties.loaderThreads(), properties.loaderThreads(),
+            0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(properties.queueCapacity()), threadFactory);
+    }
+    
+    /**
+     * Completes with the employee's balance, or exceptionally with the service's exception.
+     * Throws {@link RejectedExecutionException} when too many lookups are already waiting for a
+     * loader thread.
+     */
+    public CompletableFuture<LeaveBalance> lookup(Long employeeId) {
+        if (!nonBlocking) {
+            return CompletableFuture.completedFuture(leaveService.getLeaveBalance(employeeId));
+        }
+        if (leaveBalanceCache.contains(employeeId)) {
+            // Answered from the cache without blocking, but still through the service so the
+            // call is timed like any other
+            return CompletableFuture.completedFuture(leaveService.getLeaveBalance(employeeId));
+        }
+        Map<String, String> logContext = MDC.getCopyOfContextMap();
+        return CompletableFuture.supplyAsync(() -> {
+            // Log events of the lookup keep the request's correlation id
+            if (logContext != null) {
+                MDC.setContextMap(logContext);
+            }
+            try {
+                return leaveService.getLeaveBalance(employeeId);
+            } finally {
+                MDC.clear();
+            }
+        }, loaders);
+    }
+    
+    @PreDestroy
+    void shutdown() {
+        loaders.shutdownNow();
+    }
+}
@@ -0,0 +1,90 @@
+package com.hcltech.leave.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.hcltech.leave.dto.LeaveExportRow;
+import com.hcltech.leave.enums.ExportFormat;
+import com.hcltech.leave.exception.InvalidDateException;
+import com.hcltech.leave.repository.LeaveRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+/**
+ * Writes leaves straight from a database cursor to an output stream, one row at a time, so
+ * memory use does not depend on the size of the export.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class LeaveExportService {
+    
+    static final String CSV_HEADER = "id,employee_id,employee_name,employee_email,department,leave_type,"
+        + "start_date,end_date,number_of_days,status,applied_date,approved_by";
+    
+    private final LeaveRepository leaveRepository;
+    private final ObjectMapper objectMapper;
+    
+    public void validateRange(LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            throw new InvalidDateException("Export start date cannot be after end date");
+        }
+    }
+    
+    /** Writes every leave overlapping {@code from} to {@code to}, both inclusive. Does not close {@code out}. */
+    @Transactional(readOnly = true)
+    public long export(LocalDate from, LocalDate to, ExportFormat format, OutputStream out) throws IOException {
+        validateRange(from, to);
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        ObjectWriter jsonWriter = objectMapper.writerFor(LeaveExportRow.class);
+        if (format == ExportFormat.CSV) {
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+        }
+        
+        long rows = 0;
+        try (Stream<LeaveExportRow> leaves = leaveRepository.streamForExport(from, to)) {
+            for (LeaveExportRow row : (Iterable<LeaveExportRow>) leaves::iterator) {
+                writer.write(format == ExportFormat.CSV ? toCsv(row) : jsonWriter.writeValueAsString(row));
+                writer.write('\n');
+                rows++;
+            }
+        }
+        writer.flush();
+        
+        log.info("Exported {} leaves from {} to {} as {}", rows, from, to, format);
+        return rows;
+    }
+    
+    static String toCsv(LeaveExportRow row) {
+        return String.join(",",
+            csv(row.getId()),
+            csv(row.getEmployeeId()),
+            csv(row.getEmployeeName()),
+            csv(row.getEmployeeEmail()),
+            csv(row.getDepartment()),
+            csv(row.getLeaveType()),
+            csv(row.getStartDate()),
+            csv(row.getEndDate()),
+            csv(row.getNumberOfDays()),
+            csv(row.getStatus()),
+            csv(row.getAppliedDate()),
+            csv(row.getApprovedBy()));
+    }
+    
+    /** RFC 4180: fields holding a comma, quote or line break are quoted, with quotes doubled. */
+    private static String csv(Object value) {
+        String text = Objects.toString(value, "");
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            return text;
+        }
+        return '"' + text.replace("\"", "\"\"") + '"';
+    }
+}
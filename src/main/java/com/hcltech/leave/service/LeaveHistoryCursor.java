@@ -0,0 +1,38 @@
+package com.hcltech.leave.service;
+
+import com.hcltech.leave.exception.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Opaque keyset position in a leave history listing ordered by
+ * {@code (appliedDate DESC, id DESC)}. The next page starts strictly after this position.
+ */
+record LeaveHistoryCursor(LocalDate appliedDate, Long id) {
+
+    /** Position before the newest possible row, used when the client sends no cursor. */
+    static final LeaveHistoryCursor FIRST = new LeaveHistoryCursor(LocalDate.of(9999, 12, 31), Long.MAX_VALUE);
+
+    String encode() {
+        String raw = appliedDate + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static LeaveHistoryCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return FIRST;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(':');
+            return new LeaveHistoryCursor(
+                LocalDate.parse(raw.substring(0, separator)),
+                Long.parseLong(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException ex) {
+            throw new InvalidCursorException("Invalid page cursor");
+        }
+    }
+}
@@ -2,13 +2,21 @@ package com.hcltech.leave.service;
 
 import com.hcltech.leave.dto.*;
 import com.hcltech.leave.model.LeaveBalance;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
 
 public interface LeaveService {
     LeaveResponseDTO applyLeave(LeaveRequestDTO requestDTO);
     LeaveResponseDTO approveOrRejectLeave(LeaveApprovalDTO approvalDTO);
+    List<LeaveApprovalResultDTO> approveOrRejectLeaves(List<LeaveApprovalDTO> approvalDTOs);
     LeaveResponseDTO cancelLeave(Long leaveId, Long employeeId);
-    List<LeaveResponseDTO> getEmployeeLeaves(Long employeeId);
-    List<LeaveResponseDTO> getTeamLeaves(Long managerId);
+    LeaveHistoryPageDTO getEmployeeLeaves(Long employeeId, LeaveHistoryQuery query);
+    LeaveHistoryPageDTO getTeamLeaves(Long managerId, LeaveHistoryQuery query);
+    Optional<Long> getEmployeeLeavesVersion(Long employeeId);
+    String getTeamLeavesVersion(Long managerId);
+    List<LeaveResponseDTO> getPendingApprovals(Long managerId);
+    PendingApprovalCountDTO countPendingApprovals(Long managerId);
     LeaveBalance getLeaveBalance(Long employeeId);
+    List<TeamCalendarDayDTO> getTeamCalendar(Long managerId, LocalDate from, LocalDate to);
 }
\ No newline at end of file
@@ -6,14 +6,26 @@ import com.hcltech.leave.enums.LeaveType;
 import com.hcltech.leave.exception.*;
 import com.hcltech.leave.model.*;
 import com.hcltech.leave.repository.*;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.SQLException;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.time.temporal.ChronoUnit;
-import java.util.List;
+import java.util.*;
+import java.util.function.Function;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 @Service
@@ -23,25 +35,78 @@ public class LeaveServiceImpl implements LeaveService {
     
     private final LeaveRepository leaveRepository;
     private final EmployeeRepository employeeRepository;
-    private final NotificationService notificationService;
+    private final LeaveBalanceRepository leaveBalanceRepository;
+    private final OutboxEventRepository outboxEventRepository;
+    private final LeaveBalanceCache leaveBalanceCache;
+    private final WorkingDayCalendar workingDayCalendar;
+    private final TeamAbsenceCalendar teamAbsenceCalendar;
+    private final PendingApprovalIndex pendingApprovalIndex;
+    private final LeaveUsageService leaveUsageService;
+    private final ReadYourWrites readYourWrites;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    
+    static final int MAX_BULK_APPROVALS = 200;
+    // Calendar days; also bounds the per-year calendars a single request makes WorkingDayCalendar build
+    static final int MAX_LEAVE_DAYS = 366;
+    static final int MAX_CALENDAR_DAYS = 92;
+    
+    /** Leaves that block another leave over the same days. */
+    private static final Set<LeaveStatus> ACTIVE_STATUSES = EnumSet.of(LeaveStatus.PENDING, LeaveStatus.APPROVED);
+    
+    /** SQLState of an exclusion constraint violation; on PostgreSQL, leaves_no_active_overlap. */
+    private static final String EXCLUSION_VIOLATION = "23P01";
     
     @Override
-    @Transactional
     public LeaveResponseDTO applyLeave(LeaveRequestDTO requestDTO) {
         log.info("Processing leave request for employee: {}", requestDTO.getEmployeeId());
         
-        // Validate employee
-        Employee employee = employeeRepository.findById(requestDTO.getEmployeeId())
+        // Checked before the transaction, so a request rejected here never takes a connection
+        validateDates(requestDTO.getStartDate(), requestDTO.getEndDate());
+        LeaveResponseDTO response;
+        try {
+            response = transactionTemplate.execute(status -> createLeave(requestDTO));
+        } catch (DataIntegrityViolationException ex) {
+            // The database constraint behind the overlap check, raised at insert or commit
+            if (isExclusionViolation(ex)) {
+                throw new OverlappingLeaveException("Leave overlaps an existing pending or approved leave");
+            }
+            throw ex;
+        }
+        
+        log.info("Leave request created with ID: {}", response.getId());
+        return response;
+    }
+    
+    private static boolean isExclusionViolation(Throwable ex) {
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException sqlException && EXCLUSION_VIOLATION.equals(sqlException.getSQLState())) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    private LeaveResponseDTO createLeave(LeaveRequestDTO requestDTO) {
+        // Validate employee. The row lock serialises this employee's requests until commit,
+        // so two overlapping requests cannot both pass the overlap check.
+        Employee employee = employeeRepository.findForUpdateById(requestDTO.getEmployeeId())
             .orElseThrow(() -> new ResourceNotFoundException("Employee not found"));
         
-        // Validate dates
-        validateDates(requestDTO.getStartDate(), requestDTO.getEndDate());
+        if (leaveRepository.existsOverlapping(employee.getId(), ACTIVE_STATUSES,
+                requestDTO.getStartDate(), requestDTO.getEndDate())) {
+            throw new OverlappingLeaveException("Leave overlaps an existing pending or approved leave");
+        }
         
-        // Calculate days
-        int numberOfDays = calculateLeaveDays(requestDTO.getStartDate(), requestDTO.getEndDate());
+        // Calculate working days
+        int numberOfDays = calculateLeaveDays(employee.getDepartment(), requestDTO.getStartDate(), requestDTO.getEndDate());
+        if (numberOfDays == 0) {
+            throw new InvalidDateException("Leave period contains no working days");
+        }
         
-        // Check leave balance
-        validateLeaveBalance(employee.getLeaveBalance(), requestDTO.getLeaveType(), numberOfDays);
+        // Check leave balance. Advisory only: the approval deducts with a conditional update
+        LeaveBalance balance = leaveBalanceCache.get(employee.getId(), employee::getLeaveBalance);
+        validateLeaveBalance(balance, requestDTO.getLeaveType(), numberOfDays);
         
         // Create leave request
         Leave leave = Leave.builder()
@@ -56,39 +121,138 @@ public class LeaveServiceImpl implements LeaveService {
             .build();
         
         Leave savedLeave = leaveRepository.save(leave);
-        log.info("Leave request created with ID: {}", savedLeave.getId());
-        
-        return mapToResponseDTO(savedLeave);
+        employeeRepository.incrementLeavesVersion(List.of(employee.getId()));
+        readYourWrites.pinAfterCommit(employee);
+        // Mapped here because the pending index needs it at commit; the caller gets the same one
+        LeaveResponseDTO response = mapToResponseDTO(savedLeave);
+        pendingApprovalIndex.addAfterCommit(employee.getManagerId(), response);
+        return response;
     }
     
     @Override
-    @Transactional
     public LeaveResponseDTO approveOrRejectLeave(LeaveApprovalDTO approvalDTO) {
         log.info("Processing leave approval/rejection: {}", approvalDTO.getLeaveId());
         
-        Leave leave = leaveRepository.findById(approvalDTO.getLeaveId())
+        Leave updatedLeave = transactionTemplate.execute(status -> decideLeave(approvalDTO));
+        
+        log.info("Leave {} successfully", approvalDTO.getStatus());
+        return mapToResponseDTO(updatedLeave);
+    }
+    
+    private Leave decideLeave(LeaveApprovalDTO approvalDTO) {
+        Leave leave = leaveRepository.findWithEmployeeById(approvalDTO.getLeaveId())
             .orElseThrow(() -> new ResourceNotFoundException("Leave request not found"));
         
         if (leave.getStatus() != LeaveStatus.PENDING) {
             throw new InvalidLeaveOperationException("Leave is already processed");
         }
         
-        leave.setStatus(approvalDTO.getStatus());
-        leave.setApprovedBy(approvalDTO.getManagerId());
-        leave.setComments(approvalDTO.getComments());
-        
         // Update leave balance if approved
-        if (approvalDTO.getStatus() == LeaveStatus.APPROVED) {
-            updateLeaveBalance(leave);
+        if (approvalDTO.getStatus() == LeaveStatus.APPROVED
+                && !deductLeaveBalance(leave.getEmployee(), leave.getLeaveType(), leave.getNumberOfDays())) {
+            throw new InsufficientLeaveBalanceException(
+                String.format("Insufficient %s leave balance. Requested: %d",
+                    leave.getLeaveType(), leave.getNumberOfDays()));
         }
         
+        applyDecision(leave, approvalDTO);
+        
         Leave updatedLeave = leaveRepository.save(leave);
+        employeeRepository.incrementLeavesVersion(List.of(updatedLeave.getEmployee().getId()));
+        readYourWrites.pinAfterCommit(updatedLeave.getEmployee());
+        pendingApprovalIndex.removeAfterCommit(updatedLeave.getEmployee().getManagerId(), updatedLeave.getId());
+        if (updatedLeave.getStatus() == LeaveStatus.APPROVED) {
+            teamAbsenceCalendar.recordApproved(List.of(updatedLeave));
+            leaveUsageService.recordApproved(List.of(updatedLeave));
+        }
         
-        // Send notification
-        notificationService.sendLeaveStatusNotification(updatedLeave);
+        // Notification is relayed from the outbox once this transaction commits
+        outboxEventRepository.save(statusChangeEvent(updatedLeave));
+        return updatedLeave;
+    }
+    
+    @Override
+    @Transactional
+    public List<LeaveApprovalResultDTO> approveOrRejectLeaves(List<LeaveApprovalDTO> approvalDTOs) {
+        if (approvalDTOs == null || approvalDTOs.isEmpty() || approvalDTOs.size() > MAX_BULK_APPROVALS) {
+            throw new InvalidLeaveOperationException(
+                String.format("A bulk decision must contain between 1 and %d items", MAX_BULK_APPROVALS));
+        }
+        if (approvalDTOs.stream().anyMatch(Objects::isNull)) {
+            throw new InvalidLeaveOperationException("Bulk decision items must not be null");
+        }
+        log.info("Processing bulk approval/rejection of {} leaves", approvalDTOs.size());
         
-        log.info("Leave {} successfully", approvalDTO.getStatus());
-        return mapToResponseDTO(updatedLeave);
+        // Load every target leave with its employee and balance in one query
+        Set<Long> leaveIds = approvalDTOs.stream()
+            .map(LeaveApprovalDTO::getLeaveId)
+            .filter(Objects::nonNull)
+            .collect(Collectors.toSet());
+        Map<Long, Leave> leavesById = leaveRepository.findWithEmployeeByIdIn(leaveIds).stream()
+            .collect(Collectors.toMap(Leave::getId, Function.identity()));
+        
+        BulkDeductions deductions = new BulkDeductions();
+        Set<Long> seenLeaveIds = new HashSet<>();
+        String[] errors = new String[approvalDTOs.size()];
+        for (int i = 0; i < approvalDTOs.size(); i++) {
+            errors[i] = validateBulkItem(approvalDTOs.get(i), leavesById, seenLeaveIds, deductions);
+        }
+        
+        // One conditional balance update per employee and leave type. A group that no longer fits
+        // the committed balance, because of a concurrent approval, fails as a whole.
+        Set<DeductionKey> failedDeductions = deductions.apply(
+            key -> deductLeaveBalance(key.employee(), key.type(), deductions.days(key)));
+        
+        List<Leave> decidedLeaves = new ArrayList<>();
+        List<LeaveApprovalResultDTO> results = new ArrayList<>(approvalDTOs.size());
+        for (int i = 0; i < approvalDTOs.size(); i++) {
+            LeaveApprovalDTO approvalDTO = approvalDTOs.get(i);
+            Leave leave = leavesById.get(approvalDTO.getLeaveId());
+            String error = errors[i];
+            if (error == null && approvalDTO.getStatus() == LeaveStatus.APPROVED
+                    && failedDeductions.contains(DeductionKey.of(leave))) {
+                error = String.format("Insufficient %s leave balance. Requested: %d",
+                    leave.getLeaveType(), leave.getNumberOfDays());
+            }
+            if (error != null) {
+                results.add(LeaveApprovalResultDTO.builder()
+                    .leaveId(approvalDTO.getLeaveId())
+                    .success(false)
+                    .message(error)
+                    .build());
+                continue;
+            }
+            applyDecision(leave, approvalDTO);
+            decidedLeaves.add(leave);
+            results.add(LeaveApprovalResultDTO.builder()
+                .leaveId(leave.getId())
+                .success(true)
+                .message("Leave " + approvalDTO.getStatus())
+                .leave(mapToResponseDTO(leave))
+                .build());
+        }
+        
+        // Flushed as JDBC batches, see hibernate.jdbc.batch_size
+        leaveRepository.saveAll(decidedLeaves);
+        if (!decidedLeaves.isEmpty()) {
+            employeeRepository.incrementLeavesVersion(decidedLeaves.stream()
+                .map(leave -> leave.getEmployee().getId())
+                .collect(Collectors.toSet()));
+        }
+        decidedLeaves.forEach(leave -> {
+            readYourWrites.pinAfterCommit(leave.getEmployee());
+            pendingApprovalIndex.removeAfterCommit(leave.getEmployee().getManagerId(), leave.getId());
+        });
+        List<Leave> approvedLeaves = decidedLeaves.stream()
+            .filter(leave -> leave.getStatus() == LeaveStatus.APPROVED)
+            .toList();
+        teamAbsenceCalendar.recordApproved(approvedLeaves);
+        leaveUsageService.recordApproved(approvedLeaves);
+        outboxEventRepository.saveAll(decidedLeaves.stream().map(this::statusChangeEvent).toList());
+        
+        log.info("Bulk decision processed: {} succeeded, {} failed",
+            decidedLeaves.size(), approvalDTOs.size() - decidedLeaves.size());
+        return results;
     }
     
     @Override
@@ -96,7 +260,7 @@ public class LeaveServiceImpl implements LeaveService {
     public LeaveResponseDTO cancelLeave(Long leaveId, Long employeeId) {
         log.info("Cancelling leave: {} for employee: {}", leaveId, employeeId);
         
-        Leave leave = leaveRepository.findById(leaveId)
+        Leave leave = leaveRepository.findWithEmployeeById(leaveId)
             .orElseThrow(() -> new ResourceNotFoundException("Leave request not found"));
         
         if (!leave.getEmployee().getId().equals(employeeId)) {
@@ -109,52 +273,113 @@ public class LeaveServiceImpl implements LeaveService {
         
         leave.setStatus(LeaveStatus.CANCELLED);
         Leave cancelledLeave = leaveRepository.save(leave);
+        employeeRepository.incrementLeavesVersion(List.of(employeeId));
+        readYourWrites.pinAfterCommit(leave.getEmployee());
+        pendingApprovalIndex.removeAfterCommit(leave.getEmployee().getManagerId(), leaveId);
+        outboxEventRepository.save(statusChangeEvent(cancelledLeave));
         
         log.info("Leave cancelled successfully");
         return mapToResponseDTO(cancelledLeave);
     }
     
     @Override
-    public List<LeaveResponseDTO> getEmployeeLeaves(Long employeeId) {
-        return leaveRepository.findByEmployeeId(employeeId).stream()
-            .map(this::mapToResponseDTO)
-            .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public LeaveHistoryPageDTO getEmployeeLeaves(Long employeeId, LeaveHistoryQuery query) {
+        HistoryWindow window = HistoryWindow.of(query);
+        List<LeaveResponseDTO> rows = readYourWrites.readEmployee(employeeId,
+            () -> leaveRepository.findEmployeeHistoryPage(employeeId,
+                window.statuses(), window.from(), window.to(),
+                window.cursor().appliedDate(), window.cursor().id(), Limit.of(window.size() + 1)));
+        return toPage(rows, window.size());
     }
     
     @Override
-    public List<LeaveResponseDTO> getTeamLeaves(Long managerId) {
-        return leaveRepository.findByManagerId(managerId).stream()
-            .map(this::mapToResponseDTO)
-            .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public LeaveHistoryPageDTO getTeamLeaves(Long managerId, LeaveHistoryQuery query) {
+        HistoryWindow window = HistoryWindow.of(query);
+        List<LeaveResponseDTO> rows = readYourWrites.readTeam(managerId,
+            () -> leaveRepository.findTeamHistoryPage(managerId,
+                window.statuses(), window.from(), window.to(),
+                window.cursor().appliedDate(), window.cursor().id(), Limit.of(window.size() + 1)));
+        return toPage(rows, window.size());
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<Long> getEmployeeLeavesVersion(Long employeeId) {
+        // Read from the same database as the leaves, so the ETag never runs ahead of the body
+        return readYourWrites.readEmployee(employeeId, () -> employeeRepository.findLeavesVersionById(employeeId));
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public String getTeamLeavesVersion(Long managerId) {
+        List<String> members = readYourWrites.readTeam(managerId,
+            () -> employeeRepository.findMemberLeavesVersionsByManagerId(managerId));
+        // A digest of every member's version, not a sum: two different team states can add up the same
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                .digest(String.join(",", members).getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest, 0, 16);
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is not available", ex);
+        }
+    }
+    
+    @Override
+    public List<LeaveResponseDTO> getPendingApprovals(Long managerId) {
+        return pendingApprovalIndex.pending(managerId);
+    }
+    
+    @Override
+    public PendingApprovalCountDTO countPendingApprovals(Long managerId) {
+        return PendingApprovalCountDTO.builder()
+            .managerId(managerId)
+            .pendingCount(pendingApprovalIndex.count(managerId))
+            .build();
     }
     
     @Override
     public LeaveBalance getLeaveBalance(Long employeeId) {
-        Employee employee = employeeRepository.findById(employeeId)
-            .orElseThrow(() -> new ResourceNotFoundException("Employee not found"));
-        return employee.getLeaveBalance();
+        // Not transactional, so a cache hit takes no connection; a miss is read in a read-only one
+        return leaveBalanceCache.get(employeeId, () -> readYourWrites.readEmployee(employeeId,
+            () -> employeeRepository.findWithLeaveBalanceById(employeeId)
+                .orElseThrow(() -> new ResourceNotFoundException("Employee not found"))
+                .getLeaveBalance()));
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public List<TeamCalendarDayDTO> getTeamCalendar(Long managerId, LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            throw new InvalidDateException("Calendar start date cannot be after end date");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= MAX_CALENDAR_DAYS) {
+            throw new InvalidDateException(
+                String.format("A team calendar can span at most %d days", MAX_CALENDAR_DAYS));
+        }
+        return teamAbsenceCalendar.calendar(managerId, from, to);
     }
     
     // Helper methods
-    private void validateDates(LocalDate startDate, LocalDate endDate) {
+    void validateDates(LocalDate startDate, LocalDate endDate) {
         if (startDate.isAfter(endDate)) {
             throw new InvalidDateException("Start date cannot be after end date");
         }
         if (startDate.isBefore(LocalDate.now())) {
             throw new InvalidDateException("Cannot apply leave for past dates");
         }
+        if (ChronoUnit.DAYS.between(startDate, endDate) >= MAX_LEAVE_DAYS) {
+            throw new InvalidDateException(String.format("A leave can span at most %d days", MAX_LEAVE_DAYS));
+        }
     }
     
-    private int calculateLeaveDays(LocalDate startDate, LocalDate endDate) {
-        return (int) ChronoUnit.DAYS.between(startDate, endDate) + 1;
+    int calculateLeaveDays(String department, LocalDate startDate, LocalDate endDate) {
+        return workingDayCalendar.workingDays(department, startDate, endDate);
     }
     
     private void validateLeaveBalance(LeaveBalance balance, LeaveType type, int days) {
-        int availableLeave = switch (type) {
-            case SICK -> balance.getSickLeave();
-            case CASUAL -> balance.getCasualLeave();
-            case EARNED -> balance.getEarnedLeave();
-        };
+        int availableLeave = availableLeave(balance, type);
         
         if (availableLeave < days) {
             throw new InsufficientLeaveBalanceException(
@@ -163,18 +388,98 @@ public class LeaveServiceImpl implements LeaveService {
         }
     }
     
-    private void updateLeaveBalance(Leave leave) {
-        LeaveBalance balance = leave.getEmployee().getLeaveBalance();
-        int days = leave.getNumberOfDays();
-        
-        switch (leave.getLeaveType()) {
-            case SICK -> balance.setSickLeave(balance.getSickLeave() - days);
-            case CASUAL -> balance.setCasualLeave(balance.getCasualLeave() - days);
-            case EARNED -> balance.setEarnedLeave(balance.getEarnedLeave() - days);
+    private static int availableLeave(LeaveBalance balance, LeaveType type) {
+        return switch (type) {
+            case SICK -> balance.getSickLeave();
+            case CASUAL -> balance.getCasualLeave();
+            case EARNED -> balance.getEarnedLeave();
+        };
+    }
+    
+    private void applyDecision(Leave leave, LeaveApprovalDTO approvalDTO) {
+        leave.setStatus(approvalDTO.getStatus());
+        leave.setApprovedBy(approvalDTO.getManagerId());
+        leave.setComments(approvalDTO.getComments());
+    }
+    
+    /**
+     * Deducts the days with a single conditional update and reports whether the balance still
+     * covered them. The loaded {@link LeaveBalance} entity is left as it was read.
+     */
+    private boolean deductLeaveBalance(Employee employee, LeaveType type, int days) {
+        Long balanceId = employee.getLeaveBalance().getId();
+        int updated = switch (type) {
+            case SICK -> leaveBalanceRepository.deductSickLeave(balanceId, days);
+            case CASUAL -> leaveBalanceRepository.deductCasualLeave(balanceId, days);
+            case EARNED -> leaveBalanceRepository.deductEarnedLeave(balanceId, days);
+        };
+        if (updated == 0) {
+            return false;
+        }
+        leaveBalanceCache.evictAfterCommit(employee.getId());
+        return true;
+    }
+    
+    private String validateBulkItem(LeaveApprovalDTO approvalDTO, Map<Long, Leave> leavesById,
+                                    Set<Long> seenLeaveIds, BulkDeductions deductions) {
+        Set<ConstraintViolation<LeaveApprovalDTO>> violations = validator.validate(approvalDTO);
+        if (!violations.isEmpty()) {
+            return violations.stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .collect(Collectors.joining("; "));
+        }
+        if (!seenLeaveIds.add(approvalDTO.getLeaveId())) {
+            return "Duplicate leave in bulk request";
+        }
+        Leave leave = leavesById.get(approvalDTO.getLeaveId());
+        if (leave == null) {
+            return "Leave request not found";
+        }
+        if (leave.getStatus() != LeaveStatus.PENDING) {
+            return "Leave is already processed";
+        }
+        if (approvalDTO.getStatus() == LeaveStatus.APPROVED) {
+            DeductionKey key = DeductionKey.of(leave);
+            int available = availableLeave(leave.getEmployee().getLeaveBalance(), leave.getLeaveType())
+                - deductions.days(key);
+            if (available < leave.getNumberOfDays()) {
+                return String.format("Insufficient %s leave balance. Available: %d, Requested: %d",
+                    leave.getLeaveType(), available, leave.getNumberOfDays());
+            }
+            deductions.add(key, leave.getNumberOfDays());
+        }
+        return null;
+    }
+    
+    private OutboxEvent statusChangeEvent(Leave leave) {
+        return OutboxEvent.builder()
+            .leaveId(leave.getId())
+            .recipientEmail(leave.getEmployee().getEmail())
+            .employeeName(leave.getEmployee().getName())
+            .status(leave.getStatus())
+            .comments(leave.getComments())
+            .createdAt(Instant.now())
+            .build();
+    }
+    
+    private LeaveHistoryPageDTO toPage(List<LeaveResponseDTO> rows, int size) {
+        // One extra row is fetched to detect whether another page exists
+        boolean hasNext = rows.size() > size;
+        List<LeaveResponseDTO> content = hasNext ? rows.subList(0, size) : rows;
+        String nextCursor = null;
+        if (hasNext) {
+            LeaveResponseDTO last = content.get(content.size() - 1);
+            nextCursor = new LeaveHistoryCursor(last.getAppliedDate(), last.getId()).encode();
         }
+        return LeaveHistoryPageDTO.builder()
+            .content(content)
+            .nextCursor(nextCursor)
+            .hasNext(hasNext)
+            .build();
     }
     
-    private LeaveResponseDTO mapToResponseDTO(Leave leave) {
+    LeaveResponseDTO mapToResponseDTO(Leave leave) {
         return LeaveResponseDTO.builder()
             .id(leave.getId())
             .employeeName(leave.getEmployee().getName())
@@ -188,4 +493,71 @@ public class LeaveServiceImpl implements LeaveService {
             .comments(leave.getComments())
             .build();
     }
+    
+    private record DeductionKey(Employee employee, LeaveType type) {
+        
+        static DeductionKey of(Leave leave) {
+            return new DeductionKey(leave.getEmployee(), leave.getLeaveType());
+        }
+        
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof DeductionKey key
+                && employee.getId().equals(key.employee.getId())
+                && type == key.type;
+        }
+        
+        @Override
+        public int hashCode() {
+            return Objects.hash(employee.getId(), type);
+        }
+    }
+    
+    /** Days to deduct per employee and leave type, accumulated over a bulk decision. */
+    private static final class BulkDeductions {
+        
+        // Balances are updated in a fixed order so overlapping bulk decisions cannot deadlock
+        private final Map<DeductionKey, Integer> daysByKey = new TreeMap<>(Comparator
+            .comparing((DeductionKey key) -> key.employee().getId())
+            .thenComparing(DeductionKey::type));
+        
+        int days(DeductionKey key) {
+            return daysByKey.getOrDefault(key, 0);
+        }
+        
+        void add(DeductionKey key, int days) {
+            daysByKey.merge(key, days, Integer::sum);
+        }
+        
+        Set<DeductionKey> apply(Predicate<DeductionKey> deduction) {
+            Set<DeductionKey> failed = new HashSet<>();
+            daysByKey.keySet().forEach(key -> {
+                if (!deduction.test(key)) {
+                    failed.add(key);
+                }
+            });
+            return failed;
+        }
+    }
+    
+    private record HistoryWindow(Collection<LeaveStatus> statuses, LocalDate from, LocalDate to,
+                                 LeaveHistoryCursor cursor, int size) {
+        
+        private static final LocalDate MIN_DATE = LocalDate.of(1, 1, 1);
+        private static final LocalDate MAX_DATE = LocalDate.of(9999, 12, 31);
+        private static final int DEFAULT_PAGE_SIZE = 20;
+        
+        static HistoryWindow of(LeaveHistoryQuery query) {
+            LocalDate from = query.getFrom() != null ? query.getFrom() : MIN_DATE;
+            LocalDate to = query.getTo() != null ? query.getTo() : MAX_DATE;
+            if (from.isAfter(to)) {
+                throw new InvalidDateException("From date cannot be after to date");
+            }
+            Collection<LeaveStatus> statuses = query.getStatus() != null
+                ? EnumSet.of(query.getStatus())
+                : EnumSet.allOf(LeaveStatus.class);
+            int size = query.getSize() != null ? query.getSize() : DEFAULT_PAGE_SIZE;
+            return new HistoryWindow(statuses, from, to, LeaveHistoryCursor.decode(query.getCursor()), size);
+        }
+    }
 }
\ No newline at end of file
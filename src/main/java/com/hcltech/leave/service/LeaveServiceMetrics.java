@@ -0,0 +1,132 @@
+package com.hcltech.leave.service;
+
+import com.hcltech.leave.dto.LeaveApprovalResultDTO;
+import com.hcltech.leave.dto.LeaveResponseDTO;
+import com.hcltech.leave.enums.LeaveStatus;
+import com.hcltech.leave.exception.*;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times every {@link LeaveService} call as {@code leave.service}, tagged with the method and its
+ * outcome. Failures are tagged after the exceptions {@code GlobalExceptionHandler} maps, so the
+ * tag set stays small and fixed. Bulk decisions additionally count their items per outcome as
+ * {@code leave.service.bulk.items}.
+ *
+ * <p>Runs outside the transaction so the timing includes the commit, and exceptions raised by
+ * the commit still get an outcome.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+public class LeaveServiceMetrics {
+    
+    static final String TIMER_NAME = "leave.service";
+    static final String BULK_ITEMS_COUNTER_NAME = "leave.service.bulk.items";
+    
+    private final MeterRegistry meterRegistry;
+    
+    // Meters are looked up once per method and outcome, not on every call
+    private final Map<TimerKey, Timer> timers = new ConcurrentHashMap<>();
+    private final Map<String, Counter> bulkItemCounters = new ConcurrentHashMap<>();
+    
+    @Around("execution(* com.hcltech.leave.service.LeaveService.*(..))")
+    public Object record(ProceedingJoinPoint joinPoint) throws Throwable {
+        long start = System.nanoTime();
+        String outcome = "error";
+        try {
+            Object result = joinPoint.proceed();
+            outcome = successOutcome(result);
+            return result;
+        } catch (Throwable ex) {
+            outcome = failureOutcome(ex);
+            throw ex;
+        } finally {
+            timer(joinPoint.getSignature().getName(), outcome).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+    
+    private String successOutcome(Object result) {
+        if (result instanceof LeaveResponseDTO leave) {
+            return statusOutcome(leave.getStatus());
+        }
+        if (result instanceof List<?> items && !items.isEmpty() && items.get(0) instanceof LeaveApprovalResultDTO) {
+            items.forEach(item -> bulkItemCounter(bulkItemOutcome((LeaveApprovalResultDTO) item)).increment());
+        }
+        return "success";
+    }
+    
+    private static String bulkItemOutcome(LeaveApprovalResultDTO item) {
+        return item.isSuccess() ? statusOutcome(item.getLeave().getStatus()) : "failed";
+    }
+    
+    private static String statusOutcome(LeaveStatus status) {
+        return switch (status) {
+            case PENDING -> "applied";
+            case APPROVED -> "approved";
+            case REJECTED -> "rejected";
+            case CANCELLED -> "cancelled";
+        };
+    }
+    
+    private static String failureOutcome(Throwable ex) {
+        if (ex instanceof InsufficientLeaveBalanceException) {
+            return "insufficient_balance";
+        }
+        if (ex instanceof InvalidDateException) {
+            return "invalid_date";
+        }
+        if (ex instanceof ResourceNotFoundException) {
+            return "not_found";
+        }
+        if (ex instanceof InvalidLeaveOperationException) {
+            return "invalid_operation";
+        }
+        if (ex instanceof OverlappingLeaveException) {
+            return "overlap";
+        }
+        if (ex instanceof InvalidCursorException) {
+            return "invalid_cursor";
+        }
+        if (ex instanceof OptimisticLockingFailureException) {
+            return "conflict";
+        }
+        if (ex instanceof UnauthorizedException) {
+            return "unauthorized";
+        }
+        return "error";
+    }
+    
+    private Timer timer(String method, String outcome) {
+        return timers.computeIfAbsent(new TimerKey(method, outcome), key -> Timer.builder(TIMER_NAME)
+            .description("Leave service calls")
+            .tag("method", key.method())
+            .tag("outcome", key.outcome())
+            .register(meterRegistry));
+    }
+    
+    private Counter bulkItemCounter(String outcome) {
+        return bulkItemCounters.computeIfAbsent(outcome, key -> Counter.builder(BULK_ITEMS_COUNTER_NAME)
+            .description("Items of bulk approval requests")
+            .tag("outcome", key)
+            .register(meterRegistry));
+    }
+    
+    private record TimerKey(String method, String outcome) {
+    }
+}
@@ -0,0 +1,20 @@
+package com.hcltech.leave.service;
+
+import com.hcltech.leave.enums.LeaveStatus;
+
+import java.time.Instant;
+
+/**
+ * Immutable snapshot of a leave status change, safe to hand to another thread after the
+ * originating transaction has committed. {@code eventId} identifies the outbox row to
+ * acknowledge once the notification is delivered.
+ */
+public record LeaveStatusNotification(
+        Long eventId,
+        Long leaveId,
+        String recipientEmail,
+        String employeeName,
+        LeaveStatus status,
+        String comments,
+        Instant occurredAt) {
+}
@@ -0,0 +1,153 @@
+package com.hcltech.leave.service;
+
+import com.hcltech.leave.dto.LeaveExportRow;
+import com.hcltech.leave.dto.LeaveUsageDTO;
+import com.hcltech.leave.enums.LeaveStatus;
+import com.hcltech.leave.enums.LeaveType;
+import com.hcltech.leave.exception.InvalidDateException;
+import com.hcltech.leave.model.Leave;
+import com.hcltech.leave.model.LeaveUsageSummary;
+import com.hcltech.leave.repository.LeaveRepository;
+import com.hcltech.leave.repository.LeaveUsageSummaryRepository;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.*;
+import java.util.stream.Stream;
+
+/**
+ * Leave usage per department, month and leave type, read from {@code leave_usage_summaries}
+ * instead of the leaves themselves. Approvals add their working days to the summaries in the
+ * approval transaction; as approved leaves cannot change afterwards, the summaries never need
+ * to be recomputed, except once for leaves approved before they existed ({@link #rebuild()}).
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class LeaveUsageService {
+    
+    private static final LocalDate MIN_DATE = LocalDate.of(1, 1, 1);
+    private static final LocalDate MAX_DATE = LocalDate.of(9999, 12, 31);
+    
+    private final LeaveUsageSummaryRepository leaveUsageSummaryRepository;
+    private final LeaveRepository leaveRepository;
+    private final WorkingDayCalendar workingDayCalendar;
+    private final EntityManager entityManager;
+    
+    /** Adds newly approved leaves to the summaries, in the caller's transaction. */
+    public void recordApproved(Collection<Leave> leaves) {
+        Map<UsageKey, Usage> usage = new TreeMap<>();
+        for (Leave leave : leaves) {
+            addUsage(usage, leave.getEmployee().getDepartment(), leave.getLeaveType(),
+                leave.getStartDate(), leave.getEndDate());
+        }
+        // Rows are updated in key order, so approvals touching the same months cannot deadlock
+        usage.forEach((key, total) -> {
+            if (add(key, total) == 0 && insert(key, total) == 0) {
+                add(key, total);
+            }
+        });
+    }
+    
+    /** Usage from {@code from} to {@code to}, both inclusive, optionally for one department or leave type. */
+    @Transactional(readOnly = true)
+    public List<LeaveUsageDTO> getUsage(YearMonth from, YearMonth to, String department, LeaveType leaveType) {
+        if (from.isAfter(to)) {
+            throw new InvalidDateException("Usage start month cannot be after end month");
+        }
+        return leaveUsageSummaryRepository.findUsage(from.atDay(1), to.atDay(1), department, leaveType).stream()
+            .map(summary -> LeaveUsageDTO.builder()
+                .department(summary.getDepartment())
+                .month(YearMonth.from(summary.getMonth()))
+                .leaveType(summary.getLeaveType())
+                .daysTaken(summary.getDaysTaken())
+                .leaveCount(summary.getLeaveCount())
+                .build())
+            .toList();
+    }
+    
+    /**
+     * Recomputes every summary from the approved leaves, reading them once through a cursor.
+     * Meant to be run once after upgrading; an approval committed meanwhile can make it fail,
+     * in which case it is simply run again. Returns the number of approved leaves counted.
+     */
+    @Transactional
+    public long rebuild() {
+        leaveUsageSummaryRepository.deleteAllInBatch();
+        Map<UsageKey, Usage> usage = new TreeMap<>();
+        long approved = 0;
+        try (Stream<LeaveExportRow> leaves = leaveRepository.streamForExport(MIN_DATE, MAX_DATE)) {
+            for (LeaveExportRow leave : (Iterable<LeaveExportRow>) leaves::iterator) {
+                if (leave.getStatus() == LeaveStatus.APPROVED) {
+                    addUsage(usage, leave.getDepartment(), leave.getLeaveType(), leave.getStartDate(), leave.getEndDate());
+                    approved++;
+                }
+            }
+        }
+        // Persisted rather than saved: with assigned ids, save would select each row first.
+        // Flushed as JDBC batches, see hibernate.jdbc.batch_size
+        usage.forEach((key, total) -> entityManager.persist(LeaveUsageSummary.builder()
+            .month(key.month())
+            .department(key.department())
+            .leaveType(key.leaveType())
+            .daysTaken(total.days)
+            .leaveCount(total.leaves)
+            .build()));
+        log.info("Rebuilt {} leave usage summaries from {} approved leaves", usage.size(), approved);
+        return approved;
+    }
+    
+    /**
+     * Splits the leave's working days by month. The leave itself is counted once, in the first
+     * month it has working days in, so counts can be summed over any range of months.
+     */
+    private void addUsage(Map<UsageKey, Usage> usage, String department, LeaveType leaveType,
+                          LocalDate start, LocalDate end) {
+        boolean counted = false;
+        for (YearMonth month = YearMonth.from(start); !month.isAfter(YearMonth.from(end)); month = month.plusMonths(1)) {
+            LocalDate from = start.isAfter(month.atDay(1)) ? start : month.atDay(1);
+            LocalDate to = end.isBefore(month.atEndOfMonth()) ? end : month.atEndOfMonth();
+            int days = workingDayCalendar.workingDays(department, from, to);
+            if (days > 0) {
+                Usage total = usage.computeIfAbsent(new UsageKey(month.atDay(1), department, leaveType), key -> new Usage());
+                total.days += days;
+                if (!counted) {
+                    total.leaves++;
+                    counted = true;
+                }
+            }
+        }
+    }
+    
+    private int add(UsageKey key, Usage total) {
+        return leaveUsageSummaryRepository.addUsage(key.month(), key.department(), key.leaveType(),
+            total.days, total.leaves);
+    }
+    
+    private int insert(UsageKey key, Usage total) {
+        return leaveUsageSummaryRepository.insertIfAbsent(key.month(), key.department(), key.leaveType().name(),
+            total.days, total.leaves);
+    }
+    
+    private record UsageKey(LocalDate month, String department, LeaveType leaveType) implements Comparable<UsageKey> {
+        
+        private static final Comparator<UsageKey> ORDER = Comparator.comparing(UsageKey::month)
+            .thenComparing(UsageKey::department)
+            .thenComparing(UsageKey::leaveType);
+        
+        @Override
+        public int compareTo(UsageKey other) {
+            return ORDER.compare(this, other);
+        }
+    }
+    
+    private static final class Usage {
+        private long days;
+        private long leaves;
+    }
+}
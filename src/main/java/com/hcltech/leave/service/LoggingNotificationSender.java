@@ -0,0 +1,25 @@
+package com.hcltech.leave.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+@Component
+@Slf4j
+public class LoggingNotificationSender implements NotificationSender {
+    
+    @Override
+    public void send(String recipientEmail, List<LeaveStatusNotification> notifications) {
+        // Mock email notification, one message per recipient batch
+        for (LeaveStatusNotification notification : notifications) {
+            log.info("Sending email notification to {} - Leave {} is {}",
+                recipientEmail,
+                notification.leaveId(),
+                notification.status());
+        }
+        
+        // In real scenario, integrate with email service
+        // emailService.send(recipientEmail, subject, body);
+    }
+}
@@ -0,0 +1,223 @@
+package com.hcltech.leave.service;
+
+import com.hcltech.leave.config.NotificationProperties;
+import com.hcltech.leave.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Bounded in-process queue of leave status notifications, drained by a single worker thread
+ * created by the {@code notificationThreadFactory}, a virtual thread when those are enabled.
+ * Each drained batch is grouped per recipient so a recipient gets one send call per round,
+ * and failed sends are retried with exponential backoff.
+ *
+ * <p>Delivered notifications are acknowledged by marking their outbox rows processed. When
+ * the queue is full new notifications are rejected and counted; their outbox rows stay pending
+ * and are claimed again later, as are notifications that exhausted their delivery attempts.
+ * The dispatcher keeps track of the outbox events it holds, queued or being delivered, so
+ * {@link OutboxRelay} can keep their leases from running out meanwhile.
+ */
+@Component
+@Slf4j
+public class NotificationDispatcher implements SmartLifecycle {
+    
+    private static final long POLL_TIMEOUT_MILLIS = 500;
+    private static final long SHUTDOWN_TIMEOUT_MILLIS = 5000;
+    
+    private final NotificationSender sender;
+    private final OutboxEventRepository outboxEventRepository;
+    private final NotificationProperties properties;
+    private final ThreadFactory threadFactory;
+    private final BlockingQueue<LeaveStatusNotification> queue;
+    // Outbox events queued or being delivered, with when their lease was taken or last renewed
+    private final Map<Long, Instant> leases = new ConcurrentHashMap<>();
+    
+    private final Counter sentCounter;
+    private final Counter failedCounter;
+    private final Counter retryCounter;
+    private final Counter droppedCounter;
+    private final Timer lagTimer;
+    
+    private volatile boolean running;
+    private Thread worker;
+    
+    public NotificationDispatcher(NotificationSender sender, OutboxEventRepository outboxEventRepository,
+                                  NotificationProperties properties, ThreadFactory notificationThreadFactory,
+                                  MeterRegistry meterRegistry) {
+        this.sender = sender;
+        this.outboxEventRepository = outboxEventRepository;
+        this.properties = properties;
+        this.threadFactory = notificationThreadFactory;
+        this.queue = new ArrayBlockingQueue<>(properties.queueCapacity());
+        
+        Gauge.builder("leave.notifications.queue.depth", queue, Collection::size)
+            .description("Notifications waiting to be dispatched")
+            .register(meterRegistry);
+        this.sentCounter = Counter.builder("leave.notifications.sent").register(meterRegistry);
+        this.failedCounter = Counter.builder("leave.notifications.failed")
+            .description("Notifications given up on after all delivery attempts")
+            .register(meterRegistry);
+        this.retryCounter = Counter.builder("leave.notifications.retries").register(meterRegistry);
+        this.droppedCounter = Counter.builder("leave.notifications.dropped")
+            .description("Notifications rejected because the queue was full, left in the outbox")
+            .register(meterRegistry);
+        this.lagTimer = Timer.builder("leave.notifications.lag")
+            .description("Time from the status change to successful delivery")
+            .register(meterRegistry);
+    }
+    
+    public boolean enqueue(LeaveStatusNotification notification) {
+        if (leases.putIfAbsent(notification.eventId(), Instant.now()) != null) {
+            // Already held here, so queueing it again would deliver it twice
+            return true;
+        }
+        if (queue.offer(notification)) {
+            return true;
+        }
+        leases.remove(notification.eventId());
+        droppedCounter.increment();
+        log.warn("Notification queue full, deferring notification for leave {}", notification.leaveId());
+        return false;
+    }
+    
+    public int queueDepth() {
+        return queue.size();
+    }
+    
+    public int remainingCapacity() {
+        return queue.remainingCapacity();
+    }
+    
+    /** Outbox events held here whose lease was taken or last renewed before the cutoff. */
+    public List<Long> leasesTakenBefore(Instant cutoff) {
+        return leases.entrySet().stream()
+            .filter(lease -> lease.getValue().isBefore(cutoff))
+            .map(Map.Entry::getKey)
+            .toList();
+    }
+    
+    public void leasesRenewed(Collection<Long> eventIds, Instant renewedAt) {
+        eventIds.forEach(eventId -> leases.computeIfPresent(eventId, (id, takenAt) -> renewedAt));
+    }
+    
+    @Override
+    public void start() {
+        running = true;
+        worker = threadFactory.newThread(this::drainLoop);
+        worker.start();
+    }
+    
+    @Override
+    public void stop() {
+        running = false;
+        try {
+            worker.join(SHUTDOWN_TIMEOUT_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (worker.isAlive()) {
+            worker.interrupt();
+            log.warn("Notification dispatcher stopped with {} notifications still queued", queue.size());
+        }
+    }
+    
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+    
+    private void drainLoop() {
+        List<LeaveStatusNotification> batch = new ArrayList<>(properties.batchSize());
+        // Keep draining after stop() until the queue is empty or the shutdown timeout interrupts us
+        while (running || !queue.isEmpty()) {
+            try {
+                LeaveStatusNotification first = queue.poll(POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, properties.batchSize() - 1);
+                dispatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Unexpected error while dispatching notifications", e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+    
+    void dispatch(List<LeaveStatusNotification> batch) throws InterruptedException {
+        Map<String, List<LeaveStatusNotification>> byRecipient = batch.stream()
+            .collect(Collectors.groupingBy(LeaveStatusNotification::recipientEmail,
+                LinkedHashMap::new, Collectors.toList()));
+        for (Map.Entry<String, List<LeaveStatusNotification>> entry : byRecipient.entrySet()) {
+            deliver(entry.getKey(), entry.getValue());
+        }
+    }
+    
+    private void deliver(String recipient, List<LeaveStatusNotification> notifications) throws InterruptedException {
+        try {
+            attemptDelivery(recipient, notifications);
+        } finally {
+            // Acknowledged, or left for its lease to run out and be claimed again
+            notifications.forEach(notification -> leases.remove(notification.eventId()));
+        }
+    }
+    
+    private void attemptDelivery(String recipient, List<LeaveStatusNotification> notifications)
+            throws InterruptedException {
+        Duration backoff = properties.initialBackoff();
+        for (int attempt = 1; ; attempt++) {
+            try {
+                sender.send(recipient, notifications);
+                Instant deliveredAt = Instant.now();
+                notifications.forEach(n -> lagTimer.record(Duration.between(n.occurredAt(), deliveredAt)));
+                sentCounter.increment(notifications.size());
+                acknowledge(notifications, deliveredAt);
+                return;
+            } catch (RuntimeException ex) {
+                if (attempt >= properties.maxAttempts()) {
+                    failedCounter.increment(notifications.size());
+                    log.error("Giving up on {} notifications for {} after {} attempts, left in the outbox",
+                        notifications.size(), recipient, attempt, ex);
+                    return;
+                }
+                retryCounter.increment();
+                log.warn("Notification delivery to {} failed (attempt {}), retrying in {} ms",
+                    recipient, attempt, backoff.toMillis());
+                Thread.sleep(backoff.toMillis());
+                backoff = backoff.multipliedBy(2).compareTo(properties.maxBackoff()) > 0
+                    ? properties.maxBackoff()
+                    : backoff.multipliedBy(2);
+            }
+        }
+    }
+    
+    private void acknowledge(List<LeaveStatusNotification> notifications, Instant deliveredAt) {
+        List<Long> eventIds = notifications.stream().map(LeaveStatusNotification::eventId).toList();
+        try {
+            outboxEventRepository.markProcessed(eventIds, deliveredAt);
+        } catch (RuntimeException ex) {
+            // Delivery is at-least-once: unacknowledged events are sent again after their lease
+            log.error("Failed to acknowledge outbox events {}", eventIds, ex);
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.hcltech.leave.service;
+
+import java.util.List;
+
+/**
+ * Delivers notifications to a single recipient. Implementations may throw to signal a
+ * retryable failure; the dispatcher owns retries and backoff.
+ */
+public interface NotificationSender {
+    void send(String recipientEmail, List<LeaveStatusNotification> notifications);
+}
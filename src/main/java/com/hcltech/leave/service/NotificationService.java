@@ -1,21 +1,62 @@
 package com.hcltech.leave.service;
 
-import com.hcltech.leave.model.Leave;
+import com.hcltech.leave.model.OutboxEvent;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Consumes leave status events claimed from the outbox by {@link OutboxRelay} and queues them
+ * for asynchronous delivery in {@link NotificationDispatcher}.
+ */
 @Service
+@RequiredArgsConstructor
 @Slf4j
 public class NotificationService {
     
-    public void sendLeaveStatusNotification(Leave leave) {
-        // Mock email notification
-        log.info("Sending email notification to {} - Leave {} is {}",
-            leave.getEmployee().getEmail(),
-            leave.getId(),
-            leave.getStatus());
-        
-        // In real scenario, integrate with email service
-        // emailService.send(leave.getEmployee().getEmail(), subject, body);
+    private final NotificationDispatcher notificationDispatcher;
+    
+    /** How many more events can be queued. */
+    public int remainingCapacity() {
+        return notificationDispatcher.remainingCapacity();
+    }
+    
+    /** Queued or undelivered events whose lease was taken or last renewed before the cutoff. */
+    public List<Long> leasesTakenBefore(Instant cutoff) {
+        return notificationDispatcher.leasesTakenBefore(cutoff);
+    }
+    
+    public void leasesRenewed(List<Long> eventIds, Instant renewedAt) {
+        notificationDispatcher.leasesRenewed(eventIds, renewedAt);
+    }
+    
+    /**
+     * Queues the events for delivery, in order, and returns how many were accepted. Queueing
+     * stops at the first event the queue has no room for; the caller releases the rest.
+     */
+    public int consume(List<OutboxEvent> events) {
+        int accepted = 0;
+        for (OutboxEvent event : events) {
+            if (!notificationDispatcher.enqueue(toNotification(event))) {
+                break;
+            }
+            accepted++;
+        }
+        log.debug("Queued {} of {} outbox events for delivery", accepted, events.size());
+        return accepted;
+    }
+    
+    private LeaveStatusNotification toNotification(OutboxEvent event) {
+        return new LeaveStatusNotification(
+            event.getId(),
+            event.getLeaveId(),
+            event.getRecipientEmail(),
+            event.getEmployeeName(),
+            event.getStatus(),
+            event.getComments(),
+            event.getCreatedAt());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,90 @@
+package com.hcltech.leave.service;
+
+import com.hcltech.leave.config.OutboxProperties;
+import com.hcltech.leave.model.OutboxEvent;
+import com.hcltech.leave.repository.OutboxEventRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Polls the outbox and hands claimed events to {@link NotificationService}. Claiming happens
+ * in a short transaction that locks rows with {@code FOR UPDATE SKIP LOCKED} and stamps a lease,
+ * so concurrent nodes never pick up the same events. Events are only marked processed once
+ * delivered; an event whose lease expires before that is claimed again.
+ *
+ * <p>At most as many events are claimed as the dispatcher has room for, and any it turns away
+ * are released without counting an attempt. Every poll renews the leases of events still
+ * queued or being delivered here once half their lease has passed, so however long the queue
+ * takes to drain, no node claims them again while they are held.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class OutboxRelay {
+    
+    private final OutboxEventRepository outboxEventRepository;
+    private final NotificationService notificationService;
+    private final OutboxProperties properties;
+    private final TransactionTemplate transactionTemplate;
+    
+    @Scheduled(fixedDelayString = "${leave.outbox.poll-interval:1s}")
+    public void relay() {
+        renewLeases();
+        List<OutboxEvent> claimed;
+        int room;
+        int accepted;
+        do {
+            room = Math.min(properties.batchSize(), notificationService.remainingCapacity());
+            if (room == 0) {
+                return;
+            }
+            claimed = claimBatch(room);
+            accepted = claimed.isEmpty() ? 0 : notificationService.consume(claimed);
+            if (accepted < claimed.size()) {
+                release(claimed.subList(accepted, claimed.size()));
+            }
+            // Keep going while batches come back full and the dispatcher keeps up
+        } while (claimed.size() == room && accepted == claimed.size());
+    }
+    
+    @Scheduled(cron = "${leave.outbox.cleanup-cron:0 0 3 * * *}")
+    public void purgeProcessed() {
+        int deleted = outboxEventRepository.deleteProcessedBefore(Instant.now().minus(properties.retention()));
+        log.info("Purged {} processed outbox events", deleted);
+    }
+    
+    void renewLeases() {
+        Instant now = Instant.now();
+        List<Long> held = notificationService.leasesTakenBefore(now.minus(properties.lease().dividedBy(2)));
+        for (int from = 0; from < held.size(); from += properties.batchSize()) {
+            List<Long> eventIds = held.subList(from, Math.min(from + properties.batchSize(), held.size()));
+            outboxEventRepository.renewClaims(eventIds, now);
+            notificationService.leasesRenewed(eventIds, now);
+        }
+    }
+    
+    List<OutboxEvent> claimBatch(int limit) {
+        return transactionTemplate.execute(status -> {
+            Instant now = Instant.now();
+            List<OutboxEvent> batch = outboxEventRepository.lockNextBatch(
+                now.minus(properties.lease()), properties.maxAttempts(), limit);
+            batch.forEach(event -> {
+                event.setClaimedAt(now);
+                event.setAttempts(event.getAttempts() + 1);
+            });
+            return batch;
+        });
+    }
+    
+    private void release(List<OutboxEvent> events) {
+        List<Long> eventIds = events.stream().map(OutboxEvent::getId).toList();
+        outboxEventRepository.releaseClaims(eventIds);
+        log.debug("Released {} outbox events the dispatcher had no room for", eventIds.size());
+    }
+}
@@ -0,0 +1,211 @@
+package com.hcltech.leave.service;
+
+import com.hcltech.leave.dto.LeaveResponseDTO;
+import com.hcltech.leave.dto.PendingLeaveRow;
+import com.hcltech.leave.enums.LeaveStatus;
+import com.hcltech.leave.repository.LeaveRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Pending leaves per manager, oldest first, held in memory so manager inboxes and pending counts
+ * are read without a database round trip. Built from one query at startup, then kept current by
+ * {@link LeaveServiceImpl} as leaves are applied for, decided and cancelled; each change is applied
+ * once its transaction commits. Until the first build succeeds, reads go to the database.
+ *
+ * <p>Readers never lock. Updates to different managers run concurrently on the map's bins, and
+ * only wait for a rebuild while it swaps in what it read. {@link #check()} periodically rebuilds
+ * from the database and counts the managers it found out of date; on a node that does not see
+ * every write, such as one of several serving requests, that is how other nodes' changes arrive.
+ */
+@Component
+@Slf4j
+public class PendingApprovalIndex {
+    
+    static final String DRIFT_COUNTER_NAME = "leave.pending.index.drift";
+    private static final int MAX_REBUILD_ATTEMPTS = 3;
+    
+    private final LeaveRepository leaveRepository;
+    private final Counter driftCounter;
+    
+    private volatile Map<Long, ConcurrentSkipListMap<Long, LeaveResponseDTO>> pendingByManager = new ConcurrentHashMap<>();
+    private final ReadWriteLock rebuildLock = new ReentrantReadWriteLock();
+    // One rebuild at a time. A lock rather than a monitor, as the database is read while holding
+    // it and a virtual thread blocked inside synchronized would pin its carrier thread
+    private final Lock rebuilding = new ReentrantLock();
+    // Bumped by every update, so a rebuild can tell whether one committed while it was reading
+    private final AtomicLong updates = new AtomicLong();
+    private volatile boolean loaded;
+    
+    public PendingApprovalIndex(LeaveRepository leaveRepository, MeterRegistry meterRegistry) {
+        this.leaveRepository = leaveRepository;
+        this.driftCounter = Counter.builder(DRIFT_COUNTER_NAME)
+            .description("Managers whose pending approvals differed from the database when checked")
+            .register(meterRegistry);
+    }
+    
+    public List<LeaveResponseDTO> pending(Long managerId) {
+        if (!loaded) {
+            return leaveRepository.findPendingApprovals(managerId).stream().map(PendingApprovalIndex::toDTO).toList();
+        }
+        Map<Long, LeaveResponseDTO> leaves = pendingByManager.get(managerId);
+        return leaves == null ? List.of() : List.copyOf(leaves.values());
+    }
+    
+    public int count(Long managerId) {
+        if (!loaded) {
+            return leaveRepository.findPendingApprovals(managerId).size();
+        }
+        Map<Long, LeaveResponseDTO> leaves = pendingByManager.get(managerId);
+        return leaves == null ? 0 : leaves.size();
+    }
+    
+    /** Adds a leave to its manager's queue once the surrounding transaction commits. */
+    public void addAfterCommit(Long managerId, LeaveResponseDTO leave) {
+        if (managerId != null) {
+            afterCommit(() -> pendingByManager.compute(managerId, (id, leaves) -> {
+                ConcurrentSkipListMap<Long, LeaveResponseDTO> queue = leaves != null ? leaves : new ConcurrentSkipListMap<>();
+                queue.put(leave.getId(), leave);
+                return queue;
+            }));
+        }
+    }
+    
+    /** Removes a decided or cancelled leave from its manager's queue once the surrounding transaction commits. */
+    public void removeAfterCommit(Long managerId, Long leaveId) {
+        if (managerId != null) {
+            afterCommit(() -> pendingByManager.computeIfPresent(managerId, (id, leaves) -> {
+                leaves.remove(leaveId);
+                return leaves.isEmpty() ? null : leaves;
+            }));
+        }
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        rebuild();
+    }
+    
+    /** Compares the index with the database and repairs it. */
+    @Scheduled(fixedDelayString = "${leave.pending-index.check-interval:5m}",
+        initialDelayString = "${leave.pending-index.check-interval:5m}")
+    public void check() {
+        int drifted = rebuild();
+        if (drifted > 0) {
+            log.warn("Pending approval index was out of date for {} managers, repaired", drifted);
+        }
+    }
+    
+    /**
+     * Replaces the index with the pending leaves in the database. Gives up, keeping the index as
+     * it is, when updates keep committing while the database is read. Returns how many managers'
+     * queues changed.
+     */
+    int rebuild() {
+        rebuilding.lock();
+        try {
+            return tryRebuild();
+        } finally {
+            rebuilding.unlock();
+        }
+    }
+    
+    private int tryRebuild() {
+        for (int attempt = 1; attempt <= MAX_REBUILD_ATTEMPTS; attempt++) {
+            long seen = updates.get();
+            Map<Long, Map<Long, LeaveResponseDTO>> fromDatabase = new HashMap<>();
+            for (PendingLeaveRow row : leaveRepository.findAllPendingApprovals()) {
+                fromDatabase.computeIfAbsent(row.getManagerId(), id -> new HashMap<>()).put(row.getId(), toDTO(row));
+            }
+            
+            Lock lock = rebuildLock.writeLock();
+            lock.lock();
+            try {
+                if (updates.get() != seen) {
+                    // What was read may predate a commit already applied to the index
+                    continue;
+                }
+                int drifted = loaded ? drifted(fromDatabase) : 0;
+                Map<Long, ConcurrentSkipListMap<Long, LeaveResponseDTO>> rebuilt = new ConcurrentHashMap<>();
+                fromDatabase.forEach((managerId, leaves) -> rebuilt.put(managerId, new ConcurrentSkipListMap<>(leaves)));
+                // Swapped whole, so readers see either the old index or the new one
+                pendingByManager = rebuilt;
+                loaded = true;
+                driftCounter.increment(drifted);
+                return drifted;
+            } finally {
+                lock.unlock();
+            }
+        }
+        log.warn("Pending approval index not rebuilt: leaves kept changing while it was read");
+        return 0;
+    }
+    
+    private int drifted(Map<Long, Map<Long, LeaveResponseDTO>> fromDatabase) {
+        Map<Long, ConcurrentSkipListMap<Long, LeaveResponseDTO>> current = pendingByManager;
+        Set<Long> managerIds = new HashSet<>(fromDatabase.keySet());
+        managerIds.addAll(current.keySet());
+        int drifted = 0;
+        for (Long managerId : managerIds) {
+            Set<Long> inDatabase = fromDatabase.getOrDefault(managerId, Map.of()).keySet();
+            Set<Long> inIndex = current.containsKey(managerId) ? current.get(managerId).keySet() : Set.of();
+            if (!inDatabase.equals(inIndex)) {
+                drifted++;
+            }
+        }
+        return drifted;
+    }
+    
+    private void afterCommit(Runnable update) {
+        Runnable guarded = () -> {
+            Lock lock = rebuildLock.readLock();
+            lock.lock();
+            try {
+                update.run();
+                updates.incrementAndGet();
+            } finally {
+                lock.unlock();
+            }
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    guarded.run();
+                }
+            });
+        } else {
+            guarded.run();
+        }
+    }
+    
+    private static LeaveResponseDTO toDTO(PendingLeaveRow row) {
+        return LeaveResponseDTO.builder()
+            .id(row.getId())
+            .employeeName(row.getEmployeeName())
+            .leaveType(row.getLeaveType())
+            .startDate(row.getStartDate())
+            .endDate(row.getEndDate())
+            .numberOfDays(row.getNumberOfDays())
+            .reason(row.getReason())
+            .status(LeaveStatus.PENDING)
+            .appliedDate(row.getAppliedDate())
+            .build();
+    }
+}
@@ -0,0 +1,91 @@
+package com.hcltech.leave.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.hcltech.leave.config.ReplicaDataSourceProperties;
+import com.hcltech.leave.model.Employee;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.function.Supplier;
+
+/**
+ * Keeps reads that must see a recent write off the read replica. When a change to an employee's
+ * leaves commits, the employee and their manager's team are pinned to the primary for
+ * {@link ReplicaDataSourceProperties#pinAfterWrite()}; reads of a pinned employee or team run on
+ * the primary meanwhile. Pins are held per node, so a client only reads
+ * its own writes while its requests reach the node that made them. Does nothing without a replica.
+ */
+@Component
+public class ReadYourWrites {
+    
+    private static final ThreadLocal<Boolean> PRIMARY_REQUIRED = new ThreadLocal<>();
+    
+    private final boolean enabled;
+    private final Cache<Pin, Boolean> pins;
+    
+    public ReadYourWrites(ReplicaDataSourceProperties properties) {
+        this.enabled = properties.url() != null;
+        this.pins = Caffeine.newBuilder()
+            .maximumSize(properties.maxPins())
+            .expireAfterWrite(properties.pinAfterWrite())
+            .build();
+    }
+    
+    /** Pins the employee and their team once the surrounding transaction commits. */
+    public void pinAfterCommit(Employee employee) {
+        if (!enabled) {
+            return;
+        }
+        Runnable pin = () -> {
+            pins.put(new Pin(Scope.EMPLOYEE, employee.getId()), Boolean.TRUE);
+            if (employee.getManagerId() != null) {
+                pins.put(new Pin(Scope.TEAM, employee.getManagerId()), Boolean.TRUE);
+            }
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    pin.run();
+                }
+            });
+        } else {
+            pin.run();
+        }
+    }
+    
+    /** Runs {@code read}, on the primary if the employee is pinned. */
+    public <T> T readEmployee(Long employeeId, Supplier<T> read) {
+        return read(new Pin(Scope.EMPLOYEE, employeeId), read);
+    }
+    
+    /** Runs {@code read}, on the primary if the manager's team is pinned. */
+    public <T> T readTeam(Long managerId, Supplier<T> read) {
+        return read(new Pin(Scope.TEAM, managerId), read);
+    }
+    
+    /** Whether read-only transactions on this thread must run on the primary. */
+    public boolean isPrimaryRequired() {
+        return Boolean.TRUE.equals(PRIMARY_REQUIRED.get());
+    }
+    
+    private <T> T read(Pin pin, Supplier<T> read) {
+        if (!enabled || isPrimaryRequired() || pins.getIfPresent(pin) == null) {
+            return read.get();
+        }
+        // Connections are taken at the first query, so this reaches any transaction begun in read
+        PRIMARY_REQUIRED.set(Boolean.TRUE);
+        try {
+            return read.get();
+        } finally {
+            PRIMARY_REQUIRED.remove();
+        }
+    }
+    
+    private enum Scope { EMPLOYEE, TEAM }
+    
+    private record Pin(Scope scope, Long id) {
+    }
+}
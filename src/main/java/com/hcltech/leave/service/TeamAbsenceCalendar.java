@@ -0,0 +1,68 @@
+package com.hcltech.leave.service;
+
+import com.hcltech.leave.dto.TeamCalendarDayDTO;
+import com.hcltech.leave.model.Employee;
+import com.hcltech.leave.model.Leave;
+import com.hcltech.leave.model.TeamAbsenceDay;
+import com.hcltech.leave.repository.TeamAbsenceDayRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * Daily absences per manager, kept up to date as leaves are approved. Each working day of an
+ * approved leave is one {@link TeamAbsenceDay} row, so reading a calendar costs the days in the
+ * range rather than a scan of every team leave.
+ */
+@Component
+@RequiredArgsConstructor
+public class TeamAbsenceCalendar {
+    
+    private final TeamAbsenceDayRepository teamAbsenceDayRepository;
+    private final WorkingDayCalendar workingDayCalendar;
+    
+    /** Records the working days of newly approved leaves. Employees without a manager are skipped. */
+    public void recordApproved(Collection<Leave> leaves) {
+        List<TeamAbsenceDay> days = new ArrayList<>();
+        for (Leave leave : leaves) {
+            Employee employee = leave.getEmployee();
+            if (employee.getManagerId() == null) {
+                continue;
+            }
+            for (LocalDate day = leave.getStartDate(); !day.isAfter(leave.getEndDate()); day = day.plusDays(1)) {
+                if (workingDayCalendar.isWorkingDay(employee.getDepartment(), day)) {
+                    days.add(TeamAbsenceDay.builder()
+                        .managerId(employee.getManagerId())
+                        .absenceDate(day)
+                        .employeeId(employee.getId())
+                        .employeeName(employee.getName())
+                        .leaveId(leave.getId())
+                        .leaveType(leave.getLeaveType())
+                        .build());
+                }
+            }
+        }
+        // Flushed as JDBC batches, see hibernate.jdbc.batch_size
+        teamAbsenceDayRepository.saveAll(days);
+    }
+    
+    /** Every day from {@code from} to {@code to}, both inclusive, with who is out. */
+    public List<TeamCalendarDayDTO> calendar(Long managerId, LocalDate from, LocalDate to) {
+        Map<LocalDate, List<String>> absentByDate = new TreeMap<>();
+        for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+            absentByDate.put(day, new ArrayList<>());
+        }
+        teamAbsenceDayRepository.findByManagerIdAndAbsenceDateBetweenOrderByAbsenceDateAscEmployeeNameAsc(managerId, from, to)
+            .forEach(absence -> absentByDate.get(absence.getAbsenceDate()).add(absence.getEmployeeName()));
+        
+        return absentByDate.entrySet().stream()
+            .map(entry -> TeamCalendarDayDTO.builder()
+                .date(entry.getKey())
+                .absentCount(entry.getValue().size())
+                .absentEmployees(entry.getValue())
+                .build())
+            .toList();
+    }
+}
@@ -0,0 +1,144 @@
+package com.hcltech.leave.service;
+
+import com.hcltech.leave.config.CalendarProperties;
+import com.hcltech.leave.model.Holiday;
+import com.hcltech.leave.repository.HolidayRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.Year;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Counts working days, excluding weekends, company-wide holidays and the department's own holidays.
+ *
+ * <p>Each department and year is precomputed once into a bitset with one bit per day of the year,
+ * set for working days, so a count is a popcount over the range. Holidays are held in memory;
+ * {@link #reload()} swaps in a fresh snapshot without blocking readers.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class WorkingDayCalendar {
+    
+    private static final String ALL_DEPARTMENTS = "";
+    
+    private final HolidayRepository holidayRepository;
+    private final CalendarProperties properties;
+    
+    private volatile Snapshot snapshot;
+    
+    /** Working days from {@code start} to {@code end}, both inclusive. */
+    public int workingDays(String department, LocalDate start, LocalDate end) {
+        if (start.isAfter(end)) {
+            return 0;
+        }
+        Snapshot current = snapshot();
+        int days = 0;
+        for (int year = start.getYear(); year <= end.getYear(); year++) {
+            long[] calendar = current.calendar(department, year);
+            int from = year == start.getYear() ? start.getDayOfYear() - 1 : 0;
+            int to = year == end.getYear() ? end.getDayOfYear() - 1 : Year.of(year).length() - 1;
+            days += countBits(calendar, from, to);
+        }
+        return days;
+    }
+    
+    public boolean isWorkingDay(String department, LocalDate date) {
+        long[] calendar = snapshot().calendar(department, date.getYear());
+        int day = date.getDayOfYear() - 1;
+        return (calendar[day >>> 6] & (1L << day)) != 0;
+    }
+    
+    /** Reloads holidays from the database and drops all precomputed calendars. */
+    public int reload() {
+        List<Holiday> holidays = holidayRepository.findAll();
+        Map<String, Set<LocalDate>> byDepartment = holidays.stream()
+            .collect(Collectors.groupingBy(
+                holiday -> departmentKey(holiday.getDepartment()),
+                Collectors.mapping(Holiday::getDate, Collectors.toUnmodifiableSet())));
+        // Not EnumSet.copyOf, which rejects an empty collection: no weekend days is a valid setup
+        Set<DayOfWeek> weekendDays = EnumSet.noneOf(DayOfWeek.class);
+        weekendDays.addAll(properties.weekendDays());
+        snapshot = new Snapshot(byDepartment, weekendDays);
+        log.info("Loaded {} holidays into the working-day calendar", holidays.size());
+        return holidays.size();
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        reload();
+    }
+    
+    private Snapshot snapshot() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            reload();
+            current = snapshot;
+        }
+        return current;
+    }
+    
+    /** Set bits from index {@code from} to {@code to}, both inclusive. */
+    static int countBits(long[] bits, int from, int to) {
+        int fromWord = from >>> 6;
+        int toWord = to >>> 6;
+        long fromMask = -1L << from;
+        long toMask = -1L >>> (63 - (to & 63));
+        if (fromWord == toWord) {
+            return Long.bitCount(bits[fromWord] & fromMask & toMask);
+        }
+        int count = Long.bitCount(bits[fromWord] & fromMask);
+        for (int word = fromWord + 1; word < toWord; word++) {
+            count += Long.bitCount(bits[word]);
+        }
+        return count + Long.bitCount(bits[toWord] & toMask);
+    }
+    
+    private static String departmentKey(String department) {
+        return department == null ? ALL_DEPARTMENTS : department;
+    }
+    
+    private record CalendarKey(String department, int year) {
+    }
+    
+    /** Holidays as loaded by one {@link #reload()}, with the calendars built from them so far. */
+    private static final class Snapshot {
+        
+        private final Map<String, Set<LocalDate>> holidaysByDepartment;
+        private final Set<DayOfWeek> weekendDays;
+        private final Map<CalendarKey, long[]> calendars = new ConcurrentHashMap<>();
+        
+        Snapshot(Map<String, Set<LocalDate>> holidaysByDepartment, Set<DayOfWeek> weekendDays) {
+            this.holidaysByDepartment = holidaysByDepartment;
+            this.weekendDays = weekendDays;
+        }
+        
+        long[] calendar(String department, int year) {
+            return calendars.computeIfAbsent(new CalendarKey(departmentKey(department), year), this::build);
+        }
+        
+        private long[] build(CalendarKey key) {
+            Set<LocalDate> companyHolidays = holidaysByDepartment.getOrDefault(ALL_DEPARTMENTS, Set.of());
+            Set<LocalDate> departmentHolidays = holidaysByDepartment.getOrDefault(key.department(), Set.of());
+            LocalDate day = LocalDate.ofYearDay(key.year(), 1);
+            int length = day.lengthOfYear();
+            long[] bits = new long[(length + 63) >>> 6];
+            for (int i = 0; i < length; i++, day = day.plusDays(1)) {
+                if (!weekendDays.contains(day.getDayOfWeek())
+                        && !companyHolidays.contains(day)
+                        && !departmentHolidays.contains(day)) {
+                    bits[i >>> 6] |= 1L << i;
+                }
+            }
+            return bits;
+        }
+    }
+}
@@ -0,0 +1,2 @@
+-- Version of each employee's leave history, the validator behind the history endpoints' ETags.
+ALTER TABLE employees ADD COLUMN IF NOT EXISTS leaves_version BIGINT DEFAULT 0 NOT NULL;
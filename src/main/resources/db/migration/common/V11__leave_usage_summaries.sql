@@ -0,0 +1,10 @@
+-- Approved leave days per department, month and leave type, maintained on approval. Leaves
+-- approved before this table existed are added by POST /api/analytics/leave-usage/rebuild.
+CREATE TABLE IF NOT EXISTS leave_usage_summaries (
+    usage_month DATE         NOT NULL,
+    department  VARCHAR(255) NOT NULL,
+    leave_type  VARCHAR(255) NOT NULL CHECK (leave_type IN ('SICK', 'CASUAL', 'EARNED')),
+    days_taken  BIGINT       NOT NULL,
+    leave_count BIGINT       NOT NULL,
+    PRIMARY KEY (usage_month, department, leave_type)
+);
@@ -0,0 +1,74 @@
+-- Schema as previously generated by Hibernate. IF NOT EXISTS lets databases created by
+-- ddl-auto be baselined (spring.flyway.baseline-on-migrate) and migrated in place.
+
+CREATE SEQUENCE IF NOT EXISTS outbox_events_seq START WITH 1 INCREMENT BY 50;
+
+CREATE SEQUENCE IF NOT EXISTS team_absence_days_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS leave_balances (
+    id           BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    sick_leave   INTEGER,
+    casual_leave INTEGER,
+    earned_leave INTEGER,
+    year         INTEGER NOT NULL,
+    version      BIGINT
+);
+
+CREATE TABLE IF NOT EXISTS employees (
+    id               BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name             VARCHAR(255) NOT NULL,
+    email            VARCHAR(255) NOT NULL UNIQUE,
+    department       VARCHAR(255) NOT NULL,
+    manager_id       BIGINT,
+    leave_balance_id BIGINT UNIQUE REFERENCES leave_balances (id)
+);
+
+CREATE TABLE IF NOT EXISTS leaves (
+    id             BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    employee_id    BIGINT       NOT NULL REFERENCES employees (id),
+    leave_type     VARCHAR(255) NOT NULL CHECK (leave_type IN ('SICK', 'CASUAL', 'EARNED')),
+    start_date     DATE         NOT NULL,
+    end_date       DATE         NOT NULL,
+    number_of_days INTEGER      NOT NULL,
+    reason         VARCHAR(255),
+    status         VARCHAR(255) NOT NULL CHECK (status IN ('PENDING', 'APPROVED', 'REJECTED', 'CANCELLED')),
+    approved_by    BIGINT,
+    comments       VARCHAR(255),
+    applied_date   DATE         NOT NULL,
+    version        BIGINT
+);
+
+CREATE TABLE IF NOT EXISTS holidays (
+    id           BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    department   VARCHAR(255),
+    holiday_date DATE         NOT NULL,
+    name         VARCHAR(255) NOT NULL,
+    UNIQUE (department, holiday_date)
+);
+
+CREATE TABLE IF NOT EXISTS outbox_events (
+    id              BIGINT                      NOT NULL PRIMARY KEY,
+    leave_id        BIGINT                      NOT NULL,
+    recipient_email VARCHAR(255)                NOT NULL,
+    employee_name   VARCHAR(255),
+    status          VARCHAR(255)                NOT NULL CHECK (status IN ('PENDING', 'APPROVED', 'REJECTED', 'CANCELLED')),
+    comments        VARCHAR(255),
+    created_at      TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    claimed_at      TIMESTAMP(6) WITH TIME ZONE,
+    attempts        INTEGER                     NOT NULL,
+    processed_at    TIMESTAMP(6) WITH TIME ZONE
+);
+
+CREATE TABLE IF NOT EXISTS team_absence_days (
+    id            BIGINT       NOT NULL PRIMARY KEY,
+    manager_id    BIGINT       NOT NULL,
+    absence_date  DATE         NOT NULL,
+    employee_id   BIGINT       NOT NULL,
+    employee_name VARCHAR(255) NOT NULL,
+    leave_id      BIGINT       NOT NULL,
+    leave_type    VARCHAR(255) NOT NULL CHECK (leave_type IN ('SICK', 'CASUAL', 'EARNED'))
+);
+
+CREATE INDEX IF NOT EXISTS idx_leaves_employee_dates ON leaves (employee_id, end_date, start_date);
+
+CREATE INDEX IF NOT EXISTS idx_team_absence_days_manager_date ON team_absence_days (manager_id, absence_date);
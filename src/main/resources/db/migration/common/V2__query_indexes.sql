@@ -0,0 +1,16 @@
+-- Indexes for the queries in LeaveRepository, EmployeeRepository and OutboxEventRepository.
+
+-- Team queries start from the manager's employees
+CREATE INDEX IF NOT EXISTS idx_employees_manager_id ON employees (manager_id);
+
+-- Employee and team history pages: keyset pagination newest first
+CREATE INDEX IF NOT EXISTS idx_leaves_employee_applied ON leaves (employee_id, applied_date DESC, id DESC);
+
+-- Team leaves in one status, e.g. a manager's approval queue
+CREATE INDEX IF NOT EXISTS idx_leaves_employee_status_start ON leaves (employee_id, status, start_date);
+
+-- Leaves in one status across the company
+CREATE INDEX IF NOT EXISTS idx_leaves_status_applied ON leaves (status, applied_date);
+
+-- Outbox cleanup of processed events
+CREATE INDEX IF NOT EXISTS idx_outbox_events_processed_at ON outbox_events (processed_at);
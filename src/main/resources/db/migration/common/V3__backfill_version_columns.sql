@@ -0,0 +1,8 @@
+-- Optimistic locking columns added after the first releases. Rows created before them have no
+-- version, which Hibernate cannot compare.
+
+ALTER TABLE leaves ADD COLUMN IF NOT EXISTS version BIGINT;
+UPDATE leaves SET version = 0 WHERE version IS NULL;
+
+ALTER TABLE leave_balances ADD COLUMN IF NOT EXISTS version BIGINT;
+UPDATE leave_balances SET version = 0 WHERE version IS NULL;
@@ -0,0 +1,2 @@
+-- Leave export: leaves ending on or after the start of the range, read in index order
+CREATE INDEX IF NOT EXISTS idx_leaves_end_date ON leaves (end_date, id);
@@ -0,0 +1,6 @@
+-- Employees and balances take pooled ids from sequences so Hibernate can batch their inserts.
+-- The identity columns are left in place, but rows must now be inserted with ids from these
+-- sequences rather than the identity defaults.
+CREATE SEQUENCE IF NOT EXISTS employees_seq START WITH 1 INCREMENT BY 50;
+
+CREATE SEQUENCE IF NOT EXISTS leave_balances_seq START WITH 1 INCREMENT BY 50;
@@ -0,0 +1,30 @@
+-- Year-end balance rollover runs and their per-partition checkpoints.
+CREATE SEQUENCE IF NOT EXISTS balance_rollovers_seq START WITH 1 INCREMENT BY 50;
+
+CREATE SEQUENCE IF NOT EXISTS balance_rollover_partitions_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS balance_rollovers (
+    id                     BIGINT                      NOT NULL PRIMARY KEY,
+    from_year              INTEGER                     NOT NULL UNIQUE,
+    status                 VARCHAR(255)                NOT NULL CHECK (status IN ('RUNNING', 'COMPLETED')),
+    started_at             TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    finished_at            TIMESTAMP(6) WITH TIME ZONE,
+    balances_rolled        BIGINT                      NOT NULL,
+    earned_carried_forward BIGINT                      NOT NULL,
+    earned_forfeited       BIGINT                      NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS balance_rollover_partitions (
+    id                     BIGINT  NOT NULL PRIMARY KEY,
+    rollover_id            BIGINT  NOT NULL REFERENCES balance_rollovers (id),
+    partition_no           INTEGER NOT NULL,
+    next_id                BIGINT  NOT NULL,
+    end_id                 BIGINT  NOT NULL,
+    balances_rolled        BIGINT  NOT NULL,
+    earned_carried_forward BIGINT  NOT NULL,
+    earned_forfeited       BIGINT  NOT NULL,
+    UNIQUE (rollover_id, partition_no)
+);
+
+-- Finds the id range of a year's balances and walks it in chunks
+CREATE INDEX IF NOT EXISTS idx_leave_balances_year_id ON leave_balances (year, id);
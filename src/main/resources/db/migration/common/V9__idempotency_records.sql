@@ -0,0 +1,12 @@
+-- Requests made with an Idempotency-Key and the responses replayed to their retries.
+CREATE TABLE IF NOT EXISTS idempotency_records (
+    id              VARCHAR(64)                 NOT NULL PRIMARY KEY,
+    request_hash    VARCHAR(64)                 NOT NULL,
+    status          VARCHAR(255)                NOT NULL CHECK (status IN ('IN_PROGRESS', 'COMPLETED')),
+    response_status INTEGER,
+    response_body   VARCHAR(8000),
+    created_at      TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    expires_at      TIMESTAMP(6) WITH TIME ZONE NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_idempotency_records_expires_at ON idempotency_records (expires_at);
@@ -0,0 +1,17 @@
+-- PostgreSQL only: partial indexes and the exclusion constraint have no H2 equivalent.
+
+-- Pending leaves are a small, hot slice of the table: the approval queues
+CREATE INDEX IF NOT EXISTS idx_leaves_pending_employee ON leaves (employee_id, applied_date)
+    WHERE status = 'PENDING';
+
+-- The outbox relay only reads undelivered events, in id order
+CREATE INDEX IF NOT EXISTS idx_outbox_events_unprocessed ON outbox_events (id)
+    WHERE processed_at IS NULL;
+
+-- Backstop for the overlap check in LeaveServiceImpl.applyLeave: an employee's pending and
+-- approved leaves may not share a day. Fails if existing data already overlaps.
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+ALTER TABLE leaves ADD CONSTRAINT leaves_no_active_overlap
+    EXCLUDE USING gist (employee_id WITH =, daterange(start_date, end_date, '[]') WITH &&)
+    WHERE (status IN ('PENDING', 'APPROVED'));
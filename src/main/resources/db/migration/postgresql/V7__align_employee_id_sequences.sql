@@ -0,0 +1,5 @@
+-- Hibernate's pooled optimizer reads a sequence value as the top of a block of 50 ids, so
+-- the first value must be at least 50 past the highest existing id.
+SELECT setval('employees_seq', COALESCE(MAX(id), 0) + 50, false) FROM employees;
+
+SELECT setval('leave_balances_seq', COALESCE(MAX(id), 0) + 50, false) FROM leave_balances;
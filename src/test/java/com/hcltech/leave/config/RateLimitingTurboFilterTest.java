@@ -0,0 +1,67 @@
+package com.hcltech.leave.config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.core.spi.FilterReply;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimitingTurboFilterTest {
+
+    private final LoggerContext loggerContext = new LoggerContext();
+    private final RateLimitingTurboFilter filter = new RateLimitingTurboFilter();
+
+    @BeforeEach
+    void setUp() {
+        filter.setLoggerPrefix("org.hibernate.SQL");
+        filter.setMaxPerSecond(3);
+        loggerContext.getLogger("org.hibernate.SQL").setLevel(Level.DEBUG);
+    }
+
+    @Test
+    void decide_DeniesEventsOverTheLimit() {
+        // Arrange
+        Logger sqlLogger = loggerContext.getLogger("org.hibernate.SQL");
+
+        // Act & Assert
+        for (int i = 0; i < 3; i++) {
+            assertEquals(FilterReply.NEUTRAL, decide(sqlLogger, Level.DEBUG));
+        }
+        assertEquals(FilterReply.DENY, decide(sqlLogger, Level.DEBUG));
+    }
+
+    @Test
+    void decide_LevelChecksAreNotCounted() {
+        // Arrange
+        Logger sqlLogger = loggerContext.getLogger("org.hibernate.SQL");
+
+        // Act & Assert
+        for (int i = 0; i < 3; i++) {
+            assertEquals(FilterReply.NEUTRAL, filter.decide(null, sqlLogger, Level.DEBUG, null, null, null));
+            assertEquals(FilterReply.NEUTRAL, decide(sqlLogger, Level.DEBUG));
+        }
+        assertEquals(FilterReply.DENY, filter.decide(null, sqlLogger, Level.DEBUG, null, null, null));
+        assertEquals(FilterReply.DENY, decide(sqlLogger, Level.DEBUG));
+    }
+
+    @Test
+    void decide_IgnoresOtherLoggersAndDisabledLevels() {
+        // Arrange
+        Logger sqlLogger = loggerContext.getLogger("org.hibernate.SQL");
+        Logger otherLogger = loggerContext.getLogger("com.hcltech.leave");
+
+        // Act & Assert
+        for (int i = 0; i < 10; i++) {
+            assertEquals(FilterReply.NEUTRAL, decide(otherLogger, Level.INFO));
+            assertEquals(FilterReply.NEUTRAL, decide(sqlLogger, Level.TRACE));
+        }
+        assertEquals(FilterReply.NEUTRAL, decide(sqlLogger, Level.DEBUG));
+    }
+
+    private FilterReply decide(Logger logger, Level level) {
+        return filter.decide(null, logger, level, "select 1", null, null);
+    }
+}
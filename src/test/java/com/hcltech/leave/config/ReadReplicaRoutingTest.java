@@ -0,0 +1,159 @@
+package com.hcltech.leave.config;
+
+import com.hcltech.leave.dto.LeaveHistoryQuery;
+import com.hcltech.leave.dto.LeaveRequestDTO;
+import com.hcltech.leave.enums.LeaveType;
+import com.hcltech.leave.model.Employee;
+import com.hcltech.leave.model.LeaveBalance;
+import com.hcltech.leave.repository.EmployeeRepository;
+import com.hcltech.leave.service.LeaveBalanceCache;
+import com.hcltech.leave.service.LeaveService;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Two H2 databases stand in for the primary and its replica. Replication is copying the primary
+ * into the replica; changes made after that are replication lag.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+    "spring.datasource.url=" + ReadReplicaRoutingTest.PRIMARY_URL,
+    "leave.datasource.replica.url=" + ReadReplicaRoutingTest.REPLICA_URL,
+    "spring.flyway.enabled=true",
+    "spring.jpa.hibernate.ddl-auto=validate"
+})
+@ActiveProfiles("test")
+class ReadReplicaRoutingTest {
+
+    static final String PRIMARY_URL = "jdbc:h2:mem:leave_primary;DB_CLOSE_DELAY=-1;MODE=PostgreSQL;"
+        + "DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=YEAR,MONTH,VALUE";
+    static final String REPLICA_URL = "jdbc:h2:mem:leave_replica;DB_CLOSE_DELAY=-1;MODE=PostgreSQL;"
+        + "DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=YEAR,MONTH,VALUE";
+
+    static {
+        // Startup already reads from the replica, before any test can copy the primary into it
+        Flyway.configure()
+            .dataSource(REPLICA_URL, "sa", "")
+            .locations("classpath:db/migration/common")
+            .load()
+            .migrate();
+    }
+
+    private static final LocalDate NEXT_MONDAY = LocalDate.now().with(TemporalAdjusters.next(DayOfWeek.MONDAY));
+    private static final AtomicInteger EMPLOYEES = new AtomicInteger();
+
+    @Autowired
+    private LeaveService leaveService;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private LeaveBalanceCache leaveBalanceCache;
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private DataSource primaryDataSource;
+
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private DataSource replicaDataSource;
+
+    private JdbcTemplate primary;
+    private JdbcTemplate replica;
+    private Employee manager;
+    private Employee employee;
+    private Employee colleague;
+
+    @BeforeEach
+    void setUp() {
+        primary = new JdbcTemplate(primaryDataSource);
+        replica = new JdbcTemplate(replicaDataSource);
+        manager = employeeRepository.save(employee(null));
+        employee = employeeRepository.save(employee(manager.getId()));
+        colleague = employeeRepository.save(employee(manager.getId()));
+        replicate();
+        leaveBalanceCache.evictAll();
+    }
+
+    @Test
+    void readOnlyReads_GoToTheReplica() {
+        primary.update("UPDATE leave_balances SET casual_leave = 5 WHERE id = ?",
+            employee.getLeaveBalance().getId());
+
+        assertEquals(12, leaveService.getLeaveBalance(employee.getId()).getCasualLeave());
+    }
+
+    @Test
+    void writes_GoToThePrimary() {
+        leaveService.applyLeave(casualLeave(employee));
+
+        assertEquals(1, count(primary, employee));
+        assertEquals(0, count(replica, employee));
+    }
+
+    @Test
+    void readsAfterAWrite_SeeItOnThePrimary() {
+        leaveService.applyLeave(casualLeave(employee));
+
+        assertEquals(1, leaveService.getEmployeeLeaves(employee.getId(), LeaveHistoryQuery.builder().build())
+            .getContent().size());
+        assertEquals(1, leaveService.getTeamLeaves(manager.getId(), LeaveHistoryQuery.builder().build())
+            .getContent().size());
+        assertEquals(1L, leaveService.getEmployeeLeavesVersion(employee.getId()).orElseThrow());
+    }
+
+    @Test
+    void readsOfOthers_StayOnTheReplicaAfterAWrite() {
+        leaveService.applyLeave(casualLeave(employee));
+        primary.update("UPDATE employees SET leaves_version = 7 WHERE id = ?", colleague.getId());
+
+        assertEquals(0L, leaveService.getEmployeeLeavesVersion(colleague.getId()).orElseThrow());
+    }
+
+    private void replicate() {
+        String[] script = primary.queryForList("SCRIPT", String.class).toArray(String[]::new);
+        replica.execute("DROP ALL OBJECTS");
+        replica.batchUpdate(script);
+    }
+
+    private static int count(JdbcTemplate database, Employee employee) {
+        return database.queryForObject("SELECT COUNT(*) FROM leaves WHERE employee_id = ?", Integer.class,
+            employee.getId());
+    }
+
+    private static LeaveRequestDTO casualLeave(Employee employee) {
+        return LeaveRequestDTO.builder()
+            .employeeId(employee.getId())
+            .leaveType(LeaveType.CASUAL)
+            .startDate(NEXT_MONDAY)
+            .endDate(NEXT_MONDAY.plusDays(1))
+            .reason("Family function")
+            .build();
+    }
+
+    private static Employee employee(Long managerId) {
+        int n = EMPLOYEES.incrementAndGet();
+        return Employee.builder()
+            .name("Employee " + n)
+            .email("replica" + n + "@hcltech.com")
+            .department("IT")
+            .managerId(managerId)
+            .leaveBalance(LeaveBalance.builder().sickLeave(10).casualLeave(12).earnedLeave(18)
+                .year(LocalDate.now().getYear()).build())
+            .build();
+    }
+}
@@ -0,0 +1,82 @@
+package com.hcltech.leave.config;
+
+import com.hcltech.leave.dto.LeaveApprovalDTO;
+import com.hcltech.leave.dto.LeaveRequestDTO;
+import com.hcltech.leave.dto.LeaveResponseDTO;
+import com.hcltech.leave.enums.LeaveStatus;
+import com.hcltech.leave.enums.LeaveType;
+import com.hcltech.leave.model.Employee;
+import com.hcltech.leave.model.LeaveBalance;
+import com.hcltech.leave.repository.EmployeeRepository;
+import com.hcltech.leave.service.LeaveService;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties =
+    "spring.datasource.url=jdbc:h2:mem:leave_tuned;DB_CLOSE_DELAY=-1;MODE=PostgreSQL;"
+        + "DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=YEAR,MONTH,VALUE")
+@ActiveProfiles({"tuned", "test"})
+class TunedProfileTest {
+
+    private static final LocalDate NEXT_MONDAY = LocalDate.now().with(TemporalAdjusters.next(DayOfWeek.MONDAY));
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private LeaveService leaveService;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Test
+    void pool_HandsOutConnectionsWithAutoCommitOff() {
+        HikariDataSource pool = assertInstanceOf(HikariDataSource.class, dataSource);
+
+        assertFalse(pool.isAutoCommit());
+        assertEquals(pool.getMaximumPoolSize(), pool.getMinimumIdle());
+    }
+
+    @Test
+    void applyAndApprove_AreCommitted() {
+        Employee employee = employeeRepository.save(Employee.builder()
+            .name("John Doe")
+            .email("john.tuned@hcltech.com")
+            .department("IT")
+            .managerId(99L)
+            .leaveBalance(LeaveBalance.builder().sickLeave(10).casualLeave(12).earnedLeave(18)
+                .year(LocalDate.now().getYear()).build())
+            .build());
+
+        LeaveResponseDTO applied = leaveService.applyLeave(LeaveRequestDTO.builder()
+            .employeeId(employee.getId())
+            .leaveType(LeaveType.CASUAL)
+            .startDate(NEXT_MONDAY)
+            .endDate(NEXT_MONDAY.plusDays(1))
+            .reason("Family function")
+            .build());
+        leaveService.approveOrRejectLeave(LeaveApprovalDTO.builder()
+            .leaveId(applied.getId())
+            .managerId(99L)
+            .status(LeaveStatus.APPROVED)
+            .build());
+
+        // Work left uncommitted would have been rolled back when its connection went back to the pool
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        assertEquals("APPROVED", jdbc.queryForObject("SELECT status FROM leaves WHERE id = ?",
+            String.class, applied.getId()));
+        assertEquals(10, jdbc.queryForObject("SELECT casual_leave FROM leave_balances WHERE id = ?",
+            Integer.class, employee.getLeaveBalance().getId()));
+    }
+}
@@ -0,0 +1,58 @@
+package com.hcltech.leave.controller;
+
+import com.hcltech.leave.dto.BalanceRolloverDTO;
+import com.hcltech.leave.enums.RolloverStatus;
+import com.hcltech.leave.exception.ResourceNotFoundException;
+import com.hcltech.leave.service.BalanceRolloverJob;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(BalanceRolloverController.class)
+class BalanceRolloverControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private BalanceRolloverJob balanceRolloverJob;
+
+    @Test
+    void testRollOver() throws Exception {
+        // Arrange
+        when(balanceRolloverJob.rollOver(2024)).thenReturn(BalanceRolloverDTO.builder()
+                .fromYear(2024)
+                .toYear(2025)
+                .status(RolloverStatus.COMPLETED)
+                .balancesRolled(1200)
+                .earnedCarriedForward(9000)
+                .earnedForfeited(150)
+                .build());
+
+        // Act & Assert
+        mockMvc.perform(post("/api/balances/rollover").param("fromYear", "2024"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("COMPLETED"))
+                .andExpect(jsonPath("$.balancesRolled").value(1200))
+                .andExpect(jsonPath("$.earnedForfeited").value(150));
+    }
+
+    @Test
+    void testGetRollover_NotFound() throws Exception {
+        // Arrange
+        when(balanceRolloverJob.getRollover(2020))
+                .thenThrow(new ResourceNotFoundException("No balance rollover from year: 2020"));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/balances/rollover/2020"))
+                .andExpect(status().isNotFound());
+    }
+}
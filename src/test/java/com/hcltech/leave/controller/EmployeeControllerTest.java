@@ -0,0 +1,64 @@
+package com.hcltech.leave.controller;
+
+import com.hcltech.leave.dto.EmployeeImportErrorDTO;
+import com.hcltech.leave.dto.EmployeeImportResultDTO;
+import com.hcltech.leave.exception.InvalidImportFileException;
+import com.hcltech.leave.service.EmployeeImportService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.InputStream;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(EmployeeController.class)
+class EmployeeControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private EmployeeImportService employeeImportService;
+
+    @Test
+    void testImportEmployees() throws Exception {
+        // Arrange
+        EmployeeImportResultDTO result = EmployeeImportResultDTO.builder()
+                .totalRows(2)
+                .imported(1)
+                .failed(1)
+                .errors(List.of(new EmployeeImportErrorDTO(3, "bad", "email is not a valid address")))
+                .build();
+        when(employeeImportService.importCsv(any(InputStream.class))).thenReturn(result);
+
+        // Act & Assert
+        mockMvc.perform(post("/api/employees/import")
+                        .contentType("text/csv")
+                        .content("name,email,department,manager_id,sick_leave,casual_leave,earned_leave\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(1))
+                .andExpect(jsonPath("$.errors[0].line").value(3));
+    }
+
+    @Test
+    void testImportEmployees_InvalidHeader() throws Exception {
+        // Arrange
+        when(employeeImportService.importCsv(any(InputStream.class)))
+                .thenThrow(new InvalidImportFileException("Unexpected CSV header"));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/employees/import")
+                        .contentType("text/csv")
+                        .content("id,name\n"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Unexpected CSV header"));
+    }
+}
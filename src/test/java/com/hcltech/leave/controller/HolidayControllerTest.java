@@ -0,0 +1,31 @@
+package com.hcltech.leave.controller;
+
+import com.hcltech.leave.service.WorkingDayCalendar;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(HolidayController.class)
+class HolidayControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private WorkingDayCalendar workingDayCalendar;
+
+    @Test
+    void testReloadHolidays() throws Exception {
+        // Act & Assert
+        mockMvc.perform(post("/api/holidays/reload"))
+                .andExpect(status().isNoContent());
+
+        verify(workingDayCalendar).reload();
+    }
+}
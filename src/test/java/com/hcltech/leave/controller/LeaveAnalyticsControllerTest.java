@@ -0,0 +1,79 @@
+package com.hcltech.leave.controller;
+
+import com.hcltech.leave.dto.LeaveUsageDTO;
+import com.hcltech.leave.enums.LeaveType;
+import com.hcltech.leave.exception.InvalidDateException;
+import com.hcltech.leave.service.LeaveUsageService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(LeaveAnalyticsController.class)
+class LeaveAnalyticsControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private LeaveUsageService leaveUsageService;
+
+    @Test
+    void testGetLeaveUsage() throws Exception {
+        // Arrange
+        YearMonth january = YearMonth.of(2024, 1);
+        YearMonth june = YearMonth.of(2024, 6);
+        when(leaveUsageService.getUsage(january, june, "IT", LeaveType.SICK)).thenReturn(List.of(
+            LeaveUsageDTO.builder()
+                .department("IT")
+                .month(YearMonth.of(2024, 3))
+                .leaveType(LeaveType.SICK)
+                .daysTaken(12)
+                .leaveCount(5)
+                .build()));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/analytics/leave-usage")
+                .param("from", "2024-01")
+                .param("to", "2024-06")
+                .param("department", "IT")
+                .param("leaveType", "SICK"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].month").value("2024-03"))
+                .andExpect(jsonPath("$[0].daysTaken").value(12))
+                .andExpect(jsonPath("$[0].leaveCount").value(5));
+    }
+
+    @Test
+    void testGetLeaveUsage_FromAfterTo() throws Exception {
+        // Arrange
+        when(leaveUsageService.getUsage(YearMonth.of(2024, 6), YearMonth.of(2024, 1), null, null))
+            .thenThrow(new InvalidDateException("Usage start month cannot be after end month"));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/analytics/leave-usage")
+                .param("from", "2024-06")
+                .param("to", "2024-01"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testRebuildLeaveUsage() throws Exception {
+        // Act & Assert
+        mockMvc.perform(post("/api/analytics/leave-usage/rebuild"))
+                .andExpect(status().isNoContent());
+
+        verify(leaveUsageService).rebuild();
+    }
+}
@@ -1,29 +1,62 @@
 package com.hcltech.leave.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hcltech.leave.config.IdempotencyProperties;
 import com.hcltech.leave.dto.LeaveRequestDTO;
 import com.hcltech.leave.dto.LeaveResponseDTO;
 import com.hcltech.leave.dto.LeaveApprovalDTO;
+import com.hcltech.leave.dto.LeaveApprovalResultDTO;
+import com.hcltech.leave.dto.LeaveHistoryPageDTO;
+import com.hcltech.leave.dto.LeaveHistoryQuery;
+import com.hcltech.leave.dto.PendingApprovalCountDTO;
+import com.hcltech.leave.dto.TeamCalendarDayDTO;
+import com.hcltech.leave.enums.ExportFormat;
 import com.hcltech.leave.enums.LeaveStatus;
 import com.hcltech.leave.enums.LeaveType;
+import com.hcltech.leave.exception.InvalidDateException;
+import com.hcltech.leave.exception.ResourceNotFoundException;
+import com.hcltech.leave.model.LeaveBalance;
+import com.hcltech.leave.repository.IdempotencyRecordRepository;
+import com.hcltech.leave.service.IdempotencyService;
+import com.hcltech.leave.service.LeaveBalanceLookup;
+import com.hcltech.leave.service.LeaveExportService;
 import com.hcltech.leave.service.LeaveService;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
 
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
-@WebMvcTest(LeaveController.class)
+@WebMvcTest(value = LeaveController.class, properties = "leave.idempotency.database-fallback=false")
+@EnableConfigurationProperties(IdempotencyProperties.class)
+@Import(IdempotencyService.class)
 class LeaveControllerTest {
 
     @Autowired
@@ -35,6 +68,15 @@ class LeaveControllerTest {
     @MockitoBean
     private LeaveService leaveService;
 
+    @MockitoBean
+    private LeaveExportService leaveExportService;
+
+    @MockitoBean
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    @MockitoBean
+    private LeaveBalanceLookup leaveBalanceLookup;
+
     @Test
     void testApplyLeave_Success() throws Exception {
         // Arrange
@@ -66,6 +108,40 @@ class LeaveControllerTest {
                 .andExpect(jsonPath("$.status").value("PENDING"));
     }
 
+    @Test
+    void testApplyLeave_RetryWithIdempotencyKey_ReplaysResponse() throws Exception {
+        // Arrange
+        LeaveRequestDTO requestDTO = LeaveRequestDTO.builder()
+                .employeeId(1L)
+                .leaveType(LeaveType.CASUAL)
+                .startDate(LocalDate.now().plusDays(1))
+                .endDate(LocalDate.now().plusDays(3))
+                .reason("Personal work - family function to attend")
+                .build();
+
+        when(leaveService.applyLeave(any(LeaveRequestDTO.class))).thenReturn(LeaveResponseDTO.builder()
+                .id(7L)
+                .status(LeaveStatus.PENDING)
+                .build());
+
+        // Act & Assert
+        for (int attempt = 0; attempt < 2; attempt++) {
+            mockMvc.perform(post("/api/leaves")
+                            .header(IdempotencyService.HEADER, "retry-key")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(requestDTO)))
+                    .andExpect(status().isCreated())
+                    .andExpect(jsonPath("$.id").value(7));
+        }
+        mockMvc.perform(post("/api/leaves")
+                        .header(IdempotencyService.HEADER, "retry-key")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(requestDTO)))
+                .andExpect(header().string(IdempotencyService.REPLAYED_HEADER, "true"));
+
+        verify(leaveService, times(1)).applyLeave(any(LeaveRequestDTO.class));
+    }
+
     @Test
     void testApproveLeave_Success() throws Exception {
         // Arrange
@@ -91,6 +167,38 @@ class LeaveControllerTest {
                 .andExpect(jsonPath("$.status").value("APPROVED"));
     }
 
+    @Test
+    void testApproveOrRejectLeaves_Success() throws Exception {
+        // Arrange
+        List<LeaveApprovalDTO> approvals = List.of(
+                LeaveApprovalDTO.builder().leaveId(1L).managerId(2L).status(LeaveStatus.APPROVED).build(),
+                LeaveApprovalDTO.builder().leaveId(2L).managerId(2L).status(LeaveStatus.REJECTED).build());
+
+        when(leaveService.approveOrRejectLeaves(any())).thenReturn(List.of(
+                LeaveApprovalResultDTO.builder().leaveId(1L).success(true).build(),
+                LeaveApprovalResultDTO.builder().leaveId(2L).success(false).message("Leave is already processed").build()));
+
+        // Act & Assert
+        mockMvc.perform(put("/api/leaves/approve/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(approvals)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].success").value(true))
+                .andExpect(jsonPath("$[1].success").value(false))
+                .andExpect(jsonPath("$[1].message").value("Leave is already processed"));
+    }
+
+    @Test
+    void testApproveOrRejectLeaves_NullItem() throws Exception {
+        // Act & Assert
+        mockMvc.perform(put("/api/leaves/approve/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[null]"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Bulk decision items must not be null"));
+        verify(leaveService, never()).approveOrRejectLeaves(any());
+    }
+
     @Test
     void testCancelLeave_Success() throws Exception {
         // Arrange
@@ -116,30 +224,245 @@ class LeaveControllerTest {
                 .employeeName("John Doe")
                 .status(LeaveStatus.PENDING)
                 .build();
+        LeaveHistoryPageDTO page = LeaveHistoryPageDTO.builder()
+                .content(List.of(responseDTO))
+                .nextCursor("next")
+                .hasNext(true)
+                .build();
 
-        when(leaveService.getEmployeeLeaves(1L)).thenReturn(List.of(responseDTO));
+        when(leaveService.getEmployeeLeaves(eq(1L), any(LeaveHistoryQuery.class))).thenReturn(page);
 
         // Act & Assert
         mockMvc.perform(get("/api/leaves/employee/1"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$[0].id").value(1));
+                .andExpect(jsonPath("$.content[0].id").value(1))
+                .andExpect(jsonPath("$.nextCursor").value("next"))
+                .andExpect(jsonPath("$.hasNext").value(true));
+    }
+
+    @Test
+    void testGetEmployeeLeaves_BindsFilters() throws Exception {
+        // Arrange
+        when(leaveService.getEmployeeLeaves(eq(1L), any(LeaveHistoryQuery.class)))
+                .thenReturn(LeaveHistoryPageDTO.builder().content(List.of()).build());
+
+        // Act
+        mockMvc.perform(get("/api/leaves/employee/1")
+                        .param("status", "APPROVED")
+                        .param("from", "2024-01-01")
+                        .param("to", "2024-12-31")
+                        .param("cursor", "abc")
+                        .param("size", "50"))
+                .andExpect(status().isOk());
+
+        // Assert
+        ArgumentCaptor<LeaveHistoryQuery> captor = ArgumentCaptor.forClass(LeaveHistoryQuery.class);
+        verify(leaveService).getEmployeeLeaves(eq(1L), captor.capture());
+        LeaveHistoryQuery query = captor.getValue();
+        assertEquals(LeaveStatus.APPROVED, query.getStatus());
+        assertEquals(LocalDate.of(2024, 1, 1), query.getFrom());
+        assertEquals(LocalDate.of(2024, 12, 31), query.getTo());
+        assertEquals("abc", query.getCursor());
+        assertEquals(50, query.getSize());
+    }
+
+    @Test
+    void testGetEmployeeLeaves_NotModifiedWithoutReadingLeaves() throws Exception {
+        // Arrange
+        when(leaveService.getEmployeeLeavesVersion(1L)).thenReturn(Optional.of(5L));
+        when(leaveService.getEmployeeLeaves(eq(1L), any(LeaveHistoryQuery.class)))
+                .thenReturn(LeaveHistoryPageDTO.builder().content(List.of()).build());
+
+        // Act & Assert
+        mockMvc.perform(get("/api/leaves/employee/1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"employee-1-5\""));
+        mockMvc.perform(get("/api/leaves/employee/1").header(HttpHeaders.IF_NONE_MATCH, "\"employee-1-5\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        verify(leaveService, times(1)).getEmployeeLeaves(eq(1L), any(LeaveHistoryQuery.class));
+    }
+
+    @Test
+    void testGetEmployeeLeaves_PageSizeTooLarge() throws Exception {
+        // Act & Assert
+        mockMvc.perform(get("/api/leaves/employee/1").param("size", "500"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.size").exists());
     }
 
     @Test
     void testGetTeamLeaves_Success() throws Exception {
         // Arrange
-        when(leaveService.getTeamLeaves(2L)).thenReturn(List.of());
+        when(leaveService.getTeamLeaves(eq(2L), any(LeaveHistoryQuery.class)))
+                .thenReturn(LeaveHistoryPageDTO.builder().content(List.of()).build());
 
         // Act & Assert
         mockMvc.perform(get("/api/leaves/manager/2/team"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$").isArray());
+                .andExpect(jsonPath("$.content").isArray())
+                .andExpect(jsonPath("$.hasNext").value(false));
+    }
+
+    @Test
+    void testGetTeamLeaves_NotModifiedUntilATeamLeaveChanges() throws Exception {
+        // Arrange
+        when(leaveService.getTeamLeavesVersion(2L)).thenReturn("41", "42");
+        when(leaveService.getTeamLeaves(eq(2L), any(LeaveHistoryQuery.class)))
+                .thenReturn(LeaveHistoryPageDTO.builder().content(List.of()).build());
+
+        // Act & Assert
+        mockMvc.perform(get("/api/leaves/manager/2/team").header(HttpHeaders.IF_NONE_MATCH, "\"team-2-41\""))
+                .andExpect(status().isNotModified());
+        verify(leaveService, never()).getTeamLeaves(eq(2L), any(LeaveHistoryQuery.class));
+
+        mockMvc.perform(get("/api/leaves/manager/2/team").header(HttpHeaders.IF_NONE_MATCH, "\"team-2-41\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"team-2-42\""));
+    }
+
+    @Test
+    void testGetPendingApprovals_Success() throws Exception {
+        // Arrange
+        when(leaveService.getPendingApprovals(2L)).thenReturn(List.of(LeaveResponseDTO.builder()
+                .id(5L)
+                .employeeName("John Doe")
+                .status(LeaveStatus.PENDING)
+                .build()));
+        when(leaveService.countPendingApprovals(2L)).thenReturn(PendingApprovalCountDTO.builder()
+                .managerId(2L)
+                .pendingCount(1)
+                .build());
+
+        // Act & Assert
+        mockMvc.perform(get("/api/leaves/manager/2/pending"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(5))
+                .andExpect(jsonPath("$[0].status").value("PENDING"));
+        mockMvc.perform(get("/api/leaves/manager/2/pending/count"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.managerId").value(2))
+                .andExpect(jsonPath("$.pendingCount").value(1));
+    }
+
+    @Test
+    void testGetTeamCalendar_Success() throws Exception {
+        // Arrange
+        LocalDate from = LocalDate.of(2024, 3, 4);
+        when(leaveService.getTeamCalendar(2L, from, from.plusDays(1)))
+                .thenReturn(List.of(
+                        TeamCalendarDayDTO.builder().date(from).absentCount(1).absentEmployees(List.of("John Doe")).build(),
+                        TeamCalendarDayDTO.builder().date(from.plusDays(1)).absentEmployees(List.of()).build()));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/leaves/manager/2/calendar")
+                        .param("from", "2024-03-04")
+                        .param("to", "2024-03-05"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].date").value("2024-03-04"))
+                .andExpect(jsonPath("$[0].absentCount").value(1))
+                .andExpect(jsonPath("$[0].absentEmployees[0]").value("John Doe"))
+                .andExpect(jsonPath("$[1].absentCount").value(0));
+    }
+
+    @Test
+    void testExportLeaves_StreamsNdjsonAttachment() throws Exception {
+        // Arrange
+        LocalDate from = LocalDate.of(2024, 3, 1);
+        LocalDate to = LocalDate.of(2024, 3, 31);
+        when(leaveExportService.export(eq(from), eq(to), eq(ExportFormat.NDJSON), any(OutputStream.class)))
+                .thenAnswer(invocation -> {
+                    invocation.<OutputStream>getArgument(3).write("{\"id\":1}\n".getBytes(StandardCharsets.UTF_8));
+                    return 1L;
+                });
+
+        // Act & Assert
+        mockMvc.perform(get("/api/leaves/export")
+                        .param("from", "2024-03-01")
+                        .param("to", "2024-03-31")
+                        .param("format", "NDJSON"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson;charset=UTF-8"))
+                .andExpect(header().string("Content-Disposition",
+                        "attachment; filename=\"leaves-2024-03-01-2024-03-31.ndjson\""))
+                .andExpect(content().string("{\"id\":1}\n"));
+    }
+
+    @Test
+    void testExportLeaves_InvalidRange() throws Exception {
+        // Arrange
+        doThrow(new InvalidDateException("Export start date cannot be after end date"))
+                .when(leaveExportService).validateRange(LocalDate.of(2024, 3, 31), LocalDate.of(2024, 3, 1));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/leaves/export")
+                        .param("from", "2024-03-31")
+                        .param("to", "2024-03-01"))
+                .andExpect(status().isBadRequest());
+        verify(leaveExportService, never()).export(any(), any(), any(), any());
     }
 
     @Test
     void testGetLeaveBalance_Success() throws Exception {
+        // Arrange
+        when(leaveBalanceLookup.lookup(1L)).thenReturn(CompletableFuture.completedFuture(balance(3L)));
+
+        // Act & Assert
+        mockMvc.perform(asyncDispatch(getAsync("/api/leaves/balance/1", null)))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"balance-10-3\""))
+                .andExpect(jsonPath("$.casualLeave").value(12));
+    }
+
+    @Test
+    void testGetLeaveBalance_NotModifiedWhileVersionMatches() throws Exception {
+        // Arrange
+        when(leaveBalanceLookup.lookup(1L)).thenAnswer(invocation -> CompletableFuture.completedFuture(balance(3L)));
+
+        // Act & Assert
+        mockMvc.perform(asyncDispatch(getAsync("/api/leaves/balance/1", "\"balance-10-3\"")))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+        mockMvc.perform(asyncDispatch(getAsync("/api/leaves/balance/1", "\"balance-10-2\"")))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"balance-10-3\""));
+    }
+
+    @Test
+    void testGetLeaveBalance_LookupFailureUsesExceptionHandler() throws Exception {
+        // Arrange
+        when(leaveBalanceLookup.lookup(1L))
+                .thenReturn(CompletableFuture.failedFuture(new ResourceNotFoundException("Employee not found")));
+
+        // Act & Assert
+        mockMvc.perform(asyncDispatch(getAsync("/api/leaves/balance/1", null)))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.message").value("Employee not found"));
+    }
+
+    @Test
+    void testGetLeaveBalance_TooManyLookupsWaiting() throws Exception {
+        // Arrange
+        when(leaveBalanceLookup.lookup(1L)).thenThrow(new RejectedExecutionException("Queue full"));
+
         // Act & Assert
         mockMvc.perform(get("/api/leaves/balance/1"))
-                .andExpect(status().isOk());
+                .andExpect(status().isServiceUnavailable());
+    }
+
+    private MvcResult getAsync(String url, String ifNoneMatch) throws Exception {
+        MockHttpServletRequestBuilder builder = get(url);
+        if (ifNoneMatch != null) {
+            builder.header(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
+        return mockMvc.perform(builder)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+    }
+
+    private static LeaveBalance balance(Long version) {
+        return LeaveBalance.builder().id(10L).sickLeave(10).casualLeave(12).earnedLeave(18).year(2024)
+                .version(version).build();
     }
 }
\ No newline at end of file
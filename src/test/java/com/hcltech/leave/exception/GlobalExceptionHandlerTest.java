@@ -2,6 +2,7 @@ package com.hcltech.leave.exception;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
@@ -51,6 +52,72 @@ class GlobalExceptionHandlerTest {
         assertEquals("Insufficient leave balance", response.getBody().getMessage());
     }
 
+    @Test
+    void testHandleInvalidDate() {
+        // Arrange
+        InvalidDateException exception = new InvalidDateException("From date cannot be after to date");
+
+        // Act
+        ResponseEntity<ErrorResponse> response = exceptionHandler.handleInvalidDate(exception);
+
+        // Assert
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertEquals("From date cannot be after to date", response.getBody().getMessage());
+    }
+
+    @Test
+    void testHandleInvalidLeaveOperation() {
+        // Arrange
+        InvalidLeaveOperationException exception = new InvalidLeaveOperationException("Leave is already processed");
+
+        // Act
+        ResponseEntity<ErrorResponse> response = exceptionHandler.handleInvalidLeaveOperation(exception);
+
+        // Assert
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertEquals("Leave is already processed", response.getBody().getMessage());
+    }
+
+    @Test
+    void testHandleInvalidCursor() {
+        // Arrange
+        InvalidCursorException exception = new InvalidCursorException("Invalid page cursor");
+
+        // Act
+        ResponseEntity<ErrorResponse> response = exceptionHandler.handleInvalidCursor(exception);
+
+        // Assert
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertEquals("Invalid page cursor", response.getBody().getMessage());
+    }
+
+    @Test
+    void testHandleInvalidImportFile() {
+        // Arrange
+        InvalidImportFileException exception = new InvalidImportFileException("Unexpected CSV header");
+
+        // Act
+        ResponseEntity<ErrorResponse> response = exceptionHandler.handleInvalidImportFile(exception);
+
+        // Assert
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertEquals("Unexpected CSV header", response.getBody().getMessage());
+    }
+
+    @Test
+    void testHandleIdempotencyConflict() {
+        // Arrange
+        IdempotencyConflictException exception =
+            new IdempotencyConflictException("A request with this Idempotency-Key is still being processed");
+
+        // Act
+        ResponseEntity<ErrorResponse> response = exceptionHandler.handleIdempotencyConflict(exception);
+
+        // Assert
+        assertEquals(HttpStatus.CONFLICT, response.getStatusCode());
+        assertEquals("A request with this Idempotency-Key is still being processed", response.getBody().getMessage());
+    }
+
     @Test
     void testHandleValidationExceptions() {
         // Arrange
@@ -71,6 +138,47 @@ class GlobalExceptionHandlerTest {
         assertEquals("Reason is required", response.getBody().get("reason"));
     }
 
+    @Test
+    void testHandleOverlappingLeave() {
+        // Arrange
+        OverlappingLeaveException exception =
+            new OverlappingLeaveException("Leave overlaps an existing pending or approved leave");
+
+        // Act
+        ResponseEntity<ErrorResponse> response = exceptionHandler.handleOverlappingLeave(exception);
+
+        // Assert
+        assertEquals(HttpStatus.CONFLICT, response.getStatusCode());
+        assertEquals("Leave overlaps an existing pending or approved leave", response.getBody().getMessage());
+    }
+
+    @Test
+    void testHandleUnauthorized() {
+        // Arrange
+        UnauthorizedException exception = new UnauthorizedException("Not authorized to cancel this leave");
+
+        // Act
+        ResponseEntity<ErrorResponse> response = exceptionHandler.handleUnauthorized(exception);
+
+        // Assert
+        assertEquals(HttpStatus.FORBIDDEN, response.getStatusCode());
+        assertEquals("Not authorized to cancel this leave", response.getBody().getMessage());
+    }
+
+    @Test
+    void testHandleConcurrentUpdate() {
+        // Arrange
+        OptimisticLockingFailureException exception =
+            new OptimisticLockingFailureException("Row was updated by another transaction");
+
+        // Act
+        ResponseEntity<ErrorResponse> response = exceptionHandler.handleConcurrentUpdate(exception);
+
+        // Assert
+        assertEquals(HttpStatus.CONFLICT, response.getStatusCode());
+        assertEquals("Leave was updated concurrently. Please retry", response.getBody().getMessage());
+    }
+
     @Test
     void testHandleGlobalException() {
         // Arrange
@@ -0,0 +1,252 @@
+package com.hcltech.leave.repository;
+
+import com.hcltech.leave.dto.LeaveExportRow;
+import com.hcltech.leave.enums.LeaveStatus;
+import com.hcltech.leave.enums.LeaveType;
+import com.hcltech.leave.enums.RolloverStatus;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import jakarta.persistence.EntityManager;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the Flyway migrations instead of generating the schema, checks the entities against the
+ * result, then fails if any repository query on a seeded dataset plans a full table scan.
+ */
+@DataJpaTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:leave_query_plans;DB_CLOSE_DELAY=-1;MODE=PostgreSQL;"
+        + "DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=YEAR,MONTH,VALUE",
+    "spring.flyway.enabled=true",
+    "spring.jpa.hibernate.ddl-auto=validate",
+    "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.hcltech.leave.repository.RepositoryQueryPlanTest$StatementRecorder"
+})
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class RepositoryQueryPlanTest {
+
+    private static final int EMPLOYEES = 1000;
+    private static final int LEAVES_PER_EMPLOYEE = 20;
+    private static final int TEAM_SIZE = 10;
+    private static final LocalDate TODAY = LocalDate.of(2024, 6, 3);
+    private static final Pattern TABLE_SCAN = Pattern.compile("/\\* public\\.(\\w+)\\.tableScan \\*/");
+
+    /** Scans a query may plan because it reads most of that table anyway. */
+    private static final Map<String, Set<String>> EXPECTED_SCANS = Map.of(
+        // The export reads every employee with leave in the range: one pass over employees
+        // joined to their leaves through idx_leaves_employee_dates
+        "streamForExport", Set.of("employees"),
+        // One row per rolled over year
+        "findByStatus(RUNNING)", Set.of("balance_rollovers"));
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private LeaveRepository leaveRepository;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private LeaveBalanceRepository leaveBalanceRepository;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private TeamAbsenceDayRepository teamAbsenceDayRepository;
+
+    @Autowired
+    private BalanceRolloverRepository balanceRolloverRepository;
+
+    @Autowired
+    private BalanceRolloverPartitionRepository balanceRolloverPartitionRepository;
+
+    @Autowired
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    @Autowired
+    private LeaveUsageSummaryRepository leaveUsageSummaryRepository;
+
+    @BeforeEach
+    void seed() {
+        jdbcTemplate.update("""
+            INSERT INTO leave_balances (sick_leave, casual_leave, earned_leave, year, version)
+            SELECT 10, 12, 18, 2024, 0 FROM SYSTEM_RANGE(1, ?) AS r(n)
+            """, EMPLOYEES);
+        jdbcTemplate.update("""
+            INSERT INTO employees (name, email, department, manager_id, leave_balance_id)
+            SELECT 'Employee ' || n, 'employee' || n || '@hcltech.com', 'IT', (n - 1) / ? + 1, n
+            FROM SYSTEM_RANGE(1, ?) AS r(n)
+            """, TEAM_SIZE, EMPLOYEES);
+        jdbcTemplate.update("""
+            INSERT INTO leaves (employee_id, leave_type, start_date, end_date, number_of_days, reason,
+                                status, applied_date, version)
+            SELECT MOD(n, ?) + 1, 'CASUAL', DATEADD(DAY, n / ? * 7, CAST(? AS DATE)), DATEADD(DAY, n / ? * 7 + 1, CAST(? AS DATE)), 2,
+                   'Seeded', CASE MOD(n, 4) WHEN 0 THEN 'PENDING' WHEN 1 THEN 'APPROVED'
+                                            WHEN 2 THEN 'REJECTED' ELSE 'CANCELLED' END,
+                   DATEADD(DAY, n / ? * 7 - 14, CAST(? AS DATE)), 0
+            FROM SYSTEM_RANGE(1, ?) AS r(n)
+            """, EMPLOYEES, EMPLOYEES, TODAY.minusYears(1), EMPLOYEES, TODAY.minusYears(1),
+            EMPLOYEES, TODAY.minusYears(1), EMPLOYEES * LEAVES_PER_EMPLOYEE);
+        jdbcTemplate.update("""
+            INSERT INTO outbox_events (id, leave_id, recipient_email, status, created_at, attempts, processed_at)
+            SELECT n, n, 'employee@hcltech.com', 'APPROVED', CURRENT_TIMESTAMP, 1,
+                   CASE WHEN MOD(n, 100) = 0 THEN NULL ELSE CURRENT_TIMESTAMP END
+            FROM SYSTEM_RANGE(1, ?) AS r(n)
+            """, EMPLOYEES * 10);
+        jdbcTemplate.update("""
+            INSERT INTO team_absence_days (id, manager_id, absence_date, employee_id, employee_name, leave_id, leave_type)
+            SELECT n, MOD(n, ?) + 1, DATEADD(DAY, n / ?, CAST(? AS DATE)), MOD(n, ?) + 1, 'Employee', n, 'CASUAL'
+            FROM SYSTEM_RANGE(1, ?) AS r(n)
+            """, EMPLOYEES / TEAM_SIZE, EMPLOYEES, TODAY.minusYears(1), EMPLOYEES, EMPLOYEES * 10);
+        jdbcTemplate.update("""
+            INSERT INTO balance_rollovers (id, from_year, status, started_at, finished_at, balances_rolled,
+                                           earned_carried_forward, earned_forfeited)
+            SELECT n, 2000 + n, 'COMPLETED', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, 0, 0, 0 FROM SYSTEM_RANGE(1, 20) AS r(n)
+            """);
+        jdbcTemplate.update("""
+            INSERT INTO balance_rollover_partitions (id, rollover_id, partition_no, next_id, end_id, balances_rolled,
+                                                     earned_carried_forward, earned_forfeited)
+            SELECT n, (n - 1) / 4 + 1, MOD(n - 1, 4), 0, 0, 0, 0, 0 FROM SYSTEM_RANGE(1, 80) AS r(n)
+            """);
+        jdbcTemplate.update("""
+            INSERT INTO idempotency_records (id, request_hash, status, response_status, response_body,
+                                             created_at, expires_at)
+            SELECT 'key' || n, 'hash', 'COMPLETED', 201, '{}', CURRENT_TIMESTAMP,
+                   DATEADD(MINUTE, n, CURRENT_TIMESTAMP)
+            FROM SYSTEM_RANGE(1, ?) AS r(n)
+            """, EMPLOYEES);
+        jdbcTemplate.update("""
+            INSERT INTO leave_usage_summaries (usage_month, department, leave_type, days_taken, leave_count)
+            SELECT DATEADD(MONTH, n / 150, CAST(? AS DATE)), 'Department ' || MOD(n / 3, 50),
+                   CASE MOD(n, 3) WHEN 0 THEN 'SICK' WHEN 1 THEN 'CASUAL' ELSE 'EARNED' END, 10, 5
+            FROM SYSTEM_RANGE(0, 150 * 36 - 1) AS r(n)
+            """, TODAY.withDayOfMonth(1).minusYears(3));
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    @Test
+    void repositoryQueries_UseIndexes() {
+        Map<String, Runnable> queries = new LinkedHashMap<>();
+        queries.put("findWithEmployeeById", () -> leaveRepository.findWithEmployeeById(42L));
+        queries.put("findWithEmployeeByIdIn", () -> leaveRepository.findWithEmployeeByIdIn(List.of(42L, 43L)));
+        queries.put("findByEmployeeId", () -> leaveRepository.findByEmployeeId(42L));
+        queries.put("existsOverlapping", () -> leaveRepository.existsOverlapping(42L,
+            EnumSet.of(LeaveStatus.PENDING, LeaveStatus.APPROVED), TODAY, TODAY.plusDays(4)));
+        queries.put("findByStatus", () -> leaveRepository.findByStatus(LeaveStatus.PENDING));
+        queries.put("findByManagerId", () -> leaveRepository.findByManagerId(7L));
+        queries.put("findByManagerIdAndStatus",
+            () -> leaveRepository.findByManagerIdAndStatus(7L, LeaveStatus.PENDING));
+        queries.put("findEmployeeHistoryPage", () -> leaveRepository.findEmployeeHistoryPage(42L,
+            EnumSet.allOf(LeaveStatus.class), LocalDate.of(1, 1, 1), LocalDate.of(9999, 12, 31),
+            LocalDate.of(9999, 12, 31), Long.MAX_VALUE, Limit.of(21)));
+        queries.put("findTeamHistoryPage", () -> leaveRepository.findTeamHistoryPage(7L,
+            EnumSet.allOf(LeaveStatus.class), LocalDate.of(1, 1, 1), LocalDate.of(9999, 12, 31),
+            LocalDate.of(9999, 12, 31), Long.MAX_VALUE, Limit.of(21)));
+        queries.put("findAllPendingApprovals", () -> leaveRepository.findAllPendingApprovals());
+        queries.put("findPendingApprovals", () -> leaveRepository.findPendingApprovals(7L));
+        queries.put("streamForExport", () -> {
+            try (Stream<LeaveExportRow> rows = leaveRepository.streamForExport(TODAY.minusMonths(1), TODAY)) {
+                rows.forEach(row -> { });
+            }
+        });
+        queries.put("findByEmail", () -> employeeRepository.findByEmail("employee42@hcltech.com"));
+        queries.put("findWithLeaveBalanceById", () -> employeeRepository.findWithLeaveBalanceById(42L));
+        queries.put("findForUpdateById", () -> employeeRepository.findForUpdateById(42L));
+        queries.put("findExistingEmails", () -> employeeRepository.findExistingEmails(
+            List.of("employee42@hcltech.com", "new@hcltech.com")));
+        queries.put("incrementLeavesVersion", () -> employeeRepository.incrementLeavesVersion(List.of(42L, 43L)));
+        queries.put("findLeavesVersionById", () -> employeeRepository.findLeavesVersionById(42L));
+        queries.put("findMemberLeavesVersionsByManagerId",
+            () -> employeeRepository.findMemberLeavesVersionsByManagerId(7L));
+        queries.put("deductCasualLeave", () -> leaveBalanceRepository.deductCasualLeave(42L, 1));
+        queries.put("findMinIdByYear", () -> leaveBalanceRepository.findMinIdByYear(2024));
+        queries.put("findMaxIdByYear", () -> leaveBalanceRepository.findMaxIdByYear(2024));
+        queries.put("lockEarnedLeaveForRollover",
+            () -> leaveBalanceRepository.lockEarnedLeaveForRollover(2024, 100L, 200L));
+        queries.put("rollOver", () -> leaveBalanceRepository.rollOver(2024, 100L, 200L, 10, 12, 18, 30));
+        queries.put("findByFromYear", () -> balanceRolloverRepository.findByFromYear(2010));
+        queries.put("findByStatus(RUNNING)", () -> balanceRolloverRepository.findByStatus(RolloverStatus.RUNNING));
+        queries.put("findByRolloverIdOrderByPartitionNo",
+            () -> balanceRolloverPartitionRepository.findByRolloverIdOrderByPartitionNo(5L));
+        queries.put("findForUpdateById(partition)", () -> balanceRolloverPartitionRepository.findForUpdateById(5L));
+        queries.put("claim", () -> idempotencyRecordRepository.claim("new-key", "hash", Instant.now(),
+            Instant.now().plusSeconds(60)));
+        queries.put("findById(idempotency)", () -> idempotencyRecordRepository.findById("key42"));
+        queries.put("complete", () -> idempotencyRecordRepository.complete("key42", 201, "{}"));
+        queries.put("release", () -> idempotencyRecordRepository.release("key43"));
+        queries.put("deleteIfExpired", () -> idempotencyRecordRepository.deleteIfExpired("key44", Instant.now()));
+        queries.put("deleteExpired", () -> idempotencyRecordRepository.deleteExpired(Instant.now()));
+        queries.put("lockNextBatch",
+            () -> outboxEventRepository.lockNextBatch(Instant.now().minusSeconds(60), 10, 100));
+        queries.put("markProcessed", () -> outboxEventRepository.markProcessed(List.of(100L), Instant.now()));
+        queries.put("renewClaims", () -> outboxEventRepository.renewClaims(List.of(100L), Instant.now()));
+        queries.put("releaseClaims", () -> outboxEventRepository.releaseClaims(List.of(100L)));
+        queries.put("deleteProcessedBefore",
+            () -> outboxEventRepository.deleteProcessedBefore(Instant.now().minusSeconds(86400)));
+        queries.put("addUsage", () -> leaveUsageSummaryRepository.addUsage(TODAY.withDayOfMonth(1), "Department 7",
+            LeaveType.CASUAL, 2, 1));
+        queries.put("insertIfAbsent", () -> leaveUsageSummaryRepository.insertIfAbsent(TODAY.withDayOfMonth(1),
+            "Department 7", "CASUAL", 2, 1));
+        queries.put("findUsage", () -> leaveUsageSummaryRepository.findUsage(TODAY.withDayOfMonth(1).minusMonths(2),
+            TODAY.withDayOfMonth(1), "Department 7", null));
+        queries.put("findTeamAbsenceDays", () -> teamAbsenceDayRepository
+            .findByManagerIdAndAbsenceDateBetweenOrderByAbsenceDateAscEmployeeNameAsc(7L, TODAY, TODAY.plusDays(30)));
+
+        List<String> tableScans = new ArrayList<>();
+        queries.forEach((name, query) -> {
+            StatementRecorder.STATEMENTS.clear();
+            query.run();
+            entityManager.clear();
+            assertFalse(StatementRecorder.STATEMENTS.isEmpty(), name + " ran no SQL");
+            for (String sql : StatementRecorder.STATEMENTS) {
+                String plan = String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + sql, String.class));
+                Set<String> allowed = EXPECTED_SCANS.getOrDefault(name, Set.of());
+                boolean unexpectedScan = TABLE_SCAN.matcher(plan).results()
+                    .anyMatch(scan -> !allowed.contains(scan.group(1)));
+                if (unexpectedScan) {
+                    tableScans.add(name + ":\n" + plan);
+                }
+            }
+        });
+
+        assertTrue(tableScans.isEmpty(), "Queries planned with a full table scan:\n" + String.join("\n\n", tableScans));
+    }
+
+    /** Records the SQL Hibernate sends so it can be explained afterwards. */
+    public static class StatementRecorder implements StatementInspector {
+
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}
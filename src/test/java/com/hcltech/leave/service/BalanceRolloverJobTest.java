@@ -0,0 +1,168 @@
+package com.hcltech.leave.service;
+
+import com.hcltech.leave.dto.BalanceRolloverDTO;
+import com.hcltech.leave.enums.RolloverStatus;
+import com.hcltech.leave.model.BalanceRolloverPartition;
+import com.hcltech.leave.model.Employee;
+import com.hcltech.leave.model.LeaveBalance;
+import com.hcltech.leave.repository.BalanceRolloverPartitionRepository;
+import com.hcltech.leave.repository.BalanceRolloverRepository;
+import com.hcltech.leave.repository.EmployeeRepository;
+import com.hcltech.leave.repository.LeaveBalanceRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.doCallRealMethod;
+import static org.mockito.Mockito.doThrow;
+
+/**
+ * Rolls over {@value #BALANCES} balances in 3 partitions of 4-id chunks, so every partition takes
+ * several checkpointed transactions. Earned leave runs from 0 to 57 days against a carry-forward
+ * cap of 30.
+ */
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:balance_rollover;DB_CLOSE_DELAY=-1;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=YEAR,MONTH,VALUE",
+    "leave.scheduling.enabled=false",
+    "leave.rollover.partitions=3",
+    "leave.rollover.chunk-size=4"
+})
+@ActiveProfiles("test")
+class BalanceRolloverJobTest {
+
+    private static final int BALANCES = 20;
+    private static final int CARRY_FORWARD_CAP = 30;
+
+    @Autowired
+    private BalanceRolloverJob balanceRolloverJob;
+
+    @Autowired
+    private LeaveBalanceRepository leaveBalanceRepository;
+
+    @Autowired
+    private BalanceRolloverRepository balanceRolloverRepository;
+
+    @Autowired
+    private BalanceRolloverPartitionRepository partitionRepository;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @MockitoSpyBean
+    private LeaveBalanceCache leaveBalanceCache;
+
+    @Test
+    void rollOver_ResetsAndCarriesForwardEveryBalanceOfTheYear() {
+        List<LeaveBalance> balances = seed(2024);
+        LeaveBalance otherYear = leaveBalanceRepository.save(balance(2023, 40));
+
+        BalanceRolloverDTO result = balanceRolloverJob.rollOver(2024);
+
+        assertEquals(RolloverStatus.COMPLETED, result.getStatus());
+        assertEquals(2025, result.getToYear());
+        assertNotNull(result.getFinishedAt());
+        assertEquals(BALANCES, result.getBalancesRolled());
+        assertEquals(expectedCarried(balances), result.getEarnedCarriedForward());
+        assertEquals(expectedForfeited(balances), result.getEarnedForfeited());
+        assertRolledOver(balances, 2025);
+        assertEquals(40, leaveBalanceRepository.findById(otherYear.getId()).orElseThrow().getEarnedLeave());
+        assertEquals(3, partitionRepository.findByRolloverIdOrderByPartitionNo(
+            balanceRolloverRepository.findByFromYear(2024).orElseThrow().getId()).size());
+
+        // Running it again changes nothing and reports the same run
+        assertEquals(result, balanceRolloverJob.rollOver(2024));
+        assertRolledOver(balances, 2025);
+        assertEquals(result, balanceRolloverJob.getRollover(2024));
+    }
+
+    @Test
+    void rollOver_ResumesFromCheckpointsAfterAFailure() {
+        List<LeaveBalance> balances = seed(2030);
+        // The second chunk fails before it commits, stopping its partition part way
+        doCallRealMethod().doThrow(new IllegalStateException("Node stopped")).doCallRealMethod()
+            .when(leaveBalanceCache).evictAfterCommit(anyCollection());
+
+        assertThrows(CompletionException.class, () -> balanceRolloverJob.rollOver(2030));
+        Long rolloverId = balanceRolloverRepository.findByFromYear(2030).orElseThrow().getId();
+        assertEquals(RolloverStatus.RUNNING, balanceRolloverRepository.findById(rolloverId).orElseThrow().getStatus());
+        assertTrue(partitionRepository.findByRolloverIdOrderByPartitionNo(rolloverId).stream()
+            .anyMatch(partition -> !partition.isDone()));
+
+        balanceRolloverJob.resumeInterrupted();
+
+        BalanceRolloverDTO result = balanceRolloverJob.getRollover(2030);
+        assertEquals(RolloverStatus.COMPLETED, result.getStatus());
+        assertEquals(BALANCES, result.getBalancesRolled());
+        assertEquals(expectedCarried(balances), result.getEarnedCarriedForward());
+        assertEquals(expectedForfeited(balances), result.getEarnedForfeited());
+        assertTrue(partitionRepository.findByRolloverIdOrderByPartitionNo(rolloverId).stream()
+            .allMatch(BalanceRolloverPartition::isDone));
+        assertRolledOver(balances, 2031);
+    }
+
+    @Test
+    void rollOver_EvictsTheRolledOverEmployeesCachedBalances() {
+        Employee employee = employeeRepository.save(Employee.builder()
+            .name("Ann")
+            .email("ann@hcltech.com")
+            .department("IT")
+            .leaveBalance(balance(2040, 20))
+            .build());
+        leaveBalanceCache.get(employee.getId(), () -> employee.getLeaveBalance());
+
+        balanceRolloverJob.rollOver(2040);
+
+        assertNull(cacheManager.getCache(LeaveBalanceCache.CACHE_NAME).get(employee.getId()));
+    }
+
+    @Test
+    void rollOver_YearWithoutBalances() {
+        BalanceRolloverDTO result = balanceRolloverJob.rollOver(1999);
+
+        assertEquals(RolloverStatus.COMPLETED, result.getStatus());
+        assertEquals(0, result.getBalancesRolled());
+    }
+
+    private List<LeaveBalance> seed(int year) {
+        List<LeaveBalance> balances = new ArrayList<>();
+        for (int i = 0; i < BALANCES; i++) {
+            balances.add(balance(year, i * 3));
+        }
+        return leaveBalanceRepository.saveAll(balances);
+    }
+
+    private void assertRolledOver(List<LeaveBalance> before, int year) {
+        for (LeaveBalance original : before) {
+            LeaveBalance rolled = leaveBalanceRepository.findById(original.getId()).orElseThrow();
+            assertEquals(year, rolled.getYear());
+            assertEquals(10, rolled.getSickLeave());
+            assertEquals(12, rolled.getCasualLeave());
+            assertEquals(Math.min(original.getEarnedLeave(), CARRY_FORWARD_CAP) + 18, rolled.getEarnedLeave());
+            assertEquals(original.getVersion() + 1, rolled.getVersion());
+        }
+    }
+
+    private static long expectedCarried(List<LeaveBalance> balances) {
+        return balances.stream().mapToLong(balance -> Math.min(balance.getEarnedLeave(), CARRY_FORWARD_CAP)).sum();
+    }
+
+    private static long expectedForfeited(List<LeaveBalance> balances) {
+        return balances.stream().mapToLong(balance -> Math.max(balance.getEarnedLeave() - CARRY_FORWARD_CAP, 0)).sum();
+    }
+
+    private static LeaveBalance balance(int year, int earnedLeave) {
+        return LeaveBalance.builder().sickLeave(2).casualLeave(3).earnedLeave(earnedLeave).year(year).build();
+    }
+}
@@ -0,0 +1,139 @@
+package com.hcltech.leave.service;
+
+import com.hcltech.leave.config.EmployeeImportProperties;
+import com.hcltech.leave.config.LeaveEntitlementProperties;
+import com.hcltech.leave.dto.EmployeeImportErrorDTO;
+import com.hcltech.leave.dto.EmployeeImportResultDTO;
+import com.hcltech.leave.exception.InvalidImportFileException;
+import com.hcltech.leave.model.Employee;
+import com.hcltech.leave.model.LeaveBalance;
+import com.hcltech.leave.repository.EmployeeRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Year;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "leave.employee-import.chunk-size=2")
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@EnableConfigurationProperties({EmployeeImportProperties.class, LeaveEntitlementProperties.class})
+@Import(EmployeeImportService.class)
+class EmployeeImportServiceTest {
+
+    private static final String HEADER = EmployeeImportService.CSV_HEADER + "\n";
+
+    @Autowired
+    private EmployeeImportService employeeImportService;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Test
+    void importCsv_CreatesEmployeesWithBalancesAcrossChunks() throws Exception {
+        EmployeeImportResultDTO result = employeeImportService.importCsv(csv(HEADER
+            + "\"Doe, Jane\",jane@hcltech.com,IT,7,5,6,7\n"
+            + "Bob,bob@hcltech.com,HR,,,,\n"
+            + "\n"
+            + "Carol,carol@hcltech.com,IT,7,1,2,3\n"));
+
+        assertEquals(3, result.getTotalRows());
+        assertEquals(3, result.getImported());
+        assertEquals(0, result.getFailed());
+        assertTrue(result.getErrors().isEmpty());
+
+        Employee jane = employeeRepository.findWithLeaveBalanceById(
+            employeeRepository.findByEmail("jane@hcltech.com").orElseThrow().getId()).orElseThrow();
+        assertEquals("Doe, Jane", jane.getName());
+        assertEquals(7L, jane.getManagerId());
+        assertBalance(jane.getLeaveBalance(), 5, 6, 7);
+
+        Employee bob = employeeRepository.findWithLeaveBalanceById(
+            employeeRepository.findByEmail("bob@hcltech.com").orElseThrow().getId()).orElseThrow();
+        assertNull(bob.getManagerId());
+        assertBalance(bob.getLeaveBalance(), 10, 12, 18);
+    }
+
+    @Test
+    void importCsv_ReportsBadRowsByLineAndImportsTheRest() throws Exception {
+        entityManager.persist(Employee.builder()
+            .name("Existing")
+            .email("existing@hcltech.com")
+            .department("IT")
+            .leaveBalance(LeaveBalance.builder().sickLeave(10).casualLeave(12).earnedLeave(18).year(2024).build())
+            .build());
+        entityManager.flush();
+
+        EmployeeImportResultDTO result = employeeImportService.importCsv(csv(HEADER
+            + "Ann,ann@hcltech.com,IT,,,,\n"
+            + "No Email,not-an-email,IT,,,,\n"
+            + ",blank@hcltech.com,IT,,,,\n"
+            + "Short,short@hcltech.com,IT\n"
+            + "Negative,negative@hcltech.com,IT,,-1,,\n"
+            + "Ann Again,ann@hcltech.com,HR,,,,\n"
+            + "Existing,existing@hcltech.com,IT,,,,\n"
+            + "Dan,dan@hcltech.com,IT,x,,,\n"
+            + "Eve,eve@hcltech.com,IT,,,,\n"));
+
+        assertEquals(9, result.getTotalRows());
+        assertEquals(2, result.getImported());
+        assertEquals(7, result.getFailed());
+        assertEquals(List.of(
+                new EmployeeImportErrorDTO(3, "not-an-email", "email is not a valid address"),
+                new EmployeeImportErrorDTO(4, "blank@hcltech.com", "name is required"),
+                new EmployeeImportErrorDTO(5, "short@hcltech.com", "Expected 7 columns but found 3"),
+                new EmployeeImportErrorDTO(6, "negative@hcltech.com", "sick_leave must be zero or a positive number"),
+                new EmployeeImportErrorDTO(7, "ann@hcltech.com", "Duplicate email, first used on line 2"),
+                new EmployeeImportErrorDTO(8, "existing@hcltech.com", "Employee with this email already exists"),
+                new EmployeeImportErrorDTO(9, "dan@hcltech.com", "manager_id must be a positive number")),
+            result.getErrors());
+        assertFalse(result.isErrorsTruncated());
+        assertTrue(employeeRepository.findByEmail("eve@hcltech.com").isPresent());
+        assertEquals(3, employeeRepository.count());
+    }
+
+    @Test
+    void importCsv_ParsesOnDedicatedThreads() throws Exception {
+        employeeImportService.importCsv(csv(HEADER + "Ann,ann@hcltech.com,IT,,,,\n"));
+
+        assertTrue(Thread.getAllStackTraces().keySet().stream()
+            .anyMatch(thread -> thread.getName().startsWith("employee-import-")));
+    }
+
+    @Test
+    void importCsv_WrongHeader() {
+        assertThrows(InvalidImportFileException.class,
+            () -> employeeImportService.importCsv(csv("id,name,email\n1,Ann,ann@hcltech.com\n")));
+        assertThrows(InvalidImportFileException.class, () -> employeeImportService.importCsv(csv("")));
+    }
+
+    @Test
+    void splitCsv_HandlesQuotedCommasAndQuotes() {
+        assertEquals(List.of("Doe, \"JD\"", "a", ""), EmployeeImportService.splitCsv("\"Doe, \"\"JD\"\"\", a ,"));
+    }
+
+    private static void assertBalance(LeaveBalance balance, int sick, int casual, int earned) {
+        assertEquals(sick, balance.getSickLeave());
+        assertEquals(casual, balance.getCasualLeave());
+        assertEquals(earned, balance.getEarnedLeave());
+        assertEquals(Year.now().getValue(), balance.getYear());
+    }
+
+    private static InputStream csv(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,251 @@
+package com.hcltech.leave.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hcltech.leave.config.IdempotencyProperties;
+import com.hcltech.leave.dto.LeaveRequestDTO;
+import com.hcltech.leave.dto.LeaveResponseDTO;
+import com.hcltech.leave.enums.IdempotencyStatus;
+import com.hcltech.leave.enums.LeaveStatus;
+import com.hcltech.leave.enums.LeaveType;
+import com.hcltech.leave.exception.IdempotencyConflictException;
+import com.hcltech.leave.exception.InsufficientLeaveBalanceException;
+import com.hcltech.leave.model.IdempotencyRecord;
+import com.hcltech.leave.repository.IdempotencyRecordRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.TransientDataAccessResourceException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.AdditionalAnswers.delegatesTo;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@EnableConfigurationProperties(IdempotencyProperties.class)
+@Import(IdempotencyService.class)
+class IdempotencyServiceTest {
+
+    private static final LeaveRequestDTO REQUEST = LeaveRequestDTO.builder()
+        .employeeId(1L)
+        .leaveType(LeaveType.CASUAL)
+        .startDate(LocalDate.of(2030, 3, 4))
+        .endDate(LocalDate.of(2030, 3, 5))
+        .reason("Family function")
+        .build();
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @Autowired
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private IdempotencyProperties properties;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private final AtomicInteger executions = new AtomicInteger();
+
+    @Test
+    void execute_WithoutKey_RunsEveryTime() {
+        idempotencyService.execute("applyLeave", null, REQUEST, LeaveResponseDTO.class, this::created);
+        idempotencyService.execute("applyLeave", " ", REQUEST, LeaveResponseDTO.class, this::created);
+
+        assertEquals(2, executions.get());
+    }
+
+    @Test
+    void execute_SameKey_ReplaysFirstResponse() {
+        ResponseEntity<LeaveResponseDTO> first =
+            idempotencyService.execute("applyLeave", "key-1", REQUEST, LeaveResponseDTO.class, this::created);
+        ResponseEntity<LeaveResponseDTO> retry =
+            idempotencyService.execute("applyLeave", "key-1", REQUEST, LeaveResponseDTO.class, this::created);
+
+        assertEquals(1, executions.get());
+        assertEquals(HttpStatus.CREATED, retry.getStatusCode());
+        assertEquals(first.getBody(), retry.getBody());
+        assertEquals("true", retry.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER));
+        assertNull(first.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER));
+        // The same key in another operation is a different request
+        idempotencyService.execute("approveLeave", "key-1", REQUEST, LeaveResponseDTO.class, this::created);
+        assertEquals(2, executions.get());
+    }
+
+    @Test
+    void execute_SameKeyDifferentRequest_Conflicts() {
+        idempotencyService.execute("applyLeave", "key-2", REQUEST, LeaveResponseDTO.class, this::created);
+        LeaveRequestDTO other = LeaveRequestDTO.builder()
+            .employeeId(2L)
+            .leaveType(LeaveType.SICK)
+            .startDate(REQUEST.getStartDate())
+            .endDate(REQUEST.getEndDate())
+            .reason("Fever and cold")
+            .build();
+
+        assertThrows(IdempotencyConflictException.class,
+            () -> idempotencyService.execute("applyLeave", "key-2", other, LeaveResponseDTO.class, this::created));
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    void execute_Failure_IsNotStored() {
+        assertThrows(InsufficientLeaveBalanceException.class,
+            () -> idempotencyService.execute("applyLeave", "key-3", REQUEST, LeaveResponseDTO.class, () -> {
+                executions.incrementAndGet();
+                throw new InsufficientLeaveBalanceException("Insufficient casual leave balance");
+            }));
+        assertTrue(idempotencyRecordRepository.findAll().stream()
+            .noneMatch(record -> record.getStatus() == IdempotencyStatus.IN_PROGRESS));
+
+        idempotencyService.execute("applyLeave", "key-3", REQUEST, LeaveResponseDTO.class, this::created);
+
+        assertEquals(2, executions.get());
+    }
+
+    @Test
+    void execute_ConcurrentDuplicates_RunOnce() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Supplier<ResponseEntity<LeaveResponseDTO>> slow = () -> {
+            started.countDown();
+            await(release);
+            return created();
+        };
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            Future<ResponseEntity<LeaveResponseDTO>> first = executor.submit(
+                () -> idempotencyService.execute("applyLeave", "key-4", REQUEST, LeaveResponseDTO.class, slow));
+            assertTrue(started.await(10, TimeUnit.SECONDS));
+            Future<ResponseEntity<LeaveResponseDTO>> second = executor.submit(
+                () -> idempotencyService.execute("applyLeave", "key-4", REQUEST, LeaveResponseDTO.class, slow));
+            Future<ResponseEntity<LeaveResponseDTO>> third = executor.submit(
+                () -> idempotencyService.execute("applyLeave", "key-4", REQUEST, LeaveResponseDTO.class, slow));
+            Thread.sleep(200);
+            assertFalse(second.isDone());
+            release.countDown();
+
+            LeaveResponseDTO body = first.get(10, TimeUnit.SECONDS).getBody();
+            assertEquals(body, second.get(10, TimeUnit.SECONDS).getBody());
+            assertEquals(body, third.get(10, TimeUnit.SECONDS).getBody());
+            assertEquals(1, executions.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void execute_OnAnotherNode_ReplaysFromDatabase() {
+        IdempotencyService otherNode = new IdempotencyService(idempotencyRecordRepository, objectMapper, properties);
+        ResponseEntity<LeaveResponseDTO> first =
+            idempotencyService.execute("applyLeave", "key-5", REQUEST, LeaveResponseDTO.class, this::created);
+
+        ResponseEntity<LeaveResponseDTO> retry =
+            otherNode.execute("applyLeave", "key-5", REQUEST, LeaveResponseDTO.class, this::created);
+
+        assertEquals(1, executions.get());
+        assertEquals(HttpStatus.CREATED, retry.getStatusCode());
+        assertEquals(first.getBody(), retry.getBody());
+    }
+
+    @Test
+    void execute_StillRunningOnAnotherNode_Conflicts() {
+        IdempotencyService otherNode = new IdempotencyService(idempotencyRecordRepository, objectMapper, properties);
+        assertThrows(IdempotencyConflictException.class,
+            () -> idempotencyService.execute("applyLeave", "key-6", REQUEST, LeaveResponseDTO.class,
+                () -> otherNode.execute("applyLeave", "key-6", REQUEST, LeaveResponseDTO.class, this::created)));
+        assertEquals(0, executions.get());
+    }
+
+    @Test
+    void execute_RecordingResponseFails_ReturnsResponseAndKeepsClaim() {
+        IdempotencyRecordRepository failingToComplete =
+            mock(IdempotencyRecordRepository.class, delegatesTo(idempotencyRecordRepository));
+        doThrow(new TransientDataAccessResourceException("Connection lost"))
+            .when(failingToComplete).complete(anyString(), anyInt(), anyString());
+        IdempotencyService node = new IdempotencyService(failingToComplete, objectMapper, properties);
+
+        ResponseEntity<LeaveResponseDTO> first =
+            node.execute("applyLeave", "key-7", REQUEST, LeaveResponseDTO.class, this::created);
+        ResponseEntity<LeaveResponseDTO> retry =
+            node.execute("applyLeave", "key-7", REQUEST, LeaveResponseDTO.class, this::created);
+
+        assertEquals(HttpStatus.CREATED, first.getStatusCode());
+        assertEquals(first.getBody(), retry.getBody());
+        // Not released, so a retry on another node is refused instead of applying the leave again
+        assertThrows(IdempotencyConflictException.class,
+            () -> idempotencyService.execute("applyLeave", "key-7", REQUEST, LeaveResponseDTO.class, this::created));
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    void purgeExpired_DeletesOnlyExpiredRecords() {
+        Instant now = Instant.now();
+        entityManager.persist(record("expired", now.minusSeconds(60)));
+        entityManager.persist(record("live", now.plusSeconds(60)));
+        entityManager.flush();
+        entityManager.clear();
+
+        idempotencyService.purgeExpired();
+
+        assertTrue(idempotencyRecordRepository.findById("expired").isEmpty());
+        assertTrue(idempotencyRecordRepository.findById("live").isPresent());
+    }
+
+    private ResponseEntity<LeaveResponseDTO> created() {
+        LeaveResponseDTO response = LeaveResponseDTO.builder()
+            .id((long) executions.incrementAndGet())
+            .employeeName("John Doe")
+            .leaveType(LeaveType.CASUAL)
+            .startDate(REQUEST.getStartDate())
+            .endDate(REQUEST.getEndDate())
+            .status(LeaveStatus.PENDING)
+            .numberOfDays(2)
+            .build();
+        return new ResponseEntity<>(response, HttpStatus.CREATED);
+    }
+
+    private static IdempotencyRecord record(String id, Instant expiresAt) {
+        return IdempotencyRecord.builder()
+            .id(id)
+            .requestHash("hash")
+            .status(IdempotencyStatus.COMPLETED)
+            .responseStatus(201)
+            .responseBody("{}")
+            .createdAt(expiresAt.minusSeconds(3600))
+            .expiresAt(expiresAt)
+            .build();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package com.hcltech.leave.service;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.hcltech.leave.model.LeaveBalance;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LeaveBalanceCacheTest {
+
+    private CaffeineCacheManager cacheManager;
+    private LeaveBalanceCache leaveBalanceCache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager = new CaffeineCacheManager(LeaveBalanceCache.CACHE_NAME);
+        leaveBalanceCache = new LeaveBalanceCache(cacheManager);
+        loads = new AtomicInteger();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void testGet_LoadsOnceThenServesFromCache() {
+        // Act
+        LeaveBalance first = leaveBalanceCache.get(1L, this::loadBalance);
+        LeaveBalance second = leaveBalanceCache.get(1L, this::loadBalance);
+
+        // Assert
+        assertEquals(1, loads.get());
+        assertEquals(12, first.getCasualLeave());
+        assertEquals(first, second);
+    }
+
+    @Test
+    void testGet_ReturnsDetachedCopies() {
+        // Arrange
+        LeaveBalance first = leaveBalanceCache.get(1L, this::loadBalance);
+
+        // Act
+        first.setCasualLeave(0);
+
+        // Assert
+        assertEquals(12, leaveBalanceCache.get(1L, this::loadBalance).getCasualLeave());
+    }
+
+    @Test
+    void testGet_LoaderFailureIsNotCached() {
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> leaveBalanceCache.get(1L, () -> {
+            throw new IllegalStateException("boom");
+        }));
+        assertEquals(12, leaveBalanceCache.get(1L, this::loadBalance).getCasualLeave());
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void testContains_NotCountedAsCacheGet() {
+        // Arrange
+        cacheManager.setCaffeine(Caffeine.newBuilder().recordStats());
+        leaveBalanceCache.get(1L, this::loadBalance);
+        CaffeineCache cache = (CaffeineCache) cacheManager.getCache(LeaveBalanceCache.CACHE_NAME);
+
+        // Act & Assert
+        assertTrue(leaveBalanceCache.contains(1L));
+        assertFalse(leaveBalanceCache.contains(2L));
+        assertEquals(1, cache.getNativeCache().stats().requestCount());
+    }
+
+    @Test
+    void testEvictAfterCommit_WithoutTransaction() {
+        // Arrange
+        leaveBalanceCache.get(1L, this::loadBalance);
+
+        // Act
+        leaveBalanceCache.evictAfterCommit(1L);
+        leaveBalanceCache.get(1L, this::loadBalance);
+
+        // Assert
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void testEvictAfterCommit_EvictsAgainOnCompletion() {
+        // Arrange
+        TransactionSynchronizationManager.initSynchronization();
+        leaveBalanceCache.get(1L, this::loadBalance);
+
+        // Act - evict, then a concurrent reader re-populates before commit
+        leaveBalanceCache.evictAfterCommit(1L);
+        leaveBalanceCache.get(1L, this::loadBalance);
+        TransactionSynchronizationManager.getSynchronizations()
+            .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+
+        // Assert
+        assertNull(cacheManager.getCache(LeaveBalanceCache.CACHE_NAME).get(1L));
+    }
+
+    @Test
+    void testEvictAfterCommit_SeveralEmployees() {
+        // Arrange
+        TransactionSynchronizationManager.initSynchronization();
+        leaveBalanceCache.get(1L, this::loadBalance);
+        leaveBalanceCache.get(2L, this::loadBalance);
+
+        // Act - evict, then a concurrent reader re-populates one before commit
+        leaveBalanceCache.evictAfterCommit(List.of(1L, 2L));
+        leaveBalanceCache.get(2L, this::loadBalance);
+        TransactionSynchronizationManager.getSynchronizations()
+            .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+
+        // Assert
+        assertNull(cacheManager.getCache(LeaveBalanceCache.CACHE_NAME).get(1L));
+        assertNull(cacheManager.getCache(LeaveBalanceCache.CACHE_NAME).get(2L));
+    }
+
+    @Test
+    void testEvictAfterCommit_WaitsForLoadInFlight() throws Exception {
+        // Arrange - a reader has read the balance before the write commits
+        CountDownLatch reading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<LeaveBalance> reader = executor.submit(() -> leaveBalanceCache.get(1L, () -> {
+                LeaveBalance beforeCommit = loadBalance();
+                reading.countDown();
+                await(release);
+                return beforeCommit;
+            }));
+            assertTrue(reading.await(10, TimeUnit.SECONDS));
+
+            // Act - the writer's eviction runs before the reader stores what it read
+            Future<?> writer = executor.submit(() -> leaveBalanceCache.evictAfterCommit(1L));
+            Thread.sleep(200);
+            release.countDown();
+            reader.get(10, TimeUnit.SECONDS);
+            writer.get(10, TimeUnit.SECONDS);
+
+            // Assert
+            assertNull(cacheManager.getCache(LeaveBalanceCache.CACHE_NAME).get(1L));
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    private LeaveBalance loadBalance() {
+        loads.incrementAndGet();
+        return LeaveBalance.builder().id(1L).sickLeave(10).casualLeave(12).earnedLeave(18).year(2024).build();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
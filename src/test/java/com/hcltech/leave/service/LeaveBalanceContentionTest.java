@@ -0,0 +1,140 @@
+package com.hcltech.leave.service;
+
+import com.hcltech.leave.dto.LeaveApprovalDTO;
+import com.hcltech.leave.dto.LeaveApprovalResultDTO;
+import com.hcltech.leave.enums.LeaveStatus;
+import com.hcltech.leave.enums.LeaveType;
+import com.hcltech.leave.exception.InsufficientLeaveBalanceException;
+import com.hcltech.leave.exception.InvalidLeaveOperationException;
+import com.hcltech.leave.model.Employee;
+import com.hcltech.leave.model.Leave;
+import com.hcltech.leave.model.LeaveBalance;
+import com.hcltech.leave.repository.EmployeeRepository;
+import com.hcltech.leave.repository.LeaveBalanceRepository;
+import com.hcltech.leave.repository.LeaveRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Hammers one employee's balance with concurrent single and bulk approvals, each leave requested
+ * twice, and checks that exactly the affordable number of days is deducted. Losers of a race on the
+ * same leave fail on its version, losers on the balance fail the conditional deduction.
+ */
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:balance_contention;DB_CLOSE_DELAY=-1;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=YEAR,MONTH,VALUE;LOCK_TIMEOUT=30000",
+    "leave.scheduling.enabled=false"
+})
+@ActiveProfiles("test")
+class LeaveBalanceContentionTest {
+
+    private static final int THREADS = 16;
+    private static final int CASUAL_BALANCE = 25;
+    private static final int PENDING_LEAVES = 60;
+    private static final int BULK_SIZE = 4;
+
+    @Autowired
+    private LeaveService leaveService;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private LeaveRepository leaveRepository;
+
+    @Autowired
+    private LeaveBalanceRepository leaveBalanceRepository;
+
+    @Test
+    void concurrentApprovalsDeductExactly() throws Exception {
+        Employee employee = employeeRepository.save(Employee.builder()
+            .name("John Doe")
+            .email("john.contention@hcltech.com")
+            .department("IT")
+            .managerId(2L)
+            .leaveBalance(LeaveBalance.builder().sickLeave(10).casualLeave(CASUAL_BALANCE).earnedLeave(18).year(2024).build())
+            .build());
+        List<Long> leaveIds = new ArrayList<>();
+        for (int i = 0; i < PENDING_LEAVES; i++) {
+            leaveIds.add(leaveRepository.save(Leave.builder()
+                .employee(employee)
+                .leaveType(LeaveType.CASUAL)
+                .startDate(LocalDate.now().plusDays(i + 1L))
+                .endDate(LocalDate.now().plusDays(i + 1L))
+                .numberOfDays(1)
+                .reason("Contention test")
+                .status(LeaveStatus.PENDING)
+                .appliedDate(LocalDate.now())
+                .build()).getId());
+        }
+
+        // Every leave is approved twice: once on its own, once inside a bulk request
+        List<Callable<Integer>> tasks = new ArrayList<>();
+        for (Long leaveId : leaveIds) {
+            tasks.add(() -> approveSingle(leaveId));
+        }
+        for (int i = 0; i < leaveIds.size(); i += BULK_SIZE) {
+            List<Long> chunk = leaveIds.subList(i, Math.min(i + BULK_SIZE, leaveIds.size()));
+            tasks.add(() -> approveBulk(chunk));
+        }
+        Collections.shuffle(tasks);
+
+        AtomicInteger approved = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            for (Future<Integer> result : executor.invokeAll(tasks)) {
+                approved.addAndGet(result.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        LeaveBalance balance = leaveBalanceRepository.findById(employee.getLeaveBalance().getId()).orElseThrow();
+        long approvedInDb = leaveRepository.findByEmployeeId(employee.getId()).stream()
+            .filter(leave -> leave.getStatus() == LeaveStatus.APPROVED)
+            .count();
+
+        assertEquals(CASUAL_BALANCE, approved.get());
+        assertEquals(CASUAL_BALANCE, approvedInDb);
+        assertEquals(0, balance.getCasualLeave());
+    }
+
+    private int approveSingle(Long leaveId) {
+        try {
+            leaveService.approveOrRejectLeave(approval(leaveId));
+            return 1;
+        } catch (InsufficientLeaveBalanceException | InvalidLeaveOperationException
+                 | OptimisticLockingFailureException expected) {
+            return 0;
+        }
+    }
+
+    private int approveBulk(List<Long> leaveIds) {
+        try {
+            List<LeaveApprovalResultDTO> results = leaveService.approveOrRejectLeaves(
+                leaveIds.stream().map(LeaveBalanceContentionTest::approval).toList());
+            return (int) results.stream().filter(LeaveApprovalResultDTO::isSuccess).count();
+        } catch (OptimisticLockingFailureException expected) {
+            return 0;
+        }
+    }
+
+    private static LeaveApprovalDTO approval(Long leaveId) {
+        return LeaveApprovalDTO.builder()
+            .leaveId(leaveId)
+            .managerId(2L)
+            .status(LeaveStatus.APPROVED)
+            .build();
+    }
+}
@@ -0,0 +1,119 @@
+package com.hcltech.leave.service;
+
+import com.hcltech.leave.config.BalanceLookupProperties;
+import com.hcltech.leave.exception.ResourceNotFoundException;
+import com.hcltech.leave.model.LeaveBalance;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class LeaveBalanceLookupTest {
+
+    private final LeaveService leaveService = mock(LeaveService.class);
+    private final LeaveBalanceCache leaveBalanceCache = mock(LeaveBalanceCache.class);
+    private LeaveBalanceLookup lookup;
+
+    @AfterEach
+    void tearDown() {
+        if (lookup != null) {
+            lookup.shutdown();
+        }
+    }
+
+    @Test
+    void lookup_Blocking_RunsOnCallerThread() {
+        lookup = lookup(false, 1);
+        AtomicReference<Thread> loadedOn = new AtomicReference<>();
+        when(leaveService.getLeaveBalance(1L)).thenAnswer(invocation -> {
+            loadedOn.set(Thread.currentThread());
+            return balance();
+        });
+
+        CompletableFuture<LeaveBalance> result = lookup.lookup(1L);
+
+        assertTrue(result.isDone());
+        assertSame(Thread.currentThread(), loadedOn.get());
+        verifyNoInteractions(leaveBalanceCache);
+    }
+
+    @Test
+    void lookup_NonBlockingCacheHit_ServedByServiceOnCallerThread() {
+        lookup = lookup(true, 1);
+        AtomicReference<Thread> loadedOn = new AtomicReference<>();
+        when(leaveBalanceCache.contains(1L)).thenReturn(true);
+        when(leaveService.getLeaveBalance(1L)).thenAnswer(invocation -> {
+            loadedOn.set(Thread.currentThread());
+            return balance();
+        });
+
+        CompletableFuture<LeaveBalance> result = lookup.lookup(1L);
+
+        assertTrue(result.isDone());
+        assertEquals(12, result.join().getCasualLeave());
+        assertSame(Thread.currentThread(), loadedOn.get());
+    }
+
+    @Test
+    void lookup_NonBlockingCacheMiss_LoadsOnLoaderThread() throws Exception {
+        lookup = lookup(true, 1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicReference<String> loadedOn = new AtomicReference<>();
+        when(leaveService.getLeaveBalance(1L)).thenAnswer(invocation -> {
+            loadedOn.set(Thread.currentThread().getName());
+            release.await(10, TimeUnit.SECONDS);
+            return balance();
+        });
+
+        CompletableFuture<LeaveBalance> result = lookup.lookup(1L);
+
+        // The caller is not held while the balance is read
+        assertFalse(result.isDone());
+        release.countDown();
+        assertEquals(12, result.get(10, TimeUnit.SECONDS).getCasualLeave());
+        assertTrue(loadedOn.get().startsWith("balance-loader-"));
+    }
+
+    @Test
+    void lookup_NonBlockingFailure_CompletesExceptionally() {
+        lookup = lookup(true, 1);
+        when(leaveService.getLeaveBalance(1L)).thenThrow(new ResourceNotFoundException("Employee not found"));
+
+        CompletionException ex = assertThrows(CompletionException.class, () -> lookup.lookup(1L).join());
+
+        assertInstanceOf(ResourceNotFoundException.class, ex.getCause());
+    }
+
+    @Test
+    void lookup_NonBlockingQueueFull_IsRejected() {
+        lookup = lookup(true, 1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(leaveService.getLeaveBalance(anyLong())).thenAnswer(invocation -> {
+            release.await(10, TimeUnit.SECONDS);
+            return balance();
+        });
+        try {
+            // One loading, one queued
+            lookup.lookup(1L);
+            lookup.lookup(2L);
+
+            assertThrows(RejectedExecutionException.class, () -> lookup.lookup(3L));
+        } finally {
+            release.countDown();
+        }
+    }
+
+    private LeaveBalanceLookup lookup(boolean nonBlocking, int queueCapacity) {
+        return new LeaveBalanceLookup(leaveService, leaveBalanceCache,
+            new BalanceLookupProperties(nonBlocking, 1, queueCapacity));
+    }
+
+    private static LeaveBalance balance() {
+        return LeaveBalance.builder().id(10L).sickLeave(10).casualLeave(12).earnedLeave(18).year(2030)
+            .version(1L).build();
+    }
+}
@@ -0,0 +1,120 @@
+package com.hcltech.leave.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hcltech.leave.enums.ExportFormat;
+import com.hcltech.leave.enums.LeaveStatus;
+import com.hcltech.leave.enums.LeaveType;
+import com.hcltech.leave.exception.InvalidDateException;
+import com.hcltech.leave.model.Employee;
+import com.hcltech.leave.model.Leave;
+import com.hcltech.leave.model.LeaveBalance;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import(LeaveExportService.class)
+class LeaveExportServiceTest {
+
+    private static final LocalDate MARCH_1 = LocalDate.of(2024, 3, 1);
+    private static final LocalDate MARCH_31 = LocalDate.of(2024, 3, 31);
+
+    @Autowired
+    private LeaveExportService leaveExportService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private Leave overlappingStart;
+    private Leave inside;
+
+    @BeforeEach
+    void setUp() {
+        Employee employee = entityManager.persist(Employee.builder()
+            .name("Doe, John \"JD\"")
+            .email("john@hcltech.com")
+            .department("IT")
+            .managerId(2L)
+            .leaveBalance(LeaveBalance.builder().sickLeave(10).casualLeave(12).earnedLeave(18).year(2024).build())
+            .build());
+        overlappingStart = entityManager.persist(leave(employee, MARCH_1.minusDays(2), MARCH_1, LeaveStatus.APPROVED));
+        inside = entityManager.persist(leave(employee, MARCH_1.plusDays(10), MARCH_1.plusDays(11), LeaveStatus.PENDING));
+        entityManager.persist(leave(employee, MARCH_31.plusDays(1), MARCH_31.plusDays(2), LeaveStatus.APPROVED));
+        entityManager.persist(leave(employee, MARCH_1.minusDays(5), MARCH_1.minusDays(1), LeaveStatus.APPROVED));
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void export_Csv_WritesHeaderAndEscapedRowsOverlappingRange() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long rows = leaveExportService.export(MARCH_1, MARCH_31, ExportFormat.CSV, out);
+
+        List<String> lines = out.toString(StandardCharsets.UTF_8).lines().toList();
+        assertEquals(2, rows);
+        assertEquals(List.of(
+            LeaveExportService.CSV_HEADER,
+            overlappingStart.getId() + "," + overlappingStart.getEmployee().getId()
+                + ",\"Doe, John \"\"JD\"\"\",john@hcltech.com,IT,CASUAL,2024-02-28,2024-03-01,2,APPROVED,2024-02-01,",
+            inside.getId() + "," + inside.getEmployee().getId()
+                + ",\"Doe, John \"\"JD\"\"\",john@hcltech.com,IT,CASUAL,2024-03-11,2024-03-12,2,PENDING,2024-02-01,"),
+            lines);
+    }
+
+    @Test
+    void export_Ndjson_WritesOneObjectPerLine() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        leaveExportService.export(MARCH_1, MARCH_31, ExportFormat.NDJSON, out);
+
+        List<String> lines = out.toString(StandardCharsets.UTF_8).lines().toList();
+        assertEquals(2, lines.size());
+        JsonNode first = objectMapper.readTree(lines.get(0));
+        assertEquals(overlappingStart.getId(), first.get("id").asLong());
+        assertEquals("Doe, John \"JD\"", first.get("employeeName").asText());
+        assertEquals("2024-02-28", first.get("startDate").asText());
+        assertEquals("APPROVED", first.get("status").asText());
+        assertEquals(inside.getId(), objectMapper.readTree(lines.get(1)).get("id").asLong());
+    }
+
+    @Test
+    void export_FromAfterTo() {
+        assertThrows(InvalidDateException.class,
+            () -> leaveExportService.export(MARCH_31, MARCH_1, ExportFormat.CSV, new ByteArrayOutputStream()));
+    }
+
+    private static Leave leave(Employee employee, LocalDate start, LocalDate end, LeaveStatus status) {
+        return Leave.builder()
+            .employee(employee)
+            .leaveType(LeaveType.CASUAL)
+            .startDate(start)
+            .endDate(end)
+            .numberOfDays(2)
+            .reason("Family function")
+            .status(status)
+            .appliedDate(LocalDate.of(2024, 2, 1))
+            .build();
+    }
+}
@@ -1,22 +1,41 @@
 package com.hcltech.leave.service;
 
+import com.hcltech.leave.config.ReplicaDataSourceProperties;
 import com.hcltech.leave.dto.*;
 import com.hcltech.leave.enums.*;
 import com.hcltech.leave.exception.*;
 import com.hcltech.leave.model.*;
 import com.hcltech.leave.repository.*;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.SQLException;
+import java.time.Duration;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -29,7 +48,35 @@ class LeaveServiceImplTest {
     private EmployeeRepository employeeRepository;
     
     @Mock
-    private NotificationService notificationService;
+    private LeaveBalanceRepository leaveBalanceRepository;
+    
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+    
+    @Mock
+    private LeaveBalanceCache leaveBalanceCache;
+    
+    @Mock
+    private WorkingDayCalendar workingDayCalendar;
+    
+    @Mock
+    private TeamAbsenceCalendar teamAbsenceCalendar;
+    
+    @Mock
+    private PendingApprovalIndex pendingApprovalIndex;
+    
+    @Mock
+    private LeaveUsageService leaveUsageService;
+    
+    @Spy
+    private Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+    
+    @Spy
+    private TransactionTemplate transactionTemplate = new TransactionTemplate(mock(PlatformTransactionManager.class));
+    
+    @Spy
+    private ReadYourWrites readYourWrites = new ReadYourWrites(
+        new ReplicaDataSourceProperties(null, null, null, 10, Duration.ofSeconds(5), 1000));
     
     @InjectMocks
     private LeaveServiceImpl leaveService;
@@ -69,7 +116,9 @@ class LeaveServiceImplTest {
     @Test
     void testApplyLeave_Success() {
         // Arrange
-        when(employeeRepository.findById(1L)).thenReturn(Optional.of(employee));
+        when(employeeRepository.findForUpdateById(1L)).thenReturn(Optional.of(employee));
+        stubWorkingDays(3);
+        stubBalanceCacheLoadsThrough();
         when(leaveRepository.save(any(Leave.class))).thenAnswer(i -> {
             Leave leave = i.getArgument(0);
             leave.setId(1L);
@@ -86,14 +135,16 @@ class LeaveServiceImplTest {
         assertEquals(LeaveStatus.PENDING, response.getStatus());
         assertEquals(3, response.getNumberOfDays());
         
-        verify(employeeRepository, times(1)).findById(1L);
+        verify(employeeRepository, times(1)).findForUpdateById(1L);
         verify(leaveRepository, times(1)).save(any(Leave.class));
+        verify(employeeRepository).incrementLeavesVersion(List.of(1L));
+        verify(pendingApprovalIndex).addAfterCommit(eq(2L), argThat(leave -> leave.getId() == 1L));
     }
     
     @Test
     void testApplyLeave_EmployeeNotFound() {
         // Arrange
-        when(employeeRepository.findById(1L)).thenReturn(Optional.empty());
+        when(employeeRepository.findForUpdateById(1L)).thenReturn(Optional.empty());
         
         // Act & Assert
         assertThrows(ResourceNotFoundException.class, () -> {
@@ -105,7 +156,9 @@ class LeaveServiceImplTest {
     void testApplyLeave_InsufficientBalance() {
         // Arrange
         leaveBalance.setCasualLeave(2);
-        when(employeeRepository.findById(1L)).thenReturn(Optional.of(employee));
+        when(employeeRepository.findForUpdateById(1L)).thenReturn(Optional.of(employee));
+        stubWorkingDays(3);
+        stubBalanceCacheLoadsThrough();
         
         // Act & Assert
         assertThrows(InsufficientLeaveBalanceException.class, () -> {
@@ -113,16 +166,85 @@ class LeaveServiceImplTest {
         });
     }
     
+    @Test
+    void testApplyLeave_NoWorkingDays() {
+        // Arrange
+        when(employeeRepository.findForUpdateById(1L)).thenReturn(Optional.of(employee));
+        stubWorkingDays(0);
+        
+        // Act & Assert
+        InvalidDateException exception = assertThrows(InvalidDateException.class, () -> {
+            leaveService.applyLeave(leaveRequestDTO);
+        });
+        assertEquals("Leave period contains no working days", exception.getMessage());
+        verify(leaveRepository, never()).save(any(Leave.class));
+    }
+    
+    @Test
+    void testApplyLeave_OverlapsExistingLeave() {
+        // Arrange
+        when(employeeRepository.findForUpdateById(1L)).thenReturn(Optional.of(employee));
+        when(leaveRepository.existsOverlapping(eq(1L), anyCollection(),
+            eq(leaveRequestDTO.getStartDate()), eq(leaveRequestDTO.getEndDate()))).thenReturn(true);
+        
+        // Act & Assert
+        assertThrows(OverlappingLeaveException.class, () -> {
+            leaveService.applyLeave(leaveRequestDTO);
+        });
+        verify(leaveRepository, never()).save(any(Leave.class));
+    }
+    
+    @Test
+    void testApplyLeave_OverlapConstraintViolated() {
+        // Arrange
+        DataIntegrityViolationException violation = new DataIntegrityViolationException("could not execute statement",
+            new SQLException("conflicting key value violates exclusion constraint", "23P01"));
+        doThrow(violation).when(transactionTemplate).execute(any());
+        
+        // Act & Assert
+        assertThrows(OverlappingLeaveException.class, () -> {
+            leaveService.applyLeave(leaveRequestDTO);
+        });
+    }
+    
+    @Test
+    void testApplyLeave_OtherIntegrityViolationPropagates() {
+        // Arrange
+        DataIntegrityViolationException violation = new DataIntegrityViolationException("could not execute statement",
+            new SQLException("null value in column", "23502"));
+        doThrow(violation).when(transactionTemplate).execute(any());
+        
+        // Act & Assert
+        assertSame(violation, assertThrows(DataIntegrityViolationException.class, () -> {
+            leaveService.applyLeave(leaveRequestDTO);
+        }));
+    }
+    
     @Test
     void testApplyLeave_PastDate() {
         // Arrange
         leaveRequestDTO.setStartDate(LocalDate.now().minusDays(1));
-        when(employeeRepository.findById(1L)).thenReturn(Optional.of(employee));
         
         // Act & Assert
         assertThrows(InvalidDateException.class, () -> {
             leaveService.applyLeave(leaveRequestDTO);
         });
+        // Rejected before a transaction is begun
+        verifyNoInteractions(employeeRepository);
+        verify(transactionTemplate, never()).execute(any());
+    }
+    
+    @Test
+    void testApplyLeave_SpanTooLong() {
+        // Arrange
+        leaveRequestDTO.setEndDate(leaveRequestDTO.getStartDate().plusDays(LeaveServiceImpl.MAX_LEAVE_DAYS));
+        
+        // Act & Assert
+        InvalidDateException exception = assertThrows(InvalidDateException.class, () -> {
+            leaveService.applyLeave(leaveRequestDTO);
+        });
+        assertEquals("A leave can span at most 366 days", exception.getMessage());
+        verifyNoInteractions(employeeRepository);
     }
     
     @Test
@@ -145,8 +267,9 @@ class LeaveServiceImplTest {
             .comments("Approved")
             .build();
         
-        when(leaveRepository.findById(1L)).thenReturn(Optional.of(leave));
+        when(leaveRepository.findWithEmployeeById(1L)).thenReturn(Optional.of(leave));
         when(leaveRepository.save(any(Leave.class))).thenReturn(leave);
+        when(leaveBalanceRepository.deductCasualLeave(1L, 3)).thenReturn(1);
         
         // Act
         LeaveResponseDTO response = leaveService.approveOrRejectLeave(approvalDTO);
@@ -154,9 +277,35 @@ class LeaveServiceImplTest {
         // Assert
         assertNotNull(response);
         assertEquals(LeaveStatus.APPROVED, response.getStatus());
-        assertEquals(9, employee.getLeaveBalance().getCasualLeave());
+        verify(leaveBalanceRepository).deductCasualLeave(1L, 3);
+        
+        verify(leaveBalanceCache).evictAfterCommit(1L);
+        ArgumentCaptor<OutboxEvent> event = ArgumentCaptor.forClass(OutboxEvent.class);
+        verify(outboxEventRepository, times(1)).save(event.capture());
+        assertEquals(1L, event.getValue().getLeaveId());
+        assertEquals("john@example.com", event.getValue().getRecipientEmail());
+        assertEquals(LeaveStatus.APPROVED, event.getValue().getStatus());
+        verify(teamAbsenceCalendar).recordApproved(List.of(leave));
+        verify(leaveUsageService).recordApproved(List.of(leave));
+        verify(readYourWrites).pinAfterCommit(leave.getEmployee());
+        verify(employeeRepository).incrementLeavesVersion(List.of(1L));
+        verify(pendingApprovalIndex).removeAfterCommit(2L, 1L);
+    }
+    
+    @Test
+    void testApproveLeave_BalanceConsumedConcurrently() {
+        // Arrange
+        Leave leave = pendingCasualLeave(1L, 3);
+        when(leaveRepository.findWithEmployeeById(1L)).thenReturn(Optional.of(leave));
+        when(leaveBalanceRepository.deductCasualLeave(1L, 3)).thenReturn(0);
         
-        verify(notificationService, times(1)).sendLeaveStatusNotification(any(Leave.class));
+        // Act & Assert
+        assertThrows(InsufficientLeaveBalanceException.class,
+            () -> leaveService.approveOrRejectLeave(approval(1L, LeaveStatus.APPROVED)));
+        assertEquals(LeaveStatus.PENDING, leave.getStatus());
+        verify(leaveRepository, never()).save(any());
+        verifyNoInteractions(outboxEventRepository, leaveBalanceCache, teamAbsenceCalendar, pendingApprovalIndex,
+            leaveUsageService);
     }
     
     @Test
@@ -168,7 +317,7 @@ class LeaveServiceImplTest {
             .status(LeaveStatus.PENDING)
             .build();
         
-        when(leaveRepository.findById(1L)).thenReturn(Optional.of(leave));
+        when(leaveRepository.findWithEmployeeById(1L)).thenReturn(Optional.of(leave));
         when(leaveRepository.save(any(Leave.class))).thenReturn(leave);
         
         // Act
@@ -177,6 +326,261 @@ class LeaveServiceImplTest {
         // Assert
         assertNotNull(response);
         assertEquals(LeaveStatus.CANCELLED, response.getStatus());
+        verify(outboxEventRepository).save(any(OutboxEvent.class));
+        verify(employeeRepository).incrementLeavesVersion(List.of(1L));
+        verify(pendingApprovalIndex).removeAfterCommit(2L, 1L);
+    }
+    
+    @Test
+    void testGetEmployeeLeaves_FirstPageWithNextCursor() {
+        // Arrange
+        LeaveResponseDTO newest = LeaveResponseDTO.builder().id(30L).appliedDate(LocalDate.of(2024, 3, 1)).build();
+        LeaveResponseDTO middle = LeaveResponseDTO.builder().id(20L).appliedDate(LocalDate.of(2024, 2, 1)).build();
+        LeaveResponseDTO oldest = LeaveResponseDTO.builder().id(10L).appliedDate(LocalDate.of(2024, 1, 1)).build();
+        when(leaveRepository.findEmployeeHistoryPage(eq(1L), anyCollection(), any(), any(), any(), any(), any()))
+            .thenReturn(List.of(newest, middle, oldest));
+        
+        // Act
+        LeaveHistoryPageDTO page = leaveService.getEmployeeLeaves(1L, LeaveHistoryQuery.builder().size(2).build());
+        
+        // Assert
+        assertEquals(List.of(newest, middle), page.getContent());
+        assertTrue(page.isHasNext());
+        assertEquals(new LeaveHistoryCursor(LocalDate.of(2024, 2, 1), 20L),
+            LeaveHistoryCursor.decode(page.getNextCursor()));
+        verify(leaveRepository).findEmployeeHistoryPage(1L, EnumSet.allOf(LeaveStatus.class),
+            LocalDate.of(1, 1, 1), LocalDate.of(9999, 12, 31),
+            LeaveHistoryCursor.FIRST.appliedDate(), LeaveHistoryCursor.FIRST.id(), Limit.of(3));
+    }
+    
+    @Test
+    void testGetTeamLeaves_AppliesFiltersAndCursor() {
+        // Arrange
+        String cursor = new LeaveHistoryCursor(LocalDate.of(2024, 2, 1), 20L).encode();
+        LeaveHistoryQuery query = LeaveHistoryQuery.builder()
+            .status(LeaveStatus.APPROVED)
+            .from(LocalDate.of(2024, 1, 1))
+            .to(LocalDate.of(2024, 6, 30))
+            .cursor(cursor)
+            .size(10)
+            .build();
+        when(leaveRepository.findTeamHistoryPage(eq(2L), anyCollection(), any(), any(), any(), any(), any()))
+            .thenReturn(List.of());
+        
+        // Act
+        LeaveHistoryPageDTO page = leaveService.getTeamLeaves(2L, query);
+        
+        // Assert
+        assertTrue(page.getContent().isEmpty());
+        assertFalse(page.isHasNext());
+        assertNull(page.getNextCursor());
+        verify(leaveRepository).findTeamHistoryPage(2L, EnumSet.of(LeaveStatus.APPROVED),
+            LocalDate.of(2024, 1, 1), LocalDate.of(2024, 6, 30),
+            LocalDate.of(2024, 2, 1), 20L, Limit.of(11));
+    }
+    
+    @Test
+    void testGetTeamLeavesVersion_DistinguishesTeamsWithTheSameVersionTotal() {
+        // Arrange - the same members and version total, changed on different members
+        when(employeeRepository.findMemberLeavesVersionsByManagerId(2L))
+            .thenReturn(List.of("3:1", "4:0"), List.of("3:0", "4:1"), List.of("3:1", "4:0"));
+        
+        // Act
+        String first = leaveService.getTeamLeavesVersion(2L);
+        String second = leaveService.getTeamLeavesVersion(2L);
+        String third = leaveService.getTeamLeavesVersion(2L);
+        
+        // Assert
+        assertNotEquals(first, second);
+        assertEquals(first, third);
+    }
+    
+    @Test
+    void testGetEmployeeLeaves_InvalidCursor() {
+        // Arrange
+        LeaveHistoryQuery query = LeaveHistoryQuery.builder().cursor("not-a-cursor").build();
+        
+        // Act & Assert
+        assertThrows(InvalidCursorException.class, () -> leaveService.getEmployeeLeaves(1L, query));
+        verifyNoInteractions(leaveRepository);
+    }
+    
+    @Test
+    void testGetEmployeeLeaves_FromAfterTo() {
+        // Arrange
+        LeaveHistoryQuery query = LeaveHistoryQuery.builder()
+            .from(LocalDate.of(2024, 6, 1))
+            .to(LocalDate.of(2024, 1, 1))
+            .build();
+        
+        // Act & Assert
+        assertThrows(InvalidDateException.class, () -> leaveService.getEmployeeLeaves(1L, query));
+    }
+    
+    @Test
+    void testGetTeamCalendar_DelegatesToAggregate() {
+        // Arrange
+        LocalDate from = LocalDate.of(2024, 3, 1);
+        LocalDate to = from.plusDays(LeaveServiceImpl.MAX_CALENDAR_DAYS - 1);
+        List<TeamCalendarDayDTO> days = List.of(TeamCalendarDayDTO.builder().date(from).build());
+        when(teamAbsenceCalendar.calendar(2L, from, to)).thenReturn(days);
+        
+        // Act & Assert
+        assertEquals(days, leaveService.getTeamCalendar(2L, from, to));
+    }
+    
+    @Test
+    void testGetTeamCalendar_InvalidRange() {
+        // Arrange
+        LocalDate from = LocalDate.of(2024, 3, 1);
+        
+        // Act & Assert
+        assertThrows(InvalidDateException.class, () -> leaveService.getTeamCalendar(2L, from, from.minusDays(1)));
+        assertThrows(InvalidDateException.class,
+            () -> leaveService.getTeamCalendar(2L, from, from.plusDays(LeaveServiceImpl.MAX_CALENDAR_DAYS)));
+        verifyNoInteractions(teamAbsenceCalendar);
+    }
+    
+    @Test
+    void testGetLeaveBalance_LoadsThroughCache() {
+        // Arrange
+        when(employeeRepository.findWithLeaveBalanceById(1L)).thenReturn(Optional.of(employee));
+        stubBalanceCacheLoadsThrough();
+        
+        // Act
+        LeaveBalance balance = leaveService.getLeaveBalance(1L);
+        
+        // Assert
+        assertEquals(12, balance.getCasualLeave());
+    }
+    
+    @Test
+    void testGetLeaveBalance_EmployeeNotFound() {
+        // Arrange
+        when(employeeRepository.findWithLeaveBalanceById(1L)).thenReturn(Optional.empty());
+        stubBalanceCacheLoadsThrough();
+        
+        // Act & Assert
+        assertThrows(ResourceNotFoundException.class, () -> leaveService.getLeaveBalance(1L));
+    }
+    
+    private void stubBalanceCacheLoadsThrough() {
+        when(leaveBalanceCache.get(eq(1L), any()))
+            .thenAnswer(i -> i.<Supplier<LeaveBalance>>getArgument(1).get());
+    }
+    
+    private void stubWorkingDays(int days) {
+        when(workingDayCalendar.workingDays("IT", leaveRequestDTO.getStartDate(), leaveRequestDTO.getEndDate()))
+            .thenReturn(days);
+    }
+    
+    @Test
+    void testApproveOrRejectLeaves_ReportsPerItemOutcomes() {
+        // Arrange
+        Leave first = pendingCasualLeave(1L, 5);
+        Leave second = pendingCasualLeave(2L, 5);
+        Leave overdrawn = pendingCasualLeave(3L, 5);
+        Leave processed = pendingCasualLeave(4L, 1);
+        processed.setStatus(LeaveStatus.APPROVED);
+        Leave rejected = pendingCasualLeave(5L, 1);
+        when(leaveRepository.findWithEmployeeByIdIn(anyCollection()))
+            .thenReturn(List.of(first, second, overdrawn, processed, rejected));
+        when(leaveBalanceRepository.deductCasualLeave(1L, 10)).thenReturn(1);
+        
+        List<LeaveApprovalDTO> approvals = List.of(
+            approval(1L, LeaveStatus.APPROVED),
+            approval(2L, LeaveStatus.APPROVED),
+            approval(3L, LeaveStatus.APPROVED),
+            approval(4L, LeaveStatus.APPROVED),
+            approval(5L, LeaveStatus.REJECTED),
+            approval(99L, LeaveStatus.APPROVED),
+            approval(1L, LeaveStatus.APPROVED),
+            approval(6L, null));
+        
+        // Act
+        List<LeaveApprovalResultDTO> results = leaveService.approveOrRejectLeaves(approvals);
+        
+        // Assert
+        assertEquals(8, results.size());
+        assertTrue(results.get(0).isSuccess());
+        assertTrue(results.get(1).isSuccess());
+        assertEquals("Insufficient CASUAL leave balance. Available: 2, Requested: 5", results.get(2).getMessage());
+        assertEquals("Leave is already processed", results.get(3).getMessage());
+        assertTrue(results.get(4).isSuccess());
+        assertEquals(LeaveStatus.REJECTED, results.get(4).getLeave().getStatus());
+        assertEquals("Leave request not found", results.get(5).getMessage());
+        assertEquals("Duplicate leave in bulk request", results.get(6).getMessage());
+        assertEquals("Status is required", results.get(7).getMessage());
+        
+        verify(leaveBalanceRepository).deductCasualLeave(1L, 10);
+        verify(leaveBalanceCache).evictAfterCommit(1L);
+        assertEquals(LeaveStatus.PENDING, overdrawn.getStatus());
+        verify(leaveRepository).saveAll(List.of(first, second, rejected));
+        verify(teamAbsenceCalendar).recordApproved(List.of(first, second));
+        verify(leaveUsageService).recordApproved(List.of(first, second));
+        verify(outboxEventRepository).saveAll(argThat(events -> ((List<?>) events).size() == 3));
+        verify(leaveRepository, never()).findWithEmployeeById(any());
+    }
+    
+    @Test
+    void testApproveOrRejectLeaves_FailsGroupWhenBalanceConsumedConcurrently() {
+        // Arrange
+        Leave casual = pendingCasualLeave(1L, 2);
+        Leave sick = pendingCasualLeave(2L, 1);
+        sick.setLeaveType(LeaveType.SICK);
+        when(leaveRepository.findWithEmployeeByIdIn(anyCollection())).thenReturn(List.of(casual, sick));
+        when(leaveBalanceRepository.deductCasualLeave(1L, 2)).thenReturn(0);
+        when(leaveBalanceRepository.deductSickLeave(1L, 1)).thenReturn(1);
+        
+        // Act
+        List<LeaveApprovalResultDTO> results = leaveService.approveOrRejectLeaves(List.of(
+            approval(1L, LeaveStatus.APPROVED), approval(2L, LeaveStatus.APPROVED)));
+        
+        // Assert
+        assertFalse(results.get(0).isSuccess());
+        assertEquals("Insufficient CASUAL leave balance. Requested: 2", results.get(0).getMessage());
+        assertTrue(results.get(1).isSuccess());
+        assertEquals(LeaveStatus.PENDING, casual.getStatus());
+        assertEquals(LeaveStatus.APPROVED, sick.getStatus());
+        verify(leaveRepository).saveAll(List.of(sick));
+    }
+    
+    @Test
+    void testApproveOrRejectLeaves_RejectsEmptyBatch() {
+        // Act & Assert
+        assertThrows(InvalidLeaveOperationException.class, () -> leaveService.approveOrRejectLeaves(List.of()));
+        verifyNoInteractions(leaveRepository);
+    }
+    
+    @Test
+    void testApproveOrRejectLeaves_RejectsNullItem() {
+        // Arrange
+        List<LeaveApprovalDTO> approvals = new ArrayList<>();
+        approvals.add(null);
+        
+        // Act & Assert
+        assertThrows(InvalidLeaveOperationException.class, () -> leaveService.approveOrRejectLeaves(approvals));
+        verifyNoInteractions(leaveRepository);
+    }
+    
+    private Leave pendingCasualLeave(Long id, int days) {
+        return Leave.builder()
+            .id(id)
+            .employee(employee)
+            .leaveType(LeaveType.CASUAL)
+            .startDate(LocalDate.now().plusDays(1))
+            .endDate(LocalDate.now().plusDays(days))
+            .numberOfDays(days)
+            .status(LeaveStatus.PENDING)
+            .build();
+    }
+    
+    private static LeaveApprovalDTO approval(Long leaveId, LeaveStatus status) {
+        return LeaveApprovalDTO.builder()
+            .leaveId(leaveId)
+            .managerId(2L)
+            .status(status)
+            .build();
     }
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,114 @@
+package com.hcltech.leave.service;
+
+import com.hcltech.leave.dto.LeaveApprovalDTO;
+import com.hcltech.leave.dto.LeaveApprovalResultDTO;
+import com.hcltech.leave.dto.LeaveRequestDTO;
+import com.hcltech.leave.dto.LeaveResponseDTO;
+import com.hcltech.leave.enums.LeaveStatus;
+import com.hcltech.leave.exception.InsufficientLeaveBalanceException;
+import com.hcltech.leave.exception.ResourceNotFoundException;
+import com.hcltech.leave.exception.UnauthorizedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class LeaveServiceMetricsTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private LeaveService target;
+    private LeaveService leaveService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        target = mock(LeaveService.class);
+        AspectJProxyFactory proxyFactory = new AspectJProxyFactory(target);
+        proxyFactory.addAspect(new LeaveServiceMetrics(meterRegistry));
+        leaveService = proxyFactory.getProxy();
+    }
+
+    @Test
+    void approveOrRejectLeave_TagsOutcomeFromDecision() {
+        // Arrange
+        when(target.approveOrRejectLeave(any()))
+            .thenReturn(LeaveResponseDTO.builder().status(LeaveStatus.APPROVED).build())
+            .thenReturn(LeaveResponseDTO.builder().status(LeaveStatus.REJECTED).build());
+
+        // Act
+        leaveService.approveOrRejectLeave(new LeaveApprovalDTO());
+        leaveService.approveOrRejectLeave(new LeaveApprovalDTO());
+
+        // Assert
+        assertEquals(1, timerCount("approveOrRejectLeave", "approved"));
+        assertEquals(1, timerCount("approveOrRejectLeave", "rejected"));
+    }
+
+    @Test
+    void failures_TagOutcomeFromException() {
+        // Arrange
+        when(target.applyLeave(any())).thenThrow(new InsufficientLeaveBalanceException("Insufficient"));
+        when(target.getLeaveBalance(any())).thenThrow(new ResourceNotFoundException("Employee not found"));
+        when(target.cancelLeave(any(), any())).thenThrow(new UnauthorizedException("Not authorized to cancel this leave"));
+
+        // Act & Assert
+        assertThrows(InsufficientLeaveBalanceException.class, () -> leaveService.applyLeave(new LeaveRequestDTO()));
+        assertThrows(ResourceNotFoundException.class, () -> leaveService.getLeaveBalance(1L));
+        assertThrows(UnauthorizedException.class, () -> leaveService.cancelLeave(1L, 2L));
+        assertEquals(1, timerCount("applyLeave", "insufficient_balance"));
+        assertEquals(1, timerCount("getLeaveBalance", "not_found"));
+        assertEquals(1, timerCount("cancelLeave", "unauthorized"));
+    }
+
+    @Test
+    void unexpectedFailure_TaggedAsError() {
+        // Arrange
+        when(target.cancelLeave(any(), any())).thenThrow(new IllegalStateException("boom"));
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> leaveService.cancelLeave(1L, 1L));
+        assertEquals(1, timerCount("cancelLeave", "error"));
+    }
+
+    @Test
+    void approveOrRejectLeaves_CountsItemsPerOutcome() {
+        // Arrange
+        when(target.approveOrRejectLeaves(anyList())).thenReturn(List.of(
+            LeaveApprovalResultDTO.builder().success(true)
+                .leave(LeaveResponseDTO.builder().status(LeaveStatus.APPROVED).build()).build(),
+            LeaveApprovalResultDTO.builder().success(true)
+                .leave(LeaveResponseDTO.builder().status(LeaveStatus.APPROVED).build()).build(),
+            LeaveApprovalResultDTO.builder().success(false).message("Leave is already processed").build()));
+
+        // Act
+        leaveService.approveOrRejectLeaves(List.of(new LeaveApprovalDTO()));
+
+        // Assert
+        assertEquals(1, timerCount("approveOrRejectLeaves", "success"));
+        assertEquals(2, bulkItemCount("approved"));
+        assertEquals(1, bulkItemCount("failed"));
+    }
+
+    private long timerCount(String method, String outcome) {
+        return meterRegistry.get(LeaveServiceMetrics.TIMER_NAME)
+            .tag("method", method)
+            .tag("outcome", outcome)
+            .timer()
+            .count();
+    }
+
+    private double bulkItemCount(String outcome) {
+        return meterRegistry.get(LeaveServiceMetrics.BULK_ITEMS_COUNTER_NAME)
+            .tag("outcome", outcome)
+            .counter()
+            .count();
+    }
+}
@@ -0,0 +1,346 @@
+package com.hcltech.leave.service;
+
+import com.hcltech.leave.config.CacheConfig;
+import com.hcltech.leave.config.CalendarProperties;
+import com.hcltech.leave.config.ReplicaDataSourceProperties;
+import com.hcltech.leave.dto.*;
+import com.hcltech.leave.enums.LeaveStatus;
+import com.hcltech.leave.enums.LeaveType;
+import com.hcltech.leave.model.Employee;
+import com.hcltech.leave.model.Leave;
+import com.hcltech.leave.model.LeaveBalance;
+import com.hcltech.leave.repository.LeaveRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.cache.CacheType;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.autoconfigure.core.AutoConfigureCache;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Guards the read and write paths against N+1 regressions by counting the JDBC statements
+ * Hibernate prepares for each service call. Sequence calls are left out: the pooled id
+ * generators are shared by all tests, so when they hit the database depends on test order.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+    + "com.hcltech.leave.service.LeaveServiceQueryCountTest$SequenceCallCounter")
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@AutoConfigureCache(cacheProvider = CacheType.CAFFEINE)
+@ImportAutoConfiguration(ValidationAutoConfiguration.class)
+@Import({LeaveServiceImpl.class, LeaveBalanceCache.class, WorkingDayCalendar.class, TeamAbsenceCalendar.class,
+    PendingApprovalIndex.class, LeaveUsageService.class, ReadYourWrites.class, SimpleMeterRegistry.class,
+    CacheConfig.class})
+@EnableConfigurationProperties({CalendarProperties.class, ReplicaDataSourceProperties.class})
+class LeaveServiceQueryCountTest {
+
+    private static final int TEAM_SIZE = 5;
+    private static final int LEAVES_PER_EMPLOYEE = 3;
+    private static final LocalDate NEXT_MONDAY = LocalDate.now().with(TemporalAdjusters.next(DayOfWeek.MONDAY));
+
+    @Autowired
+    private LeaveService leaveService;
+
+    @Autowired
+    private LeaveRepository leaveRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private WorkingDayCalendar workingDayCalendar;
+
+    @Autowired
+    private PendingApprovalIndex pendingApprovalIndex;
+
+    private Statistics statistics;
+    private Long managerId;
+    private final List<Employee> team = new ArrayList<>();
+    private final List<Leave> leaves = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        Employee manager = entityManager.persist(employee("Jane Manager", "jane@hcltech.com", null));
+        managerId = manager.getId();
+        for (int i = 0; i < TEAM_SIZE; i++) {
+            Employee member = entityManager.persist(employee("Member " + i, "member" + i + "@hcltech.com", managerId));
+            team.add(member);
+            for (int j = 0; j < LEAVES_PER_EMPLOYEE; j++) {
+                leaves.add(entityManager.persist(Leave.builder()
+                    .employee(member)
+                    .leaveType(LeaveType.CASUAL)
+                    .startDate(NEXT_MONDAY.plusDays(10L * j))
+                    .endDate(NEXT_MONDAY.plusDays(10L * j + 1))
+                    .numberOfDays(2)
+                    .reason("Family function")
+                    .status(LeaveStatus.PENDING)
+                    .appliedDate(LocalDate.now())
+                    .build()));
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+        cacheManager.getCache(LeaveBalanceCache.CACHE_NAME).clear();
+        // Holidays are loaded once at startup, not per request
+        workingDayCalendar.reload();
+        clearStatistics();
+    }
+
+    @Test
+    void getTeamLeaves_UsesSingleStatement() {
+        LeaveHistoryPageDTO page = leaveService.getTeamLeaves(managerId, LeaveHistoryQuery.builder().size(100).build());
+
+        assertEquals(TEAM_SIZE * LEAVES_PER_EMPLOYEE, page.getContent().size());
+        page.getContent().forEach(leave -> assertNotNull(leave.getEmployeeName()));
+        assertStatementCount(1);
+    }
+
+    @Test
+    void getEmployeeLeaves_UsesSingleStatement() {
+        LeaveHistoryPageDTO page = leaveService.getEmployeeLeaves(team.get(0).getId(), LeaveHistoryQuery.builder().build());
+
+        assertEquals(LEAVES_PER_EMPLOYEE, page.getContent().size());
+        assertStatementCount(1);
+    }
+
+    @Test
+    void findByManagerIdAndStatus_FetchesEmployeesInSameStatement() {
+        List<Leave> pending = leaveRepository.findByManagerIdAndStatus(managerId, LeaveStatus.PENDING);
+        pending.forEach(leave -> assertNotNull(leave.getEmployee().getName()));
+
+        assertEquals(TEAM_SIZE * LEAVES_PER_EMPLOYEE, pending.size());
+        assertStatementCount(1);
+    }
+
+    @Test
+    void findByManagerId_FetchesEmployeesInSameStatement() {
+        List<Leave> teamLeaves = leaveRepository.findByManagerId(managerId);
+        teamLeaves.forEach(leave -> assertNotNull(leave.getEmployee().getEmail()));
+
+        assertEquals(TEAM_SIZE * LEAVES_PER_EMPLOYEE, teamLeaves.size());
+        assertStatementCount(1);
+    }
+
+    @Test
+    void getPendingApprovals_BuiltWithOneStatementThenServedFromMemory() {
+        pendingApprovalIndex.rebuild();
+        assertStatementCount(1);
+
+        List<LeaveResponseDTO> pending = leaveService.getPendingApprovals(managerId);
+        PendingApprovalCountDTO count = leaveService.countPendingApprovals(managerId);
+
+        assertEquals(TEAM_SIZE * LEAVES_PER_EMPLOYEE, pending.size());
+        assertEquals(leaves.stream().map(Leave::getId).sorted().toList(),
+            pending.stream().map(LeaveResponseDTO::getId).toList());
+        assertEquals(TEAM_SIZE * LEAVES_PER_EMPLOYEE, count.getPendingCount());
+        assertEquals(0, leaveService.countPendingApprovals(team.get(0).getId()).getPendingCount());
+        assertStatementCount(1);
+    }
+
+    @Test
+    void getLeaveBalance_UsesSingleStatementThenCache() {
+        Long employeeId = team.get(0).getId();
+
+        assertEquals(12, leaveService.getLeaveBalance(employeeId).getCasualLeave());
+        assertStatementCount(1);
+
+        assertEquals(12, leaveService.getLeaveBalance(employeeId).getCasualLeave());
+        assertStatementCount(1);
+    }
+
+    @Test
+    void applyLeave_ReadsBalanceFromCacheWhenWarm() {
+        Long employeeId = team.get(0).getId();
+        leaveService.getLeaveBalance(employeeId);
+        entityManager.clear();
+        clearStatistics();
+
+        leaveService.applyLeave(sickLeaveRequest(employeeId));
+        entityManager.flush();
+
+        // select employee for update, overlap check, insert leave, bump leaves version
+        assertStatementCount(4);
+    }
+
+    @Test
+    void applyLeave_LoadsBalanceOnCacheMiss() {
+        leaveService.applyLeave(sickLeaveRequest(team.get(0).getId()));
+        entityManager.flush();
+
+        // select employee for update, overlap check, select balance, insert leave, bump leaves version
+        assertStatementCount(5);
+    }
+
+    @Test
+    void existsOverlapping_MatchesInclusiveRangesOfActiveLeaves() {
+        Leave existing = leaves.get(0);
+        Long employeeId = existing.getEmployee().getId();
+        Set<LeaveStatus> active = EnumSet.of(LeaveStatus.PENDING, LeaveStatus.APPROVED);
+
+        assertTrue(leaveRepository.existsOverlapping(employeeId, active,
+            existing.getEndDate(), existing.getEndDate().plusDays(3)));
+        assertTrue(leaveRepository.existsOverlapping(employeeId, active,
+            existing.getStartDate().minusDays(3), existing.getStartDate()));
+        assertFalse(leaveRepository.existsOverlapping(employeeId, active,
+            existing.getEndDate().plusDays(1), existing.getEndDate().plusDays(3)));
+        assertFalse(leaveRepository.existsOverlapping(employeeId, EnumSet.of(LeaveStatus.REJECTED),
+            existing.getStartDate(), existing.getEndDate()));
+        assertFalse(leaveRepository.existsOverlapping(managerId, active,
+            existing.getStartDate(), existing.getEndDate()));
+        assertStatementCount(5);
+    }
+
+    @Test
+    void approveLeave_LoadsLeaveEmployeeAndBalanceTogether() {
+        LeaveApprovalDTO approval = LeaveApprovalDTO.builder()
+            .leaveId(leaves.get(0).getId())
+            .managerId(managerId)
+            .status(LeaveStatus.APPROVED)
+            .comments("Approved")
+            .build();
+
+        leaveService.approveOrRejectLeave(approval);
+        entityManager.flush();
+
+        // select leave with employee and balance, conditional balance update, update leave,
+        // bump leaves version, insert absence days, insert outbox event, then per month of the
+        // leave an update of its usage summary and, as none exists yet, an insert
+        assertStatementCount(6 + 2 * usageMonths(leaves.subList(0, 1)));
+    }
+
+    @Test
+    void approveOrRejectLeaves_LoadsOnceAndBatchesUpdates() {
+        List<LeaveApprovalDTO> approvals = leaves.stream()
+            .filter(leave -> leave.getStartDate().isBefore(NEXT_MONDAY.plusDays(20)))
+            .map(leave -> LeaveApprovalDTO.builder()
+                .leaveId(leave.getId())
+                .managerId(managerId)
+                .status(LeaveStatus.APPROVED)
+                .build())
+            .toList();
+
+        List<LeaveApprovalResultDTO> results = leaveService.approveOrRejectLeaves(approvals);
+        entityManager.flush();
+
+        assertEquals(TEAM_SIZE * 2, results.size());
+        assertTrue(results.stream().allMatch(LeaveApprovalResultDTO::isSuccess));
+        // select leaves with employees and balances, one conditional balance update per employee,
+        // then one batched statement each for leaves, absence days and outbox events, and a
+        // single leaves version bump for every employee; the usage summaries are updated once per
+        // month, however many leaves fall in it
+        assertStatementCount(1 + TEAM_SIZE + 4 + 2 * usageMonths(leaves.stream()
+            .filter(leave -> leave.getStartDate().isBefore(NEXT_MONDAY.plusDays(20)))
+            .toList()));
+        assertEquals(TEAM_SIZE * 2, statistics.getEntityUpdateCount());
+    }
+
+    @Test
+    void getTeamCalendar_ReadsOnlyTheAggregate() {
+        leaveService.approveOrRejectLeaves(leaves.stream()
+            .map(leave -> LeaveApprovalDTO.builder()
+                .leaveId(leave.getId())
+                .managerId(managerId)
+                .status(LeaveStatus.APPROVED)
+                .build())
+            .toList());
+        entityManager.flush();
+        entityManager.clear();
+        clearStatistics();
+
+        List<TeamCalendarDayDTO> days = leaveService.getTeamCalendar(managerId, NEXT_MONDAY, NEXT_MONDAY.plusDays(13));
+
+        assertEquals(14, days.size());
+        assertEquals(TEAM_SIZE, days.get(0).getAbsentCount());
+        assertEquals(TEAM_SIZE, days.get(1).getAbsentCount());
+        assertEquals(0, days.get(2).getAbsentCount());
+        assertEquals(TEAM_SIZE, days.get(10).getAbsentCount());
+        assertEquals("Member 0", days.get(10).getAbsentEmployees().get(0));
+        assertStatementCount(1);
+    }
+
+    private static LeaveRequestDTO sickLeaveRequest(Long employeeId) {
+        return LeaveRequestDTO.builder()
+            .employeeId(employeeId)
+            .leaveType(LeaveType.SICK)
+            .startDate(NEXT_MONDAY.plusWeeks(10))
+            .endDate(NEXT_MONDAY.plusWeeks(10).plusDays(1))
+            .reason("Medical appointment")
+            .build();
+    }
+
+    private static long usageMonths(List<Leave> approved) {
+        // Every leave here is two weekdays long, so its months are those of its first and last day
+        return approved.stream()
+            .flatMap(leave -> Stream.of(leave.getStartDate(), leave.getEndDate()))
+            .map(YearMonth::from)
+            .distinct()
+            .count();
+    }
+
+    private void clearStatistics() {
+        statistics.clear();
+        SequenceCallCounter.CALLS.set(0);
+    }
+
+    private void assertStatementCount(long expected) {
+        assertEquals(expected, statistics.getPrepareStatementCount() - SequenceCallCounter.CALLS.get(),
+            "Unexpected number of SQL statements");
+    }
+
+    private static Employee employee(String name, String email, Long managerId) {
+        return Employee.builder()
+            .name(name)
+            .email(email)
+            .department("IT")
+            .managerId(managerId)
+            .leaveBalance(LeaveBalance.builder().sickLeave(10).casualLeave(12).earnedLeave(18).year(2024).build())
+            .build();
+    }
+
+    public static class SequenceCallCounter implements StatementInspector {
+
+        static final AtomicLong CALLS = new AtomicLong();
+
+        @Override
+        public String inspect(String sql) {
+            if (sql.contains("next value for")) {
+                CALLS.incrementAndGet();
+            }
+            return sql;
+        }
+    }
+}
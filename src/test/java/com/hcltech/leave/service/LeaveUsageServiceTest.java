@@ -0,0 +1,155 @@
+package com.hcltech.leave.service;
+
+import com.hcltech.leave.config.CalendarProperties;
+import com.hcltech.leave.dto.LeaveUsageDTO;
+import com.hcltech.leave.enums.LeaveStatus;
+import com.hcltech.leave.enums.LeaveType;
+import com.hcltech.leave.exception.InvalidDateException;
+import com.hcltech.leave.model.Employee;
+import com.hcltech.leave.model.Leave;
+import com.hcltech.leave.model.LeaveBalance;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({LeaveUsageService.class, WorkingDayCalendar.class})
+@EnableConfigurationProperties(CalendarProperties.class)
+class LeaveUsageServiceTest {
+
+    private static final YearMonth FEBRUARY = YearMonth.of(2024, 2);
+    private static final YearMonth MARCH = YearMonth.of(2024, 3);
+
+    @Autowired
+    private LeaveUsageService leaveUsageService;
+
+    @Autowired
+    private WorkingDayCalendar workingDayCalendar;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private Leave acrossMonths;
+    private Leave sick;
+    private Leave otherDepartment;
+
+    @BeforeEach
+    void setUp() {
+        Employee john = entityManager.persist(employee("John Doe", "john@hcltech.com", "IT"));
+        Employee jane = entityManager.persist(employee("Jane Roe", "jane@hcltech.com", "HR"));
+        // Thursday 29 February to Monday 4 March: one working day in February, two in March
+        acrossMonths = entityManager.persist(leave(john, LeaveType.CASUAL,
+            LocalDate.of(2024, 2, 29), LocalDate.of(2024, 3, 4), LeaveStatus.APPROVED));
+        sick = entityManager.persist(leave(john, LeaveType.SICK,
+            LocalDate.of(2024, 3, 11), LocalDate.of(2024, 3, 12), LeaveStatus.APPROVED));
+        otherDepartment = entityManager.persist(leave(jane, LeaveType.CASUAL,
+            LocalDate.of(2024, 3, 5), LocalDate.of(2024, 3, 5), LeaveStatus.APPROVED));
+        entityManager.persist(leave(jane, LeaveType.CASUAL,
+            LocalDate.of(2024, 3, 18), LocalDate.of(2024, 3, 19), LeaveStatus.PENDING));
+        entityManager.flush();
+        workingDayCalendar.reload();
+    }
+
+    @Test
+    void recordApproved_SplitsWorkingDaysByMonthAndAccumulates() {
+        leaveUsageService.recordApproved(List.of(acrossMonths));
+        leaveUsageService.recordApproved(List.of(sick, otherDepartment));
+
+        assertEquals(List.of(
+                usage("IT", FEBRUARY, LeaveType.CASUAL, 1, 1),
+                usage("HR", MARCH, LeaveType.CASUAL, 1, 1),
+                usage("IT", MARCH, LeaveType.CASUAL, 2, 0),
+                usage("IT", MARCH, LeaveType.SICK, 2, 1)),
+            leaveUsageService.getUsage(FEBRUARY, MARCH, null, null));
+    }
+
+    @Test
+    void recordApproved_SameMonthAddsToExistingSummary() {
+        leaveUsageService.recordApproved(List.of(otherDepartment));
+        leaveUsageService.recordApproved(List.of(otherDepartment));
+
+        assertEquals(List.of(usage("HR", MARCH, LeaveType.CASUAL, 2, 2)),
+            leaveUsageService.getUsage(MARCH, MARCH, "HR", null));
+    }
+
+    @Test
+    void getUsage_FiltersByDepartmentTypeAndMonth() {
+        leaveUsageService.recordApproved(List.of(acrossMonths, sick, otherDepartment));
+
+        assertEquals(List.of(usage("IT", MARCH, LeaveType.SICK, 2, 1)),
+            leaveUsageService.getUsage(FEBRUARY, MARCH, "IT", LeaveType.SICK));
+        assertEquals(List.of(usage("IT", FEBRUARY, LeaveType.CASUAL, 1, 1)),
+            leaveUsageService.getUsage(FEBRUARY, FEBRUARY, null, LeaveType.CASUAL));
+        assertTrue(leaveUsageService.getUsage(MARCH.plusMonths(1), MARCH.plusMonths(2), null, null).isEmpty());
+    }
+
+    @Test
+    void getUsage_FromAfterTo() {
+        assertThrows(InvalidDateException.class, () -> leaveUsageService.getUsage(MARCH, FEBRUARY, null, null));
+    }
+
+    @Test
+    void rebuild_CountsEveryApprovedLeaveOnce() {
+        // Summaries recorded before the rebuild are replaced, not added to
+        leaveUsageService.recordApproved(List.of(acrossMonths));
+        entityManager.flush();
+
+        assertEquals(3, leaveUsageService.rebuild());
+        entityManager.flush();
+        entityManager.clear();
+
+        assertEquals(List.of(
+                usage("IT", FEBRUARY, LeaveType.CASUAL, 1, 1),
+                usage("HR", MARCH, LeaveType.CASUAL, 1, 1),
+                usage("IT", MARCH, LeaveType.CASUAL, 2, 0),
+                usage("IT", MARCH, LeaveType.SICK, 2, 1)),
+            leaveUsageService.getUsage(FEBRUARY, MARCH, null, null));
+    }
+
+    private static LeaveUsageDTO usage(String department, YearMonth month, LeaveType leaveType, long days, long leaves) {
+        return LeaveUsageDTO.builder()
+            .department(department)
+            .month(month)
+            .leaveType(leaveType)
+            .daysTaken(days)
+            .leaveCount(leaves)
+            .build();
+    }
+
+    private static Employee employee(String name, String email, String department) {
+        return Employee.builder()
+            .name(name)
+            .email(email)
+            .department(department)
+            .managerId(9L)
+            .leaveBalance(LeaveBalance.builder().sickLeave(10).casualLeave(12).earnedLeave(18).year(2024).build())
+            .build();
+    }
+
+    private static Leave leave(Employee employee, LeaveType type, LocalDate start, LocalDate end, LeaveStatus status) {
+        return Leave.builder()
+            .employee(employee)
+            .leaveType(type)
+            .startDate(start)
+            .endDate(end)
+            .numberOfDays(2)
+            .reason("Family function")
+            .status(status)
+            .appliedDate(LocalDate.of(2024, 2, 1))
+            .build();
+    }
+}
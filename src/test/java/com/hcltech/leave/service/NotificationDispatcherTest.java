@@ -0,0 +1,179 @@
+package com.hcltech.leave.service;
+
+import com.hcltech.leave.config.NotificationProperties;
+import com.hcltech.leave.enums.LeaveStatus;
+import com.hcltech.leave.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class NotificationDispatcherTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<List<LeaveStatusNotification>> deliveries = new CopyOnWriteArrayList<>();
+    private final OutboxEventRepository outboxEventRepository = mock(OutboxEventRepository.class);
+    private NotificationDispatcher dispatcher;
+
+    @AfterEach
+    void tearDown() {
+        if (dispatcher != null && dispatcher.isRunning()) {
+            dispatcher.stop();
+        }
+    }
+
+    @Test
+    void testDispatch_BatchesPerRecipient() throws Exception {
+        // Arrange
+        dispatcher = dispatcher((recipient, notifications) -> deliveries.add(notifications), 10, 3);
+        dispatcher.enqueue(notification(1L, "john@hcltech.com"));
+        dispatcher.enqueue(notification(2L, "jane@hcltech.com"));
+        dispatcher.enqueue(notification(3L, "john@hcltech.com"));
+
+        // Act
+        dispatcher.start();
+        awaitCounter("leave.notifications.sent", 3);
+
+        // Assert
+        assertEquals(2, deliveries.size());
+        assertEquals(List.of(1L, 3L), deliveries.get(0).stream().map(LeaveStatusNotification::leaveId).toList());
+        assertEquals(List.of(2L), deliveries.get(1).stream().map(LeaveStatusNotification::leaveId).toList());
+        assertEquals(3, meterRegistry.get("leave.notifications.lag").timer().count());
+        assertEquals(0, dispatcher.queueDepth());
+        verify(outboxEventRepository).markProcessed(eq(List.of(101L, 103L)), any());
+        verify(outboxEventRepository).markProcessed(eq(List.of(102L)), any());
+    }
+
+    @Test
+    void testDispatch_RetriesWithBackoffThenSucceeds() throws Exception {
+        // Arrange
+        AtomicInteger attempts = new AtomicInteger();
+        dispatcher = dispatcher((recipient, notifications) -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw new IllegalStateException("gateway unavailable");
+            }
+            deliveries.add(notifications);
+        }, 10, 5);
+
+        // Act
+        dispatcher.start();
+        dispatcher.enqueue(notification(1L, "john@hcltech.com"));
+        awaitCounter("leave.notifications.sent", 1);
+
+        // Assert
+        assertEquals(3, attempts.get());
+        assertEquals(2, meterRegistry.get("leave.notifications.retries").counter().count());
+        assertEquals(0, meterRegistry.get("leave.notifications.failed").counter().count());
+    }
+
+    @Test
+    void testDispatch_CountsFailureAfterMaxAttempts() throws Exception {
+        // Arrange
+        dispatcher = dispatcher((recipient, notifications) -> {
+            throw new IllegalStateException("gateway unavailable");
+        }, 10, 2);
+
+        // Act
+        dispatcher.start();
+        dispatcher.enqueue(notification(1L, "john@hcltech.com"));
+        awaitCounter("leave.notifications.failed", 1);
+
+        // Assert
+        assertEquals(1, meterRegistry.get("leave.notifications.retries").counter().count());
+        assertEquals(0, meterRegistry.get("leave.notifications.sent").counter().count());
+        verifyNoInteractions(outboxEventRepository);
+    }
+
+    @Test
+    void testEnqueue_DropsWhenQueueFull() {
+        // Arrange
+        dispatcher = dispatcher((recipient, notifications) -> deliveries.add(notifications), 1, 1);
+
+        // Act
+        boolean first = dispatcher.enqueue(notification(1L, "john@hcltech.com"));
+        boolean second = dispatcher.enqueue(notification(2L, "john@hcltech.com"));
+
+        // Assert
+        assertTrue(first);
+        assertFalse(second);
+        assertEquals(1, meterRegistry.get("leave.notifications.dropped").counter().count());
+        assertEquals(1.0, meterRegistry.get("leave.notifications.queue.depth").gauge().value());
+    }
+
+    @Test
+    void testEnqueue_IgnoresEventAlreadyHeld() {
+        // Arrange
+        dispatcher = dispatcher((recipient, notifications) -> deliveries.add(notifications), 10, 1);
+
+        // Act
+        boolean first = dispatcher.enqueue(notification(1L, "john@hcltech.com"));
+        boolean again = dispatcher.enqueue(notification(1L, "john@hcltech.com"));
+
+        // Assert
+        assertTrue(first);
+        assertTrue(again);
+        assertEquals(1, dispatcher.queueDepth());
+    }
+
+    @Test
+    void testLeases_HeldUntilDeliveryEnds() throws Exception {
+        // Arrange
+        dispatcher = dispatcher((recipient, notifications) -> deliveries.add(notifications), 10, 1);
+        dispatcher.enqueue(notification(1L, "john@hcltech.com"));
+        Instant later = Instant.now().plusSeconds(60);
+        assertEquals(List.of(101L), dispatcher.leasesTakenBefore(later));
+
+        // Act
+        dispatcher.leasesRenewed(List.of(101L), later);
+
+        // Assert
+        assertTrue(dispatcher.leasesTakenBefore(later).isEmpty());
+        dispatcher.start();
+        awaitCounter("leave.notifications.sent", 1);
+        assertTrue(dispatcher.leasesTakenBefore(later.plusSeconds(1)).isEmpty());
+    }
+
+    @Test
+    void testStop_DrainsQueuedNotifications() {
+        // Arrange
+        dispatcher = dispatcher((recipient, notifications) -> deliveries.add(notifications), 10, 1);
+        dispatcher.start();
+        dispatcher.enqueue(notification(1L, "john@hcltech.com"));
+
+        // Act
+        dispatcher.stop();
+
+        // Assert
+        assertEquals(1, deliveries.size());
+        assertFalse(dispatcher.isRunning());
+    }
+
+    private NotificationDispatcher dispatcher(NotificationSender sender, int capacity, int maxAttempts) {
+        NotificationProperties properties = new NotificationProperties(
+            capacity, 100, maxAttempts, Duration.ofMillis(5), Duration.ofMillis(20));
+        return new NotificationDispatcher(sender, outboxEventRepository, properties, Thread::new, meterRegistry);
+    }
+
+    private void awaitCounter(String name, double expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (meterRegistry.get(name).counter().count() < expected) {
+            assertTrue(System.currentTimeMillis() < deadline, "Timed out waiting for " + name);
+            Thread.sleep(10);
+        }
+    }
+
+    private static LeaveStatusNotification notification(Long leaveId, String recipient) {
+        return new LeaveStatusNotification(leaveId + 100, leaveId, recipient, "John Doe", LeaveStatus.APPROVED,
+            "Approved", Instant.now());
+    }
+}
@@ -0,0 +1,148 @@
+package com.hcltech.leave.service;
+
+import com.hcltech.leave.dto.LeaveApprovalDTO;
+import com.hcltech.leave.enums.LeaveStatus;
+import com.hcltech.leave.enums.LeaveType;
+import com.hcltech.leave.model.Employee;
+import com.hcltech.leave.model.Leave;
+import com.hcltech.leave.model.LeaveBalance;
+import com.hcltech.leave.repository.EmployeeRepository;
+import com.hcltech.leave.repository.LeaveRepository;
+import com.hcltech.leave.repository.OutboxEventRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Load check that approval latency does not depend on how slow the notification sender is:
+ * the approval transaction only writes an outbox row and never waits on delivery.
+ */
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:outbox_latency;DB_CLOSE_DELAY=-1;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=YEAR,MONTH,VALUE",
+    "leave.outbox.poll-interval=50ms"
+})
+@ActiveProfiles("test")
+@Slf4j
+class OutboxApprovalLatencyTest {
+
+    private static final int APPROVALS_PER_ROUND = 50;
+    private static final long SLOW_SENDER_MILLIS = 500;
+
+    @Autowired
+    private LeaveService leaveService;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private LeaveRepository leaveRepository;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private DelayingSender sender;
+
+    @Test
+    void approvalLatencyIsIndependentOfSenderSpeed() throws InterruptedException {
+        Employee employee = employeeRepository.save(Employee.builder()
+            .name("John Doe")
+            .email("john.latency@hcltech.com")
+            .department("IT")
+            .managerId(2L)
+            .leaveBalance(LeaveBalance.builder().sickLeave(1000).casualLeave(1000).earnedLeave(1000).year(2024).build())
+            .build());
+
+        sender.delayMillis.set(0);
+        approveRound(employee); // warm-up
+        long[] fast = approveRound(employee);
+        sender.delayMillis.set(SLOW_SENDER_MILLIS);
+        long[] slow = approveRound(employee);
+
+        log.info("Approval latency with instant sender: p50={}ms p99={}ms", percentile(fast, 50), percentile(fast, 99));
+        log.info("Approval latency with {}ms sender: p50={}ms p99={}ms",
+            SLOW_SENDER_MILLIS, percentile(slow, 50), percentile(slow, 99));
+
+        assertTrue(percentile(slow, 99) < SLOW_SENDER_MILLIS,
+            "Approvals must not wait for the notification sender");
+
+        // Every event is eventually delivered and acknowledged
+        long deadline = System.currentTimeMillis() + 30_000;
+        while (outboxEventRepository.findAll().stream().anyMatch(e -> e.getProcessedAt() == null)) {
+            assertTrue(System.currentTimeMillis() < deadline, "Outbox was not drained");
+            Thread.sleep(50);
+        }
+    }
+
+    private long[] approveRound(Employee employee) {
+        List<Leave> leaves = new ArrayList<>();
+        for (int i = 0; i < APPROVALS_PER_ROUND; i++) {
+            leaves.add(leaveRepository.save(Leave.builder()
+                .employee(employee)
+                .leaveType(LeaveType.EARNED)
+                .startDate(LocalDate.now().plusDays(1))
+                .endDate(LocalDate.now().plusDays(1))
+                .numberOfDays(1)
+                .reason("Load test leave")
+                .status(LeaveStatus.PENDING)
+                .appliedDate(LocalDate.now())
+                .build()));
+        }
+        long[] millis = new long[leaves.size()];
+        for (int i = 0; i < leaves.size(); i++) {
+            long start = System.nanoTime();
+            leaveService.approveOrRejectLeave(LeaveApprovalDTO.builder()
+                .leaveId(leaves.get(i).getId())
+                .managerId(2L)
+                .status(LeaveStatus.APPROVED)
+                .build());
+            millis[i] = (System.nanoTime() - start) / 1_000_000;
+        }
+        return millis;
+    }
+
+    private static long percentile(long[] values, int percentile) {
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(index, 0)];
+    }
+
+    static class DelayingSender implements NotificationSender {
+
+        final AtomicLong delayMillis = new AtomicLong();
+
+        @Override
+        public void send(String recipientEmail, List<LeaveStatusNotification> notifications) {
+            try {
+                Thread.sleep(delayMillis.get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    @TestConfiguration
+    static class SlowSenderConfig {
+
+        @Bean
+        @Primary
+        DelayingSender delayingSender() {
+            return new DelayingSender();
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.hcltech.leave.service;
+
+import com.hcltech.leave.config.NotificationProperties;
+import com.hcltech.leave.config.OutboxProperties;
+import com.hcltech.leave.enums.LeaveStatus;
+import com.hcltech.leave.model.OutboxEvent;
+import com.hcltech.leave.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The relay and dispatcher against a real outbox when notifications back up: a queue with room
+ * for fewer events than are pending, and a delivery that outlasts the claim lease.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OutboxBackpressureTest {
+
+    private static final Duration LEASE = Duration.ofSeconds(1);
+    private static final int QUEUE_CAPACITY = 3;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final List<Long> delivered = new CopyOnWriteArrayList<>();
+    private final CountDownLatch releaseSender = new CountDownLatch(1);
+    private NotificationDispatcher dispatcher;
+    private OutboxRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        outboxEventRepository.deleteAll();
+        NotificationSender blockingSender = (recipient, notifications) -> {
+            await(releaseSender);
+            notifications.forEach(notification -> delivered.add(notification.eventId()));
+        };
+        dispatcher = new NotificationDispatcher(blockingSender, outboxEventRepository,
+            new NotificationProperties(QUEUE_CAPACITY, 100, 5, Duration.ofMillis(5), Duration.ofMillis(20)),
+            Thread::new, new SimpleMeterRegistry());
+        relay = new OutboxRelay(outboxEventRepository, new NotificationService(dispatcher),
+            new OutboxProperties(2, LEASE, 10, Duration.ofDays(7)), new TransactionTemplate(transactionManager));
+    }
+
+    @AfterEach
+    void tearDown() {
+        releaseSender.countDown();
+        if (dispatcher.isRunning()) {
+            dispatcher.stop();
+        }
+        outboxEventRepository.deleteAll();
+    }
+
+    @Test
+    void relay_QueueFullAndSlowDelivery_DeliversEachEventOnceWithoutBurningAttempts() throws Exception {
+        List<Long> eventIds = IntStream.range(0, 5)
+            .mapToObj(i -> outboxEventRepository.save(event()).getId())
+            .toList();
+
+        // Only what fits in the queue is claimed; the rest is not touched
+        relay.relay();
+        assertEquals(QUEUE_CAPACITY, dispatcher.queueDepth());
+        assertEquals(List.of(1, 1, 1, 0, 0), attempts(eventIds));
+
+        // The worker takes the queued events and is held in delivery for twice the lease,
+        // while the relay keeps polling with room in the queue
+        dispatcher.start();
+        awaitTrue(() -> dispatcher.queueDepth() == 0);
+        long pollUntil = System.currentTimeMillis() + LEASE.toMillis() * 2;
+        while (System.currentTimeMillis() < pollUntil) {
+            relay.relay();
+            Thread.sleep(100);
+        }
+        assertEquals(List.of(1, 1, 1, 1, 1), attempts(eventIds));
+
+        releaseSender.countDown();
+        awaitTrue(() -> {
+            relay.relay();
+            return outboxEventRepository.findAll().stream().allMatch(event -> event.getProcessedAt() != null);
+        });
+
+        assertEquals(eventIds, delivered.stream().sorted().toList());
+        assertEquals(List.of(1, 1, 1, 1, 1), attempts(eventIds));
+    }
+
+    private List<Integer> attempts(List<Long> eventIds) {
+        return outboxEventRepository.findAllById(eventIds).stream()
+            .sorted(Comparator.comparing(OutboxEvent::getId))
+            .map(OutboxEvent::getAttempts)
+            .toList();
+    }
+
+    private static OutboxEvent event() {
+        return OutboxEvent.builder()
+            .leaveId(1L)
+            .recipientEmail("john@hcltech.com")
+            .employeeName("John Doe")
+            .status(LeaveStatus.APPROVED)
+            .createdAt(Instant.now())
+            .build();
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10000;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "Timed out");
+            Thread.sleep(50);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
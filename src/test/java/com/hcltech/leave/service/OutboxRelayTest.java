@@ -0,0 +1,158 @@
+package com.hcltech.leave.service;
+
+import com.hcltech.leave.config.OutboxProperties;
+import com.hcltech.leave.enums.LeaveStatus;
+import com.hcltech.leave.model.OutboxEvent;
+import com.hcltech.leave.repository.OutboxEventRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxRelayTest {
+
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+
+    @Mock
+    private NotificationService notificationService;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private OutboxRelay outboxRelay;
+
+    @BeforeEach
+    void setUp() {
+        OutboxProperties properties = new OutboxProperties(2, Duration.ofMinutes(1), 10, Duration.ofDays(7));
+        outboxRelay = new OutboxRelay(outboxEventRepository, notificationService, properties, transactionTemplate);
+        lenient().when(transactionTemplate.execute(any()))
+            .thenAnswer(i -> i.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        lenient().when(notificationService.remainingCapacity()).thenReturn(100);
+    }
+
+    @Test
+    void testClaimBatch_StampsLeaseAndAttempt() {
+        // Arrange
+        OutboxEvent event = event(1L);
+        when(outboxEventRepository.lockNextBatch(any(Instant.class), eq(10), eq(2))).thenReturn(List.of(event));
+
+        // Act
+        List<OutboxEvent> claimed = outboxRelay.claimBatch(2);
+
+        // Assert
+        assertEquals(List.of(event), claimed);
+        assertNotNull(event.getClaimedAt());
+        assertEquals(1, event.getAttempts());
+    }
+
+    @Test
+    void testRelay_KeepsPollingWhileBatchesAreFull() {
+        // Arrange
+        List<OutboxEvent> full = List.of(event(1L), event(2L));
+        List<OutboxEvent> partial = List.of(event(3L));
+        when(outboxEventRepository.lockNextBatch(any(Instant.class), anyInt(), anyInt()))
+            .thenReturn(full, partial);
+        when(notificationService.consume(anyList())).thenAnswer(i -> i.<List<?>>getArgument(0).size());
+
+        // Act
+        outboxRelay.relay();
+
+        // Assert
+        verify(notificationService).consume(full);
+        verify(notificationService).consume(partial);
+        verify(outboxEventRepository, times(2)).lockNextBatch(any(Instant.class), anyInt(), anyInt());
+    }
+
+    @Test
+    void testRelay_StopsWhenDispatcherIsSaturated() {
+        // Arrange
+        when(outboxEventRepository.lockNextBatch(any(Instant.class), anyInt(), anyInt()))
+            .thenReturn(List.of(event(1L), event(2L)));
+        when(notificationService.consume(anyList())).thenReturn(1);
+
+        // Act
+        outboxRelay.relay();
+
+        // Assert
+        verify(outboxEventRepository, times(1)).lockNextBatch(any(Instant.class), anyInt(), anyInt());
+    }
+
+    @Test
+    void testRelay_ClaimsNoMoreThanDispatcherHasRoomFor() {
+        // Arrange
+        when(notificationService.remainingCapacity()).thenReturn(1, 0);
+        when(outboxEventRepository.lockNextBatch(any(Instant.class), anyInt(), eq(1))).thenReturn(List.of(event(1L)));
+        when(notificationService.consume(anyList())).thenReturn(1);
+
+        // Act
+        outboxRelay.relay();
+
+        // Assert
+        verify(outboxEventRepository).lockNextBatch(any(Instant.class), anyInt(), eq(1));
+        verifyNoMoreInteractions(outboxEventRepository);
+    }
+
+    @Test
+    void testRelay_ReleasesEventsTheDispatcherTurnedAway() {
+        // Arrange
+        when(outboxEventRepository.lockNextBatch(any(Instant.class), anyInt(), anyInt()))
+            .thenReturn(List.of(event(1L), event(2L)));
+        when(notificationService.consume(anyList())).thenReturn(1);
+
+        // Act
+        outboxRelay.relay();
+
+        // Assert
+        verify(outboxEventRepository).releaseClaims(List.of(2L));
+    }
+
+    @Test
+    void testRelay_RenewsLeasesOfHeldEventsInBatches() {
+        // Arrange
+        when(notificationService.leasesTakenBefore(any(Instant.class))).thenReturn(List.of(1L, 2L, 3L));
+
+        // Act
+        outboxRelay.relay();
+
+        // Assert
+        verify(outboxEventRepository).renewClaims(eq(List.of(1L, 2L)), any(Instant.class));
+        verify(outboxEventRepository).renewClaims(eq(List.of(3L)), any(Instant.class));
+        verify(notificationService).leasesRenewed(eq(List.of(3L)), any(Instant.class));
+    }
+
+    @Test
+    void testPurgeProcessed_DeletesOlderThanRetention() {
+        // Arrange
+        Instant before = Instant.now().minus(Duration.ofDays(7));
+
+        // Act
+        outboxRelay.purgeProcessed();
+
+        // Assert
+        verify(outboxEventRepository).deleteProcessedBefore(argThat(cutoff -> !cutoff.isBefore(before)));
+    }
+
+    private static OutboxEvent event(Long id) {
+        return OutboxEvent.builder()
+            .id(id)
+            .leaveId(id)
+            .recipientEmail("john@hcltech.com")
+            .status(LeaveStatus.APPROVED)
+            .createdAt(Instant.now())
+            .build();
+    }
+}
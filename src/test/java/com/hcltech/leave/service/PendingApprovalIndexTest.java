@@ -0,0 +1,184 @@
+package com.hcltech.leave.service;
+
+import com.hcltech.leave.dto.LeaveResponseDTO;
+import com.hcltech.leave.dto.PendingLeaveRow;
+import com.hcltech.leave.enums.LeaveStatus;
+import com.hcltech.leave.repository.LeaveRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class PendingApprovalIndexTest {
+
+    private final LeaveRepository leaveRepository = mock(LeaveRepository.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private PendingApprovalIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new PendingApprovalIndex(leaveRepository, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void pending_BeforeFirstBuild_ReadsTheDatabase() {
+        when(leaveRepository.findPendingApprovals(7L)).thenReturn(List.of(row(7L, 1L)));
+
+        assertEquals(List.of(1L), ids(index.pending(7L)));
+        assertEquals(LeaveStatus.PENDING, index.pending(7L).get(0).getStatus());
+        verify(leaveRepository, times(2)).findPendingApprovals(7L);
+    }
+
+    @Test
+    void pending_AfterBuild_ServedFromMemoryOldestFirst() {
+        when(leaveRepository.findAllPendingApprovals()).thenReturn(List.of(row(7L, 3L), row(7L, 1L), row(8L, 2L)));
+
+        index.loadOnStartup();
+
+        assertEquals(List.of(1L, 3L), ids(index.pending(7L)));
+        assertEquals(1, index.count(8L));
+        assertEquals(0, index.count(9L));
+        assertTrue(index.pending(9L).isEmpty());
+        verify(leaveRepository, never()).findPendingApprovals(any());
+    }
+
+    @Test
+    void updates_AppliedOnlyOnceCommitted() {
+        when(leaveRepository.findAllPendingApprovals()).thenReturn(List.of(row(7L, 1L)));
+        index.loadOnStartup();
+
+        TransactionSynchronizationManager.initSynchronization();
+        index.addAfterCommit(7L, dto(2L));
+        index.removeAfterCommit(7L, 1L);
+        assertEquals(List.of(1L), ids(index.pending(7L)));
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertEquals(List.of(2L), ids(index.pending(7L)));
+    }
+
+    @Test
+    void updates_WithoutManagerAreIgnored() {
+        when(leaveRepository.findAllPendingApprovals()).thenReturn(List.of());
+        index.loadOnStartup();
+
+        // Employees without a manager have nobody to approve their leaves
+        assertDoesNotThrow(() -> index.addAfterCommit(null, dto(1L)));
+        assertDoesNotThrow(() -> index.removeAfterCommit(null, 1L));
+    }
+
+    @Test
+    void updates_ConcurrentAcrossManagersAreAllKept() throws Exception {
+        when(leaveRepository.findAllPendingApprovals()).thenReturn(List.of());
+        index.loadOnStartup();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            LongStream.range(0, 4000).forEach(id -> executor.execute(() -> index.addAfterCommit(id % 4, dto(id))));
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+
+        for (long managerId = 0; managerId < 4; managerId++) {
+            assertEquals(1000, index.count(managerId));
+        }
+    }
+
+    @Test
+    void check_RepairsDriftAndCountsIt() {
+        when(leaveRepository.findAllPendingApprovals()).thenReturn(List.of(row(7L, 1L), row(8L, 2L)));
+        index.loadOnStartup();
+        // Another node approved leave 1 and took leave 3 for manager 9
+        when(leaveRepository.findAllPendingApprovals()).thenReturn(List.of(row(8L, 2L), row(9L, 3L)));
+
+        index.check();
+
+        assertEquals(0, index.count(7L));
+        assertEquals(List.of(3L), ids(index.pending(9L)));
+        assertEquals(2.0, meterRegistry.counter(PendingApprovalIndex.DRIFT_COUNTER_NAME).count());
+
+        index.check();
+        assertEquals(2.0, meterRegistry.counter(PendingApprovalIndex.DRIFT_COUNTER_NAME).count());
+    }
+
+    @Test
+    void rebuild_RetriesWhenAnUpdateCommitsWhileReading() {
+        when(leaveRepository.findAllPendingApprovals())
+            .thenAnswer(invocation -> {
+                // Committed after this read started; the read does not include it
+                index.addAfterCommit(7L, dto(5L));
+                return List.of();
+            })
+            .thenReturn(List.of(row(7L, 5L)));
+
+        assertEquals(0, index.rebuild());
+
+        assertEquals(List.of(5L), ids(index.pending(7L)));
+        verify(leaveRepository, times(2)).findAllPendingApprovals();
+    }
+
+    @Test
+    void rebuild_ConcurrentRebuildsReadOneAtATime() throws Exception {
+        AtomicInteger reading = new AtomicInteger();
+        AtomicInteger maxReading = new AtomicInteger();
+        when(leaveRepository.findAllPendingApprovals()).thenAnswer(invocation -> {
+            maxReading.accumulateAndGet(reading.incrementAndGet(), Math::max);
+            Thread.sleep(20);
+            reading.decrementAndGet();
+            return List.of(row(7L, 1L));
+        });
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            for (int i = 0; i < 8; i++) {
+                executor.execute(index::check);
+            }
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(1, maxReading.get());
+        assertEquals(List.of(1L), ids(index.pending(7L)));
+    }
+
+    private static List<Long> ids(List<LeaveResponseDTO> leaves) {
+        return leaves.stream().map(LeaveResponseDTO::getId).toList();
+    }
+
+    private static LeaveResponseDTO dto(long id) {
+        return LeaveResponseDTO.builder().id(id).status(LeaveStatus.PENDING).build();
+    }
+
+    private static PendingLeaveRow row(Long managerId, Long id) {
+        return PendingLeaveRow.builder()
+            .managerId(managerId)
+            .id(id)
+            .employeeName("Employee " + id)
+            .startDate(LocalDate.of(2030, 1, 7))
+            .endDate(LocalDate.of(2030, 1, 8))
+            .numberOfDays(2)
+            .appliedDate(LocalDate.of(2030, 1, 1))
+            .build();
+    }
+}
@@ -0,0 +1,118 @@
+package com.hcltech.leave.service;
+
+import com.hcltech.leave.config.CalendarProperties;
+import com.hcltech.leave.dto.TeamCalendarDayDTO;
+import com.hcltech.leave.enums.LeaveStatus;
+import com.hcltech.leave.enums.LeaveType;
+import com.hcltech.leave.model.Employee;
+import com.hcltech.leave.model.Leave;
+import com.hcltech.leave.model.TeamAbsenceDay;
+import com.hcltech.leave.repository.HolidayRepository;
+import com.hcltech.leave.repository.TeamAbsenceDayRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TeamAbsenceCalendarTest {
+
+    // Friday 2024-01-05 to Tuesday 2024-01-09
+    private static final LocalDate FRIDAY = LocalDate.of(2024, 1, 5);
+    private static final LocalDate TUESDAY = LocalDate.of(2024, 1, 9);
+
+    @Mock
+    private TeamAbsenceDayRepository teamAbsenceDayRepository;
+
+    @Mock
+    private HolidayRepository holidayRepository;
+
+    private TeamAbsenceCalendar calendar;
+
+    @BeforeEach
+    void setUp() {
+        calendar = new TeamAbsenceCalendar(teamAbsenceDayRepository, new WorkingDayCalendar(holidayRepository,
+            new CalendarProperties(Set.of(DayOfWeek.SATURDAY, DayOfWeek.SUNDAY))));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void recordApproved_StoresOneRowPerWorkingDayUnderTheManager() {
+        when(holidayRepository.findAll()).thenReturn(List.of());
+        Leave leave = approvedLeave(employee(1L, "John Doe", 2L));
+        Leave unmanaged = approvedLeave(employee(3L, "Jane Director", null));
+
+        calendar.recordApproved(List.of(leave, unmanaged));
+
+        ArgumentCaptor<List<TeamAbsenceDay>> days = ArgumentCaptor.forClass(List.class);
+        verify(teamAbsenceDayRepository).saveAll(days.capture());
+        assertEquals(List.of(FRIDAY, FRIDAY.plusDays(3), TUESDAY),
+            days.getValue().stream().map(TeamAbsenceDay::getAbsenceDate).toList());
+        days.getValue().forEach(day -> {
+            assertEquals(2L, day.getManagerId());
+            assertEquals(1L, day.getEmployeeId());
+            assertEquals("John Doe", day.getEmployeeName());
+            assertEquals(10L, day.getLeaveId());
+        });
+    }
+
+    @Test
+    void calendar_ReturnsEveryDayWithAbsentEmployees() {
+        when(teamAbsenceDayRepository.findByManagerIdAndAbsenceDateBetweenOrderByAbsenceDateAscEmployeeNameAsc(
+                2L, FRIDAY, TUESDAY))
+            .thenReturn(List.of(
+                absence(FRIDAY, "Jane Roe"),
+                absence(FRIDAY, "John Doe"),
+                absence(TUESDAY, "John Doe")));
+
+        List<TeamCalendarDayDTO> days = calendar.calendar(2L, FRIDAY, TUESDAY);
+
+        assertEquals(5, days.size());
+        assertEquals(FRIDAY, days.get(0).getDate());
+        assertEquals(2, days.get(0).getAbsentCount());
+        assertEquals(List.of("Jane Roe", "John Doe"), days.get(0).getAbsentEmployees());
+        assertEquals(0, days.get(1).getAbsentCount());
+        assertTrue(days.get(1).getAbsentEmployees().isEmpty());
+        assertEquals(TUESDAY, days.get(4).getDate());
+        assertEquals(List.of("John Doe"), days.get(4).getAbsentEmployees());
+    }
+
+    private static Employee employee(Long id, String name, Long managerId) {
+        return Employee.builder()
+            .id(id)
+            .name(name)
+            .department("IT")
+            .managerId(managerId)
+            .build();
+    }
+
+    private static Leave approvedLeave(Employee employee) {
+        return Leave.builder()
+            .id(10L)
+            .employee(employee)
+            .leaveType(LeaveType.CASUAL)
+            .startDate(FRIDAY)
+            .endDate(TUESDAY)
+            .numberOfDays(3)
+            .status(LeaveStatus.APPROVED)
+            .build();
+    }
+
+    private static TeamAbsenceDay absence(LocalDate date, String employeeName) {
+        return TeamAbsenceDay.builder()
+            .managerId(2L)
+            .absenceDate(date)
+            .employeeName(employeeName)
+            .build();
+    }
+}
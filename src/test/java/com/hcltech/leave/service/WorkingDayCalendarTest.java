@@ -0,0 +1,113 @@
+package com.hcltech.leave.service;
+
+import com.hcltech.leave.config.CalendarProperties;
+import com.hcltech.leave.model.Holiday;
+import com.hcltech.leave.repository.HolidayRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class WorkingDayCalendarTest {
+
+    // Monday 2024-01-01 to Sunday 2024-01-07
+    private static final LocalDate MONDAY = LocalDate.of(2024, 1, 1);
+    private static final LocalDate SUNDAY = LocalDate.of(2024, 1, 7);
+
+    @Mock
+    private HolidayRepository holidayRepository;
+
+    private WorkingDayCalendar calendar;
+
+    @BeforeEach
+    void setUp() {
+        calendar = new WorkingDayCalendar(holidayRepository,
+            new CalendarProperties(Set.of(DayOfWeek.SATURDAY, DayOfWeek.SUNDAY)));
+    }
+
+    @Test
+    void workingDays_ExcludesWeekends() {
+        when(holidayRepository.findAll()).thenReturn(List.of());
+
+        assertEquals(5, calendar.workingDays("IT", MONDAY, SUNDAY));
+        assertEquals(0, calendar.workingDays("IT", SUNDAY.minusDays(1), SUNDAY));
+        assertEquals(1, calendar.workingDays("IT", MONDAY, MONDAY));
+        assertEquals(0, calendar.workingDays("IT", SUNDAY, MONDAY));
+    }
+
+    @Test
+    void workingDays_ExcludesCompanyAndOwnDepartmentHolidays() {
+        when(holidayRepository.findAll()).thenReturn(List.of(
+            holiday(null, MONDAY),
+            holiday("IT", MONDAY.plusDays(2)),
+            holiday("HR", MONDAY.plusDays(3))));
+
+        assertEquals(3, calendar.workingDays("IT", MONDAY, SUNDAY));
+        assertEquals(3, calendar.workingDays("HR", MONDAY, SUNDAY));
+        assertEquals(4, calendar.workingDays("Finance", MONDAY, SUNDAY));
+        assertFalse(calendar.isWorkingDay("IT", MONDAY.plusDays(2)));
+        assertTrue(calendar.isWorkingDay("HR", MONDAY.plusDays(2)));
+        assertFalse(calendar.isWorkingDay("HR", SUNDAY));
+    }
+
+    @Test
+    void workingDays_SpansYearsAndMatchesDayByDayCount() {
+        when(holidayRepository.findAll()).thenReturn(List.of(holiday(null, LocalDate.of(2024, 12, 25))));
+        LocalDate start = LocalDate.of(2023, 11, 15);
+        LocalDate end = LocalDate.of(2026, 2, 3);
+
+        long expected = start.datesUntil(end.plusDays(1))
+            .filter(day -> day.getDayOfWeek() != DayOfWeek.SATURDAY && day.getDayOfWeek() != DayOfWeek.SUNDAY)
+            .filter(day -> !day.equals(LocalDate.of(2024, 12, 25)))
+            .count();
+
+        assertEquals(expected, calendar.workingDays("IT", start, end));
+        assertTrue(expected < ChronoUnit.DAYS.between(start, end));
+    }
+
+    @Test
+    void workingDays_NoWeekendDays() {
+        when(holidayRepository.findAll()).thenReturn(List.of());
+        calendar = new WorkingDayCalendar(holidayRepository, new CalendarProperties(Set.of()));
+
+        assertEquals(7, calendar.workingDays("IT", MONDAY, SUNDAY));
+    }
+
+    @Test
+    void reload_ReplacesHolidays() {
+        when(holidayRepository.findAll())
+            .thenReturn(List.of())
+            .thenReturn(List.of(holiday(null, MONDAY)));
+        assertEquals(5, calendar.workingDays("IT", MONDAY, SUNDAY));
+
+        assertEquals(1, calendar.reload());
+
+        assertEquals(4, calendar.workingDays("IT", MONDAY, SUNDAY));
+        verify(holidayRepository, times(2)).findAll();
+    }
+
+    @Test
+    void countBits_HandlesWordBoundaries() {
+        long[] bits = {-1L, -1L, -1L};
+
+        assertEquals(1, WorkingDayCalendar.countBits(bits, 63, 63));
+        assertEquals(2, WorkingDayCalendar.countBits(bits, 63, 64));
+        assertEquals(130, WorkingDayCalendar.countBits(bits, 10, 139));
+        assertEquals(192, WorkingDayCalendar.countBits(bits, 0, 191));
+    }
+
+    private static Holiday holiday(String department, LocalDate date) {
+        return Holiday.builder().department(department).date(date).name("Holiday").build();
+    }
+}